@@ -19,8 +19,23 @@
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
@@ -359,6 +374,352 @@ protected final void walk(final File startDirectory, final Collection<T> results
         }
     }
 
+    /**
+     * Internal method that walks the directory hierarchy in parallel on a fork-join pool.
+     * <p>
+     * Like {@link #walk(File, Collection)}, but each subdirectory is walked by a task forked onto the pool, so the
+     * directory and file callbacks may run concurrently on the pool threads and must be thread-safe, as must the
+     * results collection, for example a {@link java.util.concurrent.ConcurrentLinkedQueue}. The callbacks for a
+     * directory still run in order: {@link #handleDirectory}, {@link #handleDirectoryStart}, the contents, then
+     * {@link #handleDirectoryEnd} once all its subdirectories are done. {@link #handleStart}, {@link #handleEnd} and
+     * {@link #handleCancelled} run on the calling thread.
+     * </p>
+     * <p>
+     * Once a task is cancelled, by {@link #handleIsCancelled} or by a callback throwing a {@link CancelException},
+     * or fails with another {@link IOException}, the other tasks stop at their next callback and the first exception
+     * is handled as in the sequential walk.
+     * </p>
+     *
+     * @param startDirectory  the directory to start from, not null
+     * @param results  the thread-safe collection of result objects, may be updated
+     * @param pool  the pool to run the walk on, not null
+     * @throws NullPointerException if the start directory or the pool is null
+     * @throws IOException if an I/O Error occurs
+     * @since 2.9.0
+     */
+    protected final void walk(final File startDirectory, final Collection<T> results, final ForkJoinPool pool)
+            throws IOException {
+        Objects.requireNonNull(startDirectory, "startDirectory");
+        Objects.requireNonNull(pool, "pool");
+        try {
+            handleStart(startDirectory, results);
+            final AtomicReference<IOException> failure = new AtomicReference<>();
+            pool.invoke(new WalkTask(startDirectory, 0, results, failure));
+            final IOException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+            handleEnd(results);
+        } catch(final CancelException cancel) {
+            handleCancelled(startDirectory, results, cancel);
+        }
+    }
+
+    /**
+     * Walks a directory for {@link DirectoryWalker#walk(File, Collection, ForkJoinPool)}, forking a task per
+     * subdirectory.
+     */
+    private final class WalkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final int depth;
+        private final Collection<T> results;
+        /** The first exception of any task of the walk, which stops the others. */
+        private final AtomicReference<IOException> failure;
+
+        WalkTask(final File directory, final int depth, final Collection<T> results,
+                final AtomicReference<IOException> failure) {
+            this.directory = directory;
+            this.depth = depth;
+            this.results = results;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                final List<WalkTask> subdirectories = walkDirectory();
+                if (subdirectories != null) {
+                    invokeAll(subdirectories);
+                    checkIfFailed();
+                    handleDirectoryEnd(directory, depth, results);
+                }
+                checkIfCancelled(directory, depth, results);
+            } catch (final IOException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private void checkIfFailed() throws IOException {
+            final IOException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        /**
+         * Handles the directory and its files.
+         *
+         * @return the tasks for the subdirectories, or null if the directory is skipped.
+         */
+        private List<WalkTask> walkDirectory() throws IOException {
+            checkIfFailed();
+            checkIfCancelled(directory, depth, results);
+            if (!handleDirectory(directory, depth, results)) {
+                return null;
+            }
+            handleDirectoryStart(directory, depth, results);
+            final List<WalkTask> subdirectories = new ArrayList<>();
+            final int childDepth = depth + 1;
+            if (depthLimit < 0 || childDepth <= depthLimit) {
+                checkIfCancelled(directory, depth, results);
+                File[] childFiles = filter == null ? directory.listFiles() : directory.listFiles(filter);
+                childFiles = filterDirectoryContents(directory, depth, childFiles);
+                if (childFiles == null) {
+                    handleRestricted(directory, childDepth, results);
+                } else {
+                    for (final File childFile : childFiles) {
+                        checkIfFailed();
+                        if (childFile.isDirectory()) {
+                            subdirectories.add(new WalkTask(childFile, childDepth, results, failure));
+                        } else {
+                            checkIfCancelled(childFile, childDepth, results);
+                            handleFile(childFile, childDepth, results);
+                            checkIfCancelled(childFile, childDepth, results);
+                        }
+                    }
+                }
+            }
+            return subdirectories;
+        }
+    }
+
+    /**
+     * Internal method that walks the directory hierarchy in a depth-first manner, streaming each directory with
+     * {@link Files#newDirectoryStream(Path)} instead of listing it into an array.
+     * <p>
+     * Each entry's {@link BasicFileAttributes} are read once, or taken from the directory listing where the
+     * platform provides them, and handed to the filter, to {@link #handleDirectory(Path, BasicFileAttributes, int,
+     * Collection)} and to {@link #handleFile(Path, BasicFileAttributes, int, Collection)}; so a huge flat directory
+     * needs neither an array of all its entries nor a separate file system query per entry to tell directories from
+     * files. An {@link IOFileFilter} filter is asked with {@link IOFileFilter#accept(Path, BasicFileAttributes)}.
+     * </p>
+     * <p>
+     * The other callbacks are invoked as by {@link #walk(File, Collection)}, except for
+     * {@link #filterDirectoryContents(File, int, File...)} which is not, since the contents are never held as a
+     * whole; a directory that cannot be read is handed to {@link #handleRestricted}. Unless
+     * {@link FileVisitOption#FOLLOW_LINKS} is given, symbolic links are not followed and are reported as files: the
+     * filter and {@link #handleFile(Path, BasicFileAttributes, int, Collection)} see them, like other special files,
+     * as regular files with the size and times of the link itself.
+     * </p>
+     * <p>
+     * Unlike {@link #walk(File, Collection)}, which reports a missing start directory as restricted, this method
+     * throws a {@link java.nio.file.NoSuchFileException} for it.
+     * </p>
+     *
+     * @param startDirectory  the directory to start from, not null
+     * @param results  the collection of result objects, may be updated
+     * @param options  options to configure the traversal
+     * @throws NullPointerException if the start directory is null
+     * @throws IOException if an I/O Error occurs
+     * @since 2.9.0
+     */
+    protected final void walk(final Path startDirectory, final Collection<T> results, final FileVisitOption... options)
+            throws IOException {
+        Objects.requireNonNull(startDirectory, "startDirectory");
+        final File startFile = startDirectory.toFile();
+        final EnumSet<FileVisitOption> optionSet = EnumSet.noneOf(FileVisitOption.class);
+        optionSet.addAll(Arrays.asList(options));
+        try {
+            handleStart(startFile, results);
+            Files.walkFileTree(startDirectory, optionSet, depthLimit < 0 ? Integer.MAX_VALUE : depthLimit,
+                new PathWalker(results));
+            handleEnd(results);
+        } catch(final CancelException cancel) {
+            handleCancelled(startFile, results, cancel);
+        }
+    }
+
+    /**
+     * The attributes of a symbolic link or other special file, seen as a regular file.
+     */
+    private static final class FileAttributes implements BasicFileAttributes {
+
+        private final BasicFileAttributes attributes;
+
+        FileAttributes(final BasicFileAttributes attributes) {
+            this.attributes = attributes;
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return attributes.creationTime();
+        }
+
+        @Override
+        public Object fileKey() {
+            return attributes.fileKey();
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return true;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return attributes.lastAccessTime();
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return attributes.lastModifiedTime();
+        }
+
+        @Override
+        public long size() {
+            return attributes.size();
+        }
+    }
+
+    /**
+     * Maps the {@link FileVisitor} events of {@link DirectoryWalker#walk(Path, Collection, FileVisitOption...)} to
+     * the callbacks.
+     */
+    private final class PathWalker implements FileVisitor<Path> {
+
+        private final Collection<T> results;
+        /** The depth of the directory being listed, -1 before the start directory. */
+        private int depth = -1;
+
+        PathWalker(final Collection<T> results) {
+            this.results = results;
+        }
+
+        private boolean accept(final Path path, final BasicFileAttributes attributes) {
+            if (depth < 0 || filter == null) {
+                return true;
+            }
+            return filter instanceof IOFileFilter ? ((IOFileFilter) filter).accept(path, attributes)
+                : filter.accept(path.toFile());
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attributes)
+                throws IOException {
+            if (!accept(dir, attributes)) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            final int dirDepth = depth + 1;
+            final File directory = dir.toFile();
+            checkIfCancelled(directory, dirDepth, results);
+            if (!handleDirectory(dir, attributes, dirDepth, results)) {
+                checkIfCancelled(directory, dirDepth, results);
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            handleDirectoryStart(directory, dirDepth, results);
+            checkIfCancelled(directory, dirDepth, results);
+            depth = dirDepth;
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes linkAttributes)
+                throws IOException {
+            // a link that is not followed, or a special file, is walked as a file
+            final BasicFileAttributes attributes = linkAttributes.isDirectory() || linkAttributes.isRegularFile()
+                ? linkAttributes : new FileAttributes(linkAttributes);
+            if (!accept(file, attributes)) {
+                return FileVisitResult.CONTINUE;
+            }
+            final int fileDepth = depth + 1;
+            if (attributes.isDirectory() || fileDepth == 0) {
+                // a directory at the depth limit, which is not listed, or a start "directory" that is not one
+                walkUnlisted(file, attributes, fileDepth, !attributes.isDirectory());
+                return FileVisitResult.CONTINUE;
+            }
+            final File childFile = file.toFile();
+            checkIfCancelled(childFile, fileDepth, results);
+            handleFile(file, attributes, fileDepth, results);
+            checkIfCancelled(childFile, fileDepth, results);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+            if (exc instanceof FileSystemLoopException) {
+                return FileVisitResult.CONTINUE;
+            }
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (final IOException e) {
+                if (depth < 0) {
+                    throw exc;
+                }
+                // vanished since it was listed
+                return FileVisitResult.CONTINUE;
+            }
+            if (!attributes.isDirectory()) {
+                throw exc;
+            }
+            // a directory that cannot be listed
+            if (accept(file, attributes)) {
+                walkUnlisted(file, attributes, depth + 1, true);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+            final File directory = dir.toFile();
+            if (exc != null) {
+                // the listing failed part way
+                handleRestricted(directory, depth + 1, results);
+            }
+            handleDirectoryEnd(directory, depth, results);
+            checkIfCancelled(directory, depth, results);
+            depth--;
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Handles a directory whose contents are not walked, because of the depth limit or because it cannot be
+         * listed.
+         */
+        private void walkUnlisted(final Path dir, final BasicFileAttributes attributes, final int dirDepth,
+                final boolean restricted) throws IOException {
+            final File directory = dir.toFile();
+            checkIfCancelled(directory, dirDepth, results);
+            if (handleDirectory(dir, attributes, dirDepth, results)) {
+                handleDirectoryStart(directory, dirDepth, results);
+                if (restricted) {
+                    checkIfCancelled(directory, dirDepth, results);
+                    handleRestricted(directory, dirDepth + 1, results);
+                }
+                handleDirectoryEnd(directory, dirDepth, results);
+            }
+            checkIfCancelled(directory, dirDepth, results);
+        }
+    }
+
     /**
      * Main recursive method to examine the directory hierarchy.
      *
@@ -520,6 +881,26 @@ protected boolean handleDirectory(final File directory, final int depth, final C
         return true;  // process directory
     }
 
+    /**
+     * Overridable callback method invoked to determine if a directory should be processed by
+     * {@link #walk(Path, Collection, FileVisitOption...)}, with the attributes read while walking.
+     * <p>
+     * This implementation calls {@link #handleDirectory(File, int, Collection)}.
+     * </p>
+     *
+     * @param directory  the current directory being processed
+     * @param attributes  the attributes of the directory
+     * @param depth  the current directory level (starting directory = 0)
+     * @param results  the collection of result objects, may be updated
+     * @return true to process this directory, false to skip this directory
+     * @throws IOException if an I/O Error occurs
+     * @since 2.9.0
+     */
+    protected boolean handleDirectory(final Path directory, final BasicFileAttributes attributes, final int depth,
+            final Collection<T> results) throws IOException {
+        return handleDirectory(directory.toFile(), depth, results);
+    }
+
     /**
      * Overridable callback method invoked at the start of processing each directory.
      * <p>
@@ -569,6 +950,25 @@ protected void handleFile(final File file, final int depth, final Collection<T>
         // do nothing - overridable by subclass
     }
 
+    /**
+     * Overridable callback method invoked for each (non-directory) file by
+     * {@link #walk(Path, Collection, FileVisitOption...)}, with the attributes read while walking.
+     * <p>
+     * This implementation calls {@link #handleFile(File, int, Collection)}.
+     * </p>
+     *
+     * @param file  the current file being processed
+     * @param attributes  the attributes of the file
+     * @param depth  the current directory level (starting directory = 0)
+     * @param results  the collection of result objects, may be updated
+     * @throws IOException if an I/O Error occurs
+     * @since 2.9.0
+     */
+    protected void handleFile(final Path file, final BasicFileAttributes attributes, final int depth,
+            final Collection<T> results) throws IOException {
+        handleFile(file.toFile(), depth, results);
+    }
+
     /**
      * Overridable callback method invoked for each restricted directory.
      * <p>
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Walks a directory tree lazily, depth first, for {@link FileUtils#iterateFiles}, {@link FileUtils#streamFiles}
+ * and {@link FileUtils#listFiles}.
+ * <p>
+ * A directory is listed only when the walk reaches it, and only the listings of the directories on the path from the
+ * start directory are held, on an explicit stack; so memory is bounded by the depth of the tree times the width of
+ * a directory, not by the size of the tree. The files are returned in the order of a recursive walk: each
+ * directory's entries in listing order, a subdirectory followed by its contents.
+ * </p>
+ * <p>
+ * {@link #trySplit()} hands the entries not yet reached of the shallowest directory with at least two of them to the
+ * walk that continues, so a parallel stream splits the tree near its root first.
+ * </p>
+ */
+final class FileTreeSpliterator implements Spliterator<File> {
+
+    /**
+     * The unvisited entries {@code [index, end)} of the listing of a directory.
+     */
+    private static final class Frame {
+
+        private final File[] files;
+        private int index;
+        private final int end;
+
+        Frame(final File[] files, final int index, final int end) {
+            this.files = files;
+            this.index = index;
+            this.end = end;
+        }
+
+        int remaining() {
+            return end - index;
+        }
+    }
+
+    private final FileFilter filter;
+
+    private final boolean includeDirectories;
+
+    /** The frames from the shallowest, at 0, to the directory being walked. */
+    private final List<Frame> stack;
+
+    /** The start directory, still to be returned, or null. */
+    private File start;
+
+    /**
+     * Constructs a walk from a directory.
+     *
+     * @param directory the start directory.
+     * @param filter the filter of the entries, both files and directories, to return or walk into.
+     * @param includeDirectories whether to return the start directory and the directories walked into.
+     */
+    FileTreeSpliterator(final File directory, final FileFilter filter, final boolean includeDirectories) {
+        this.filter = filter;
+        this.includeDirectories = includeDirectories;
+        this.stack = new ArrayList<>();
+        this.start = includeDirectories ? directory : null;
+        push(directory);
+    }
+
+    private FileTreeSpliterator(final FileFilter filter, final boolean includeDirectories, final List<Frame> stack,
+            final File start) {
+        this.filter = filter;
+        this.includeDirectories = includeDirectories;
+        this.stack = stack;
+        this.start = start;
+    }
+
+    @Override
+    public int characteristics() {
+        return DISTINCT | NONNULL | ORDERED;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    private void push(final File directory) {
+        final File[] files = directory.listFiles(filter);
+        if (files != null && files.length > 0) {
+            stack.add(new Frame(files, 0, files.length));
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super File> action) {
+        if (start != null) {
+            final File file = start;
+            start = null;
+            action.accept(file);
+            return true;
+        }
+        while (!stack.isEmpty()) {
+            final int top = stack.size() - 1;
+            final Frame frame = stack.get(top);
+            final File file = frame.files[frame.index++];
+            if (frame.index == frame.end) {
+                stack.remove(top);
+            }
+            if (file.isDirectory()) {
+                push(file);
+                if (includeDirectories) {
+                    action.accept(file);
+                    return true;
+                }
+            } else {
+                action.accept(file);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<File> trySplit() {
+        for (int i = 0; i < stack.size(); i++) {
+            final Frame frame = stack.get(i);
+            if (frame.remaining() >= 2) {
+                // the prefix: the deeper frames and the first half of this one's entries
+                final int mid = frame.index + frame.remaining() / 2;
+                final List<Frame> prefix = new ArrayList<>(stack.subList(i, stack.size()));
+                prefix.set(0, new Frame(frame.files, frame.index, mid));
+                final FileTreeSpliterator split = new FileTreeSpliterator(filter, includeDirectories, prefix, start);
+                start = null;
+                // this walk keeps the second half and the shallower frames
+                stack.subList(i, stack.size()).clear();
+                stack.add(new Frame(frame.files, mid, frame.end));
+                return split;
+            }
+        }
+        return null;
+    }
+}
@@ -49,6 +49,10 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedInputStream;
 import java.util.zip.Checksum;
@@ -1584,32 +1588,29 @@ public static String getUserDirectoryPath() {
      * Finds files within a given directory (and optionally its
      * subdirectories). All files found are filtered by an IOFileFilter.
      *
-     * @param files                 the collection of files found.
-     * @param directory             the directory to search in.
-     * @param filter                the filter to apply to files and directories.
+     * @param directory             the directory to search in
+     * @param fileFilter            filter to apply when finding files.
+     * @param dirFilter             optional filter to apply when finding subdirectories.
+     *                              If this parameter is {@code null}, subdirectories will not be included in the
+     *                              search. Use TrueFileFilter.INSTANCE to match all directories.
      * @param includeSubDirectories indicates if will include the subdirectories themselves
+     * @return a collection of java.io.File with the matching files
+     * @see org.apache.commons.io.FileUtils#listFiles
+     * @see org.apache.commons.io.filefilter.FileFilterUtils
+     * @see org.apache.commons.io.filefilter.NameFileFilter
      */
-    private static void innerListFiles(final Collection<File> files, final File directory,
-                                       final IOFileFilter filter, final boolean includeSubDirectories) {
-        final File[] found = directory.listFiles((FileFilter) filter);
-
-        if (found != null) {
-            for (final File file : found) {
-                if (file.isDirectory()) {
-                    if (includeSubDirectories) {
-                        files.add(file);
-                    }
-                    innerListFiles(files, file, filter, includeSubDirectories);
-                } else {
-                    files.add(file);
-                }
-            }
-        }
+    private static Collection<File> innerListFilesOrDirectories(
+            final File directory, final IOFileFilter fileFilter, final IOFileFilter dirFilter,
+            final boolean includeSubDirectories) {
+        final Collection<File> files = new java.util.LinkedList<>();
+        innerWalkFilesOrDirectories(directory, fileFilter, dirFilter, includeSubDirectories)
+            .forEachRemaining(files::add);
+        return files;
     }
 
     /**
-     * Finds files within a given directory (and optionally its
-     * subdirectories). All files found are filtered by an IOFileFilter.
+     * Walks files within a given directory (and optionally its
+     * subdirectories) lazily. All files found are filtered by an IOFileFilter.
      *
      * @param directory             the directory to search in
      * @param fileFilter            filter to apply when finding files.
@@ -1617,12 +1618,9 @@ private static void innerListFiles(final Collection<File> files, final File dire
      *                              If this parameter is {@code null}, subdirectories will not be included in the
      *                              search. Use TrueFileFilter.INSTANCE to match all directories.
      * @param includeSubDirectories indicates if will include the subdirectories themselves
-     * @return a collection of java.io.File with the matching files
-     * @see org.apache.commons.io.FileUtils#listFiles
-     * @see org.apache.commons.io.filefilter.FileFilterUtils
-     * @see org.apache.commons.io.filefilter.NameFileFilter
+     * @return a spliterator of java.io.File with the matching files
      */
-    private static Collection<File> innerListFilesOrDirectories(
+    private static Spliterator<File> innerWalkFilesOrDirectories(
             final File directory, final IOFileFilter fileFilter, final IOFileFilter dirFilter,
             final boolean includeSubDirectories) {
         validateListFilesParameters(directory, fileFilter);
@@ -1630,14 +1628,8 @@ private static Collection<File> innerListFilesOrDirectories(
         final IOFileFilter effFileFilter = setUpEffectiveFileFilter(fileFilter);
         final IOFileFilter effDirFilter = setUpEffectiveDirFilter(dirFilter);
 
-        //Find files
-        final Collection<File> files = new java.util.LinkedList<>();
-        if (includeSubDirectories) {
-            files.add(directory);
-        }
-        innerListFiles(files, directory,
-                FileFilterUtils.or(effFileFilter, effDirFilter), includeSubDirectories);
-        return files;
+        return new FileTreeSpliterator(directory, FileFilterUtils.or(effFileFilter, effDirFilter),
+            includeSubDirectories);
     }
 
     /**
@@ -1971,9 +1963,10 @@ public static boolean isSymlink(final File file) {
      * Allows iteration over the files in given directory (and optionally
      * its subdirectories).
      * <p>
-     * All files found are filtered by an IOFileFilter. This method is
-     * based on {@link #listFiles(File, IOFileFilter, IOFileFilter)},
-     * which supports Iterable ('foreach' loop).
+     * All files found are filtered by an IOFileFilter. This method
+     * returns the files of {@link #listFiles(File, IOFileFilter, IOFileFilter)}
+     * in the same order, but lazily: each directory is listed only when the
+     * iteration reaches it, so the whole tree is never held in memory.
      * </p>
      *
      * @param directory  the directory to search in
@@ -1988,14 +1981,14 @@ public static boolean isSymlink(final File file) {
      */
     public static Iterator<File> iterateFiles(
             final File directory, final IOFileFilter fileFilter, final IOFileFilter dirFilter) {
-        return listFiles(directory, fileFilter, dirFilter).iterator();
+        return Spliterators.iterator(innerWalkFilesOrDirectories(directory, fileFilter, dirFilter, false));
     }
 
     /**
      * Allows iteration over the files in a given directory (and optionally
      * its subdirectories) which match an array of extensions. This method
-     * is based on {@link #listFiles(File, String[], boolean)},
-     * which supports Iterable ('foreach' loop).
+     * returns the files of {@link #listFiles(File, String[], boolean)}
+     * in the same order, but lazily.
      *
      * @param directory  the directory to search in
      * @param extensions an array of extensions, ex. {"java","xml"}. If this
@@ -2006,16 +1999,17 @@ public static Iterator<File> iterateFiles(
      */
     public static Iterator<File> iterateFiles(
             final File directory, final String[] extensions, final boolean recursive) {
-        return listFiles(directory, extensions, recursive).iterator();
+        return Spliterators.iterator(innerWalkFilesOrDirectories(directory, toFileFilter(extensions),
+            recursive ? TrueFileFilter.INSTANCE : FalseFileFilter.INSTANCE, false));
     }
 
     /**
      * Allows iteration over the files in given directory (and optionally
      * its subdirectories).
      * <p>
-     * All files found are filtered by an IOFileFilter. This method is
-     * based on {@link #listFilesAndDirs(File, IOFileFilter, IOFileFilter)},
-     * which supports Iterable ('foreach' loop).
+     * All files found are filtered by an IOFileFilter. This method
+     * returns the files of {@link #listFilesAndDirs(File, IOFileFilter, IOFileFilter)}
+     * in the same order, but lazily.
      * </p>
      * <p>
      * The resulting iterator includes the subdirectories themselves.
@@ -2033,7 +2027,7 @@ public static Iterator<File> iterateFiles(
      */
     public static Iterator<File> iterateFilesAndDirs(final File directory, final IOFileFilter fileFilter,
                                                      final IOFileFilter dirFilter) {
-        return listFilesAndDirs(directory, fileFilter, dirFilter).iterator();
+        return Spliterators.iterator(innerWalkFilesOrDirectories(directory, fileFilter, dirFilter, true));
     }
 
     /**
@@ -2140,14 +2134,7 @@ public static Collection<File> listFiles(
      */
     public static Collection<File> listFiles(
             final File directory, final String[] extensions, final boolean recursive) {
-        IOFileFilter filter;
-        if (extensions == null) {
-            filter = TrueFileFilter.INSTANCE;
-        } else {
-            final String[] suffixes = toSuffixes(extensions);
-            filter = new SuffixFileFilter(suffixes);
-        }
-        return listFiles(directory, filter,
+        return listFiles(directory, toFileFilter(extensions),
                 recursive ? TrueFileFilter.INSTANCE : FalseFileFilter.INSTANCE);
     }
 
@@ -2176,6 +2163,53 @@ public static Collection<File> listFilesAndDirs(
         return innerListFilesOrDirectories(directory, fileFilter, dirFilter, true);
     }
 
+    /**
+     * Streams the files within a given directory (and optionally its
+     * subdirectories) which match an array of extensions.
+     * <p>
+     * The stream is lazy and returns the files of {@link #listFiles(File, String[], boolean)}
+     * in the same order; see {@link #streamFiles(File, IOFileFilter, IOFileFilter)}.
+     * </p>
+     *
+     * @param directory  the directory to search in
+     * @param recursive  if true all subdirectories are searched as well
+     * @param extensions an array of extensions, ex. {"java","xml"}. If this
+     *                   parameter is {@code null} or empty, as when no extension
+     *                   is given, all files are returned.
+     * @return a stream of java.io.File with the matching files
+     * @since 2.9.0
+     */
+    public static Stream<File> streamFiles(final File directory, final boolean recursive, final String... extensions) {
+        final IOFileFilter fileFilter = extensions == null || extensions.length == 0 ? TrueFileFilter.INSTANCE
+            : toFileFilter(extensions);
+        return streamFiles(directory, fileFilter, recursive ? TrueFileFilter.INSTANCE : FalseFileFilter.INSTANCE);
+    }
+
+    /**
+     * Streams the files within a given directory (and optionally its
+     * subdirectories). All files found are filtered by an IOFileFilter.
+     * <p>
+     * The stream is lazy and returns the files of {@link #listFiles(File, IOFileFilter, IOFileFilter)}
+     * in the same order: each directory is listed only when the stream reaches it, so the whole tree
+     * is never held in memory and a short-circuiting operation such as
+     * {@link Stream#findFirst()} stops the walk early. A parallel stream splits the walk between
+     * the directories nearest the start directory.
+     * </p>
+     *
+     * @param directory  the directory to search in
+     * @param fileFilter filter to apply when finding files.
+     * @param dirFilter  optional filter to apply when finding subdirectories.
+     *                   If this parameter is {@code null}, subdirectories will not be included in the
+     *                   search. Use TrueFileFilter.INSTANCE to match all directories.
+     * @return a stream of java.io.File with the matching files
+     * @see org.apache.commons.io.filefilter.FileFilterUtils
+     * @since 2.9.0
+     */
+    public static Stream<File> streamFiles(final File directory, final IOFileFilter fileFilter,
+            final IOFileFilter dirFilter) {
+        return StreamSupport.stream(innerWalkFilesOrDirectories(directory, fileFilter, dirFilter, false), false);
+    }
+
     /**
      * Moves a directory.
      * <p>
@@ -2816,6 +2850,16 @@ public static File[] toFiles(final URL... urls) {
         return files;
     }
 
+    /**
+     * Returns a filter of the files with one of the given extensions.
+     *
+     * @param extensions an array of extensions, ex. {"java","xml"}, or {@code null} for all files
+     * @return a filter of the files with one of the extensions
+     */
+    private static IOFileFilter toFileFilter(final String... extensions) {
+        return extensions == null ? TrueFileFilter.INSTANCE : new SuffixFileFilter(toSuffixes(extensions));
+    }
+
     /**
      * Converts an array of file extensions to suffixes for use
      * with IOFileFilters.
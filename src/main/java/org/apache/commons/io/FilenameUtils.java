@@ -18,11 +18,9 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -1322,7 +1320,6 @@ public static boolean isExtension(final String fileName, final Collection<String
      * wildcardMatch("c.txt", "*.???")      --&gt; true
      * wildcardMatch("c.txt", "*.????")     --&gt; false
      * </pre>
-     * N.B. the sequence "*?" does not work properly at present in match strings.
      *
      * @param fileName  the fileName to match on
      * @param wildcardMatcher  the wildcard string to match against
@@ -1348,7 +1345,6 @@ public static boolean wildcardMatch(final String fileName, final String wildcard
      * wildcardMatch("c.txt", "*.???")      --&gt; true
      * wildcardMatch("c.txt", "*.????")     --&gt; false
      * </pre>
-     * N.B. the sequence "*?" does not work properly at present in match strings.
      *
      * @param fileName  the fileName to match on
      * @param wildcardMatcher  the wildcard string to match against
@@ -1365,7 +1361,7 @@ public static boolean wildcardMatchOnSystem(final String fileName, final String
      * <p>
      * The wildcard matcher uses the characters '?' and '*' to represent a
      * single or multiple (zero or more) wildcard characters.
-     * N.B. the sequence "*?" does not work properly at present in match strings.
+     * To match names against many wildcards, or the same wildcard many times, use a {@link WildcardMatcher}.
      *
      * @param fileName  the fileName to match on
      * @param wildcardMatcher  the wildcard string to match against
@@ -1383,76 +1379,7 @@ public static boolean wildcardMatch(final String fileName, final String wildcard
         if (caseSensitivity == null) {
             caseSensitivity = IOCase.SENSITIVE;
         }
-        final String[] wcs = splitOnTokens(wildcardMatcher);
-        boolean anyChars = false;
-        int textIdx = 0;
-        int wcsIdx = 0;
-        final Deque<int[]> backtrack = new ArrayDeque<>(wcs.length);
-
-        // loop around a backtrack stack, to handle complex * matching
-        do {
-            if (!backtrack.isEmpty()) {
-                final int[] array = backtrack.pop();
-                wcsIdx = array[0];
-                textIdx = array[1];
-                anyChars = true;
-            }
-
-            // loop whilst tokens and text left to process
-            while (wcsIdx < wcs.length) {
-
-                if (wcs[wcsIdx].equals("?")) {
-                    // ? so move to next text char
-                    textIdx++;
-                    if (textIdx > fileName.length()) {
-                        break;
-                    }
-                    anyChars = false;
-
-                } else if (wcs[wcsIdx].equals("*")) {
-                    // set any chars status
-                    anyChars = true;
-                    if (wcsIdx == wcs.length - 1) {
-                        textIdx = fileName.length();
-                    }
-
-                } else {
-                    // matching text token
-                    if (anyChars) {
-                        // any chars then try to locate text token
-                        textIdx = caseSensitivity.checkIndexOf(fileName, textIdx, wcs[wcsIdx]);
-                        if (textIdx == NOT_FOUND) {
-                            // token not found
-                            break;
-                        }
-                        final int repeat = caseSensitivity.checkIndexOf(fileName, textIdx + 1, wcs[wcsIdx]);
-                        if (repeat >= 0) {
-                            backtrack.push(new int[] {wcsIdx, repeat});
-                        }
-                    } else {
-                        // matching from current position
-                        if (!caseSensitivity.checkRegionMatches(fileName, textIdx, wcs[wcsIdx])) {
-                            // couldnt match token
-                            break;
-                        }
-                    }
-
-                    // matched text token, move text index to end of matched token
-                    textIdx += wcs[wcsIdx].length();
-                    anyChars = false;
-                }
-
-                wcsIdx++;
-            }
-
-            // full match
-            if (wcsIdx == wcs.length && textIdx == fileName.length()) {
-                return true;
-            }
-
-        } while (!backtrack.isEmpty());
-
-        return false;
+        return WildcardMatcher.matches(fileName, wildcardMatcher, caseSensitivity.isCaseSensitive());
     }
 
     /**
@@ -1464,7 +1391,7 @@ public static boolean wildcardMatch(final String fileName, final String wildcard
      * @return the array of tokens, never null
      */
     static String[] splitOnTokens(final String text) {
-        // used by wildcardMatch
+        // used by WildcardMatcher
         // package level so a unit test may run on this
 
         if (text.indexOf('?') == NOT_FOUND && text.indexOf('*') == NOT_FOUND) {
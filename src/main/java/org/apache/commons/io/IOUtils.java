@@ -51,9 +51,9 @@
 
 import org.apache.commons.io.function.IOConsumer;
 import org.apache.commons.io.output.AppendableWriter;
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.io.output.StringBuilderWriter;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 
 /**
  * General IO stream manipulation utilities.
@@ -2165,7 +2165,7 @@ public static void skipFully(final Reader input, final long toSkip) throws IOExc
      * @since 2.0
      */
     public static InputStream toBufferedInputStream(final InputStream input) throws IOException {
-        return ByteArrayOutputStream.toBufferedInputStream(input);
+        return UnsynchronizedByteArrayOutputStream.toBufferedInputStream(input);
     }
 
     /**
@@ -2191,7 +2191,7 @@ public static InputStream toBufferedInputStream(final InputStream input) throws
      * @since 2.5
      */
     public static InputStream toBufferedInputStream(final InputStream input, final int size) throws IOException {
-        return ByteArrayOutputStream.toBufferedInputStream(input, size);
+        return UnsynchronizedByteArrayOutputStream.toBufferedInputStream(input, size);
     }
 
     /**
@@ -2235,7 +2235,7 @@ public static BufferedReader toBufferedReader(final Reader reader, final int siz
      * @throws IOException          if an I/O error occurs
      */
     public static byte[] toByteArray(final InputStream input) throws IOException {
-        try (final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+        try (final UnsynchronizedByteArrayOutputStream output = new UnsynchronizedByteArrayOutputStream()) {
             copy(input, output);
             return output.toByteArray();
         }
@@ -2338,7 +2338,7 @@ public static byte[] toByteArray(final Reader input) throws IOException {
      * @since 2.3
      */
     public static byte[] toByteArray(final Reader input, final Charset charset) throws IOException {
-        try (final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+        try (final UnsynchronizedByteArrayOutputStream output = new UnsynchronizedByteArrayOutputStream()) {
             copy(input, output, charset);
             return output.toByteArray();
         }
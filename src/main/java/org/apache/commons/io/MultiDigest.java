@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Checksum;
+
+/**
+ * Updates several {@link MessageDigest} and {@link Checksum} instances from the same data in one pass.
+ * <p>
+ * Used by {@link org.apache.commons.io.input.MultiDigestCalculatingInputStream} and
+ * {@link org.apache.commons.io.output.MultiDigestCalculatingOutputStream} to compute, for example, MD5, SHA-256 and
+ * CRC32C ({@code java.util.zip.CRC32C} on Java 9 and later) of a stream with a single wrapper.
+ * </p>
+ * <p>
+ * When constructed with an {@link Executor}, updates of at least {@code parallelThreshold} bytes run the algorithms
+ * concurrently: one on the calling thread, the others on the executor. The call still returns only when all the
+ * algorithms have processed the data, so the caller may reuse its buffer. No objects are allocated per update.
+ * </p>
+ * <p>
+ * Like {@link MessageDigest}, this class is not thread-safe.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class MultiDigest {
+
+    private final MessageDigest[] messageDigests;
+
+    private final Checksum[] checksums;
+
+    private final Executor executor;
+
+    private final int parallelThreshold;
+
+    /** One task per algorithm but the first, which runs on the calling thread. */
+    private final Runnable[] tasks;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** The data of the parallel update in progress, published to the tasks by {@link Executor#execute(Runnable)}. */
+    private byte[] buffer;
+
+    private int offset;
+
+    private int length;
+
+    private volatile Thread waiter;
+
+    private volatile Throwable failure;
+
+    /**
+     * Constructs a new instance for the given message digests.
+     *
+     * @param messageDigests the message digests to update.
+     */
+    public MultiDigest(final MessageDigest... messageDigests) {
+        this(Arrays.asList(messageDigests), Collections.emptyList());
+    }
+
+    /**
+     * Constructs a new instance that updates all algorithms on the calling thread.
+     *
+     * @param messageDigests the message digests to update.
+     * @param checksums the checksums to update.
+     */
+    public MultiDigest(final Collection<MessageDigest> messageDigests,
+        final Collection<? extends Checksum> checksums) {
+        this(messageDigests, checksums, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param messageDigests the message digests to update.
+     * @param checksums the checksums to update.
+     * @param executor the executor for parallel updates, or null to update all algorithms on the calling thread.
+     * @param parallelThreshold the minimum number of bytes of an update to run the algorithms in parallel.
+     * @throws IllegalArgumentException if there is no algorithm, or {@code parallelThreshold} is not positive.
+     */
+    public MultiDigest(final Collection<MessageDigest> messageDigests, final Collection<? extends Checksum> checksums,
+        final Executor executor, final int parallelThreshold) {
+        this.messageDigests = messageDigests.toArray(new MessageDigest[0]);
+        this.checksums = checksums.toArray(new Checksum[0]);
+        final int count = this.messageDigests.length + this.checksums.length;
+        if (count == 0) {
+            throw new IllegalArgumentException("No algorithms");
+        }
+        for (final MessageDigest digest : this.messageDigests) {
+            Objects.requireNonNull(digest, "messageDigest");
+        }
+        for (final Checksum checksum : this.checksums) {
+            Objects.requireNonNull(checksum, "checksum");
+        }
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be positive: " + parallelThreshold);
+        }
+        this.executor = executor;
+        this.parallelThreshold = parallelThreshold;
+        this.tasks = new Runnable[executor == null ? 0 : count - 1];
+        for (int i = 0; i < tasks.length; i++) {
+            final int index = i + 1;
+            tasks[i] = () -> {
+                try {
+                    update(index, buffer, offset, length);
+                } catch (final Throwable t) {
+                    failure = t;
+                } finally {
+                    if (pending.decrementAndGet() == 0) {
+                        LockSupport.unpark(waiter);
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Constructs a new instance with a {@link MessageDigest} for each of the given algorithms.
+     *
+     * @param algorithms the names of the message digest algorithms.
+     * @return a new instance.
+     * @throws NoSuchAlgorithmException if no provider supports one of the algorithms.
+     */
+    public static MultiDigest of(final String... algorithms) throws NoSuchAlgorithmException {
+        final MessageDigest[] digests = new MessageDigest[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            digests[i] = MessageDigest.getInstance(algorithms[i]);
+        }
+        return new MultiDigest(digests);
+    }
+
+    /**
+     * Gets the checksums, in construction order.
+     *
+     * @return an unmodifiable list of the checksums.
+     */
+    public List<Checksum> getChecksums() {
+        return Collections.unmodifiableList(Arrays.asList(checksums));
+    }
+
+    /**
+     * Gets the message digest with the given algorithm name.
+     *
+     * @param algorithm the name of the algorithm, as returned by {@link MessageDigest#getAlgorithm()}.
+     * @return the first message digest for that algorithm, or null if none.
+     */
+    public MessageDigest getMessageDigest(final String algorithm) {
+        for (final MessageDigest digest : messageDigests) {
+            if (digest.getAlgorithm().equalsIgnoreCase(algorithm)) {
+                return digest;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the message digests, in construction order.
+     *
+     * @return an unmodifiable list of the message digests.
+     */
+    public List<MessageDigest> getMessageDigests() {
+        return Collections.unmodifiableList(Arrays.asList(messageDigests));
+    }
+
+    /**
+     * Resets all the message digests and checksums.
+     */
+    public void reset() {
+        for (final MessageDigest digest : messageDigests) {
+            digest.reset();
+        }
+        for (final Checksum checksum : checksums) {
+            checksum.reset();
+        }
+    }
+
+    /**
+     * Updates all the algorithms with the given bytes.
+     *
+     * @param b the data.
+     * @param off the offset of the first byte.
+     * @param len the number of bytes.
+     */
+    public void update(final byte[] b, final int off, final int len) {
+        if (tasks.length == 0 || len < parallelThreshold) {
+            for (final MessageDigest digest : messageDigests) {
+                digest.update(b, off, len);
+            }
+            for (final Checksum checksum : checksums) {
+                checksum.update(b, off, len);
+            }
+            return;
+        }
+        buffer = b;
+        offset = off;
+        length = len;
+        waiter = Thread.currentThread();
+        pending.set(tasks.length);
+        for (final Runnable task : tasks) {
+            try {
+                executor.execute(task);
+            } catch (final RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        try {
+            update(0, b, off, len);
+        } finally {
+            while (pending.get() > 0) {
+                LockSupport.park(this);
+            }
+            waiter = null;
+            buffer = null;
+        }
+        final Throwable t = failure;
+        if (t != null) {
+            failure = null;
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw (RuntimeException) t;
+        }
+    }
+
+    /**
+     * Updates all the algorithms with the given byte.
+     *
+     * @param b the byte, only the low 8 bits are used.
+     */
+    public void update(final int b) {
+        for (final MessageDigest digest : messageDigests) {
+            digest.update((byte) b);
+        }
+        for (final Checksum checksum : checksums) {
+            checksum.update(b);
+        }
+    }
+
+    private void update(final int index, final byte[] b, final int off, final int len) {
+        if (index < messageDigests.length) {
+            messageDigests[index].update(b, off, len);
+        } else {
+            checksums[index - messageDigests.length].update(b, off, len);
+        }
+    }
+}
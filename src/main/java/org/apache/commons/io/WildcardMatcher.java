@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Matches names against a set of wildcards compiled once into an automaton.
+ * <p>
+ * The wildcards use the characters '?' and '*' to represent a single or multiple wildcard characters, as in
+ * {@link FilenameUtils#wildcardMatch(String, String, IOCase)}. A name matches if it matches any of the wildcards.
+ * </p>
+ * <p>
+ * A single wildcard is matched by running its states bit-parallel, one step per character of the name. A set of
+ * several wildcards is matched by a deterministic automaton that needs one lookup per character however many
+ * wildcards there are. The automaton is built lazily, as names reach its states; should it grow too large, the rest
+ * of the name is matched bit-parallel like a single wildcard.
+ * Case-insensitive matching folds characters the same way as {@link String#equalsIgnoreCase(String)}. Matching never
+ * backtracks.
+ * </p>
+ * <p>
+ * This class is thread-safe: the automaton grows under a lock, matching reads it without one.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public final class WildcardMatcher {
+
+    /**
+     * A state of the deterministic automaton: a set of states of the wildcards.
+     * <p>
+     * States are shared between threads without locking: a thread that reads a transition not yet computed, or
+     * computed by another thread but not yet visible, computes it under the lock. Final fields make a state visible
+     * with its contents.
+     * </p>
+     */
+    private static final class State {
+
+        final long[] bits;
+
+        final boolean accept;
+
+        /** The next state for each character class, null until first needed. */
+        final State[] next;
+
+        State(final long[] bits, final boolean accept, final int width) {
+            this.bits = bits;
+            this.accept = accept;
+            this.next = new State[width];
+        }
+    }
+
+    /** The maximum number of automaton states; beyond that, wildcards are matched bit-parallel. */
+    private static final int MAX_DFA_STATES = 4096;
+
+    /** The character classes of ASCII characters, looked up without a search. */
+    private static final int ASCII = 128;
+
+    /**
+     * Compiles the given wildcards.
+     *
+     * @param caseSensitivity how to handle case sensitivity, null means case-sensitive.
+     * @param wildcards the wildcards to match, a null wildcard matches no name.
+     * @return a new matcher.
+     */
+    public static WildcardMatcher compile(final IOCase caseSensitivity, final Collection<String> wildcards) {
+        return compile(caseSensitivity, wildcards.toArray(new String[0]));
+    }
+
+    /**
+     * Compiles the given wildcards.
+     *
+     * @param caseSensitivity how to handle case sensitivity, null means case-sensitive.
+     * @param wildcards the wildcards to match, a null wildcard matches no name.
+     * @return a new matcher.
+     */
+    public static WildcardMatcher compile(final IOCase caseSensitivity, final String... wildcards) {
+        return new WildcardMatcher(caseSensitivity == null || caseSensitivity.isCaseSensitive(), wildcards);
+    }
+
+    static char fold(final char c) {
+        // the same folding as String.equalsIgnoreCase and String.regionMatches
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(final String s) {
+        final char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Matches a single wildcard without compiling it, for one-off matches.
+     * <p>
+     * Scans the name once, going back only to just after the last '*' seen, so no stack is needed.
+     * </p>
+     */
+    static boolean matches(final String name, final String wildcard, final boolean sensitive) {
+        final int nameLength = name.length();
+        final int wildcardLength = wildcard.length();
+        int n = 0;
+        int w = 0;
+        // where the last '*' is, and the position in the name it currently stands for up to
+        int star = -1;
+        int starEnd = 0;
+        while (n < nameLength) {
+            final char p = w < wildcardLength ? wildcard.charAt(w) : 0;
+            if (w < wildcardLength && p != '*' && (p == '?' || same(p, name.charAt(n), sensitive))) {
+                n++;
+                w++;
+            } else if (w < wildcardLength && p == '*') {
+                star = w++;
+                starEnd = n;
+            } else if (star >= 0) {
+                // let the last '*' stand for one more character
+                w = star + 1;
+                n = ++starEnd;
+            } else {
+                return false;
+            }
+        }
+        while (w < wildcardLength && wildcard.charAt(w) == '*') {
+            w++;
+        }
+        return w == wildcardLength;
+    }
+
+    private static boolean same(final char c1, final char c2, final boolean sensitive) {
+        return c1 == c2 || !sensitive && fold(c1) == fold(c2);
+    }
+
+    private static void set(final long[] bits, final int offset, final int bit) {
+        bits[offset + (bit >>> 6)] |= 1L << bit;
+    }
+
+    private final boolean sensitive;
+
+    /** The distinct literal characters of the wildcards, folded if case-insensitive, sorted; class i + 1 each. */
+    private final char[] alphabet;
+
+    /** The character class of each ASCII character, 0 for characters not in the alphabet. */
+    private final int[] asciiClasses = new int[ASCII];
+
+    /** The number of longs per set of states. */
+    private final int words;
+
+    /** For each character class, the states that advance on a character of the class. */
+    private final long[] advance;
+
+    /** The '*' states, which consume any character and may be skipped. */
+    private final long[] stars;
+
+    /** The final state of each wildcard. */
+    private final long[] accepts;
+
+    /** The initial states. */
+    private final long[] start;
+
+    /** The automaton states built so far by set of wildcard states, guarded by itself. */
+    private final Map<BitSet, State> dfaStates = new HashMap<>();
+
+    /** The initial automaton state, or null to match bit-parallel. */
+    private final State dfaStart;
+
+    /** The automaton state that matches no name, whatever follows. */
+    private final State dfaDead;
+
+    private WildcardMatcher(final boolean sensitive, final String[] wildcards) {
+        this.sensitive = sensitive;
+        final List<String[]> tokenized = new ArrayList<>(wildcards.length);
+        final TreeSet<Character> chars = new TreeSet<>();
+        int count = 0;
+        for (final String wildcard : wildcards) {
+            if (wildcard == null) {
+                continue;
+            }
+            final String[] tokens = FilenameUtils.splitOnTokens(sensitive ? wildcard : fold(wildcard));
+            for (final String token : tokens) {
+                if (token.equals("*") || token.equals("?")) {
+                    count++;
+                } else {
+                    for (int i = 0; i < token.length(); i++) {
+                        chars.add(Character.valueOf(token.charAt(i)));
+                    }
+                    count += token.length();
+                }
+            }
+            // the final state
+            count++;
+            tokenized.add(tokens);
+        }
+        this.alphabet = new char[chars.size()];
+        int index = 0;
+        for (final Character c : chars) {
+            alphabet[index++] = c.charValue();
+        }
+        for (int i = 0; i < alphabet.length && alphabet[i] < ASCII; i++) {
+            asciiClasses[alphabet[i]] = i + 1;
+        }
+        final int width = alphabet.length + 1;
+        this.words = Math.max(1, (count + 63) >>> 6);
+        this.advance = new long[width * words];
+        this.stars = new long[words];
+        this.accepts = new long[words];
+        this.start = new long[words];
+        int state = 0;
+        for (final String[] tokens : tokenized) {
+            set(start, 0, state);
+            for (final String token : tokens) {
+                if (token.equals("*")) {
+                    set(stars, 0, state++);
+                } else if (token.equals("?")) {
+                    for (int c = 0; c < width; c++) {
+                        set(advance, c * words, state);
+                    }
+                    state++;
+                } else {
+                    for (int i = 0; i < token.length(); i++) {
+                        set(advance, classOf(token.charAt(i)) * words, state++);
+                    }
+                }
+            }
+            set(accepts, 0, state++);
+        }
+        skipStars(start);
+        if (tokenized.size() > 1) {
+            this.dfaDead = state(new long[words]);
+            this.dfaStart = state(start.clone());
+        } else {
+            this.dfaDead = null;
+            this.dfaStart = null;
+        }
+    }
+
+    private int classOf(final char c) {
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        final int index = Arrays.binarySearch(alphabet, c);
+        return index < 0 ? 0 : index + 1;
+    }
+
+    /**
+     * Tests whether the given name matches any of the wildcards.
+     *
+     * @param name the name to test, null matches no wildcard.
+     * @return true if the name matches.
+     */
+    public boolean matches(final String name) {
+        if (name == null) {
+            return false;
+        }
+        final int length = name.length();
+        if (dfaStart != null) {
+            State state = dfaStart;
+            for (int i = 0; i < length; i++) {
+                final char c = name.charAt(i);
+                final int charClass = classOf(sensitive ? c : fold(c));
+                State next = state.next[charClass];
+                if (next == null) {
+                    next = next(state, charClass);
+                    if (next == null) {
+                        // too many automaton states
+                        return matches(name, i, state.bits);
+                    }
+                }
+                if (next == dfaDead) {
+                    return false;
+                }
+                state = next;
+            }
+            return state.accept;
+        }
+        if (words == 1) {
+            final long star = stars[0];
+            long current = start[0];
+            for (int i = 0; i < length && current != 0; i++) {
+                final char c = name.charAt(i);
+                current = (current & advance[classOf(sensitive ? c : fold(c))]) << 1 | current & star;
+                current |= (current & star) << 1;
+            }
+            return (current & accepts[0]) != 0;
+        }
+        return matches(name, 0, start);
+    }
+
+    /**
+     * Matches the rest of a name bit-parallel.
+     */
+    private boolean matches(final String name, final int offset, final long[] states) {
+        final int length = name.length();
+        long[] current = states.clone();
+        long[] next = new long[words];
+        for (int i = offset; i < length; i++) {
+            final char c = name.charAt(i);
+            step(current, classOf(sensitive ? c : fold(c)), next);
+            final long[] swap = current;
+            current = next;
+            next = swap;
+        }
+        for (int w = 0; w < words; w++) {
+            if ((current[w] & accepts[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes a transition of the automaton.
+     *
+     * @return the next state, or null if the automaton has too many states.
+     */
+    private State next(final State state, final int charClass) {
+        synchronized (dfaStates) {
+            State next = state.next[charClass];
+            if (next == null) {
+                final long[] bits = new long[words];
+                step(state.bits, charClass, bits);
+                next = dfaStates.get(BitSet.valueOf(bits));
+                if (next == null) {
+                    if (dfaStates.size() >= MAX_DFA_STATES) {
+                        return null;
+                    }
+                    next = state(bits);
+                }
+                state.next[charClass] = next;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Adds a new automaton state, the caller holds the lock or is the constructor.
+     */
+    private State state(final long[] bits) {
+        boolean accept = false;
+        for (int w = 0; w < words; w++) {
+            accept |= (bits[w] & accepts[w]) != 0;
+        }
+        final State state = new State(bits, accept, alphabet.length + 1);
+        dfaStates.put(BitSet.valueOf(bits), state);
+        return state;
+    }
+
+    /**
+     * Adds the states reachable by skipping a '*'. Consecutive '*' are collapsed, so one pass is enough.
+     */
+    private void skipStars(final long[] states) {
+        long carry = 0;
+        for (int w = 0; w < words; w++) {
+            final long skipped = states[w] & stars[w];
+            states[w] |= skipped << 1 | carry;
+            carry = skipped >>> 63;
+        }
+    }
+
+    /**
+     * Computes the states after a character of the given class.
+     */
+    private void step(final long[] from, final int charClass, final long[] to) {
+        final int offset = charClass * words;
+        long carry = 0;
+        for (int w = 0; w < words; w++) {
+            final long advanced = from[w] & advance[offset + w];
+            to[w] = advanced << 1 | carry | from[w] & stars[w];
+            carry = advanced >>> 63;
+        }
+        skipStars(to);
+    }
+}
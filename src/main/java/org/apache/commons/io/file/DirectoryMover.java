@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.file;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.IOExceptionList;
+import org.apache.commons.io.file.Counters.PathCounters;
+
+/**
+ * Moves directory trees, atomically when the file system can rename them, otherwise by copying them in parallel on
+ * an {@link Executor}.
+ * <p>
+ * A move first tries {@link Files#move(Path, Path, java.nio.file.CopyOption...)} with
+ * {@link StandardCopyOption#ATOMIC_MOVE}. When the target is on another file store, the tree is instead:
+ * </p>
+ * <ol>
+ * <li>copied in parallel, with its attributes and without following symbolic links, into a hidden directory next to
+ * the target, each file being checked against its source once copied;</li>
+ * <li>renamed atomically to the target, so that the target either does not exist or holds the whole tree;</li>
+ * <li>deleted from the source by a {@link ParallelDeleter}.</li>
+ * </ol>
+ * <p>
+ * If the copy fails, the partial copy is deleted and the source is left untouched. The progress of a copy is reported
+ * to an optional callback, after each file, with the counts copied so far; with the start time, these give the
+ * throughput. The callback is called from the copying threads, possibly concurrently.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class DirectoryMover {
+
+    /**
+     * A directory being copied.
+     */
+    private static final class Directory {
+
+        private final Path source;
+        private final Path target;
+        private final BasicFileAttributes attributes;
+        private final Directory parent;
+        /** The listing of the directory, and its files and subdirectories, still being copied. */
+        private final AtomicInteger pending = new AtomicInteger(1);
+        /** Whether the target directory was created. */
+        private volatile boolean created;
+
+        Directory(final Path source, final Path target, final BasicFileAttributes attributes,
+                final Directory parent) {
+            this.source = source;
+            this.target = target;
+            this.attributes = attributes;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * The copy of one directory tree.
+     */
+    private final class Copy {
+
+        private final AtomicLong byteCount = new AtomicLong();
+        private final AtomicLong directoryCount = new AtomicLong();
+        private final AtomicLong fileCount = new AtomicLong();
+        private final Queue<IOException> failures = new ConcurrentLinkedQueue<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /**
+         * Copies a file and checks the copy.
+         */
+        private void copyFile(final Directory directory, final Path source, final BasicFileAttributes attributes) {
+            try {
+                final Path target = directory.target.resolve(source.getFileName().toString());
+                Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES, LinkOption.NOFOLLOW_LINKS);
+                verify(source, attributes, target);
+                fileCount.incrementAndGet();
+                byteCount.addAndGet(attributes.size());
+                if (progress != null) {
+                    progress.accept(getCounters());
+                }
+            } catch (final IOException e) {
+                failures.add(e);
+            } catch (final RuntimeException e) {
+                // an incomplete copy must never replace the source
+                failures.add(new IOException(e));
+            } finally {
+                release(directory);
+            }
+        }
+
+        /**
+         * Creates a target directory and copies the source directory into it.
+         */
+        private void copyDirectory(final Directory directory) {
+            try {
+                Files.createDirectory(directory.target);
+                directory.created = true;
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.source)) {
+                    for (final Path path : stream) {
+                        final BasicFileAttributes attributes;
+                        try {
+                            attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                                LinkOption.NOFOLLOW_LINKS);
+                        } catch (final NoSuchFileException e) {
+                            continue;
+                        }
+                        directory.pending.incrementAndGet();
+                        if (attributes.isDirectory()) {
+                            final Directory subdirectory = new Directory(path,
+                                directory.target.resolve(path.getFileName().toString()), attributes, directory);
+                            execute(() -> copyDirectory(subdirectory));
+                        } else {
+                            execute(() -> copyFile(directory, path, attributes));
+                        }
+                    }
+                }
+            } catch (final IOException e) {
+                failures.add(e);
+            } catch (final DirectoryIteratorException e) {
+                failures.add(e.getCause());
+            } catch (final RuntimeException e) {
+                failures.add(new IOException(e));
+            } finally {
+                release(directory);
+            }
+        }
+
+        private PathCounters getCounters() {
+            final PathCounters counters = Counters.longPathCounters();
+            counters.getByteCounter().add(byteCount.get());
+            counters.getDirectoryCounter().add(directoryCount.get());
+            counters.getFileCounter().add(fileCount.get());
+            return counters;
+        }
+
+        /**
+         * Releases a hold on a directory, setting its attributes once its contents are copied.
+         */
+        private void release(final Directory directory) {
+            if (directory.pending.decrementAndGet() > 0) {
+                return;
+            }
+            if (directory.created) {
+                try {
+                    copyAttributes(directory.source, directory.attributes, directory.target);
+                    directoryCount.incrementAndGet();
+                } catch (final IOException e) {
+                    failures.add(e);
+                } catch (final RuntimeException e) {
+                    failures.add(new IOException(e));
+                }
+            }
+            if (directory.parent != null) {
+                release(directory.parent);
+            } else {
+                done.countDown();
+            }
+        }
+    }
+
+    private final Executor executor;
+
+    private final boolean verifyContent;
+
+    private final Consumer<PathCounters> progress;
+
+    /**
+     * Constructs a new instance that checks the size of each copied file, without progress reporting.
+     *
+     * @param executor the executor to run the copy and delete tasks.
+     */
+    public DirectoryMover(final Executor executor) {
+        this(executor, false, null);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param executor the executor to run the copy and delete tasks.
+     * @param verifyContent whether to compare the content of each copied file with its source, rather than only its
+     *        size.
+     * @param progress the callback given the counts of the files, bytes and directories copied so far after each
+     *        file is copied, may be null.
+     */
+    public DirectoryMover(final Executor executor, final boolean verifyContent,
+            final Consumer<PathCounters> progress) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.verifyContent = verifyContent;
+        this.progress = progress;
+    }
+
+    /**
+     * Copies the permissions and times of a directory, after its contents have been copied.
+     */
+    private static void copyAttributes(final Path source, final BasicFileAttributes attributes, final Path target)
+            throws IOException {
+        final PosixFileAttributeView targetPosixView = Files.getFileAttributeView(target,
+            PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (targetPosixView != null) {
+            final PosixFileAttributeView sourcePosixView = Files.getFileAttributeView(source,
+                PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+            if (sourcePosixView != null) {
+                final PosixFileAttributes posixAttributes = sourcePosixView.readAttributes();
+                targetPosixView.setPermissions(posixAttributes.permissions());
+            }
+        }
+        Files.getFileAttributeView(target, BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS)
+            .setTimes(attributes.lastModifiedTime(), attributes.lastAccessTime(), attributes.creationTime());
+    }
+
+    private void execute(final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Moves a directory and its contents.
+     *
+     * @param source the directory to move.
+     * @param target the path to move it to, which must not exist.
+     * @return the counts of the files, bytes and directories copied, all zero if the directory was renamed.
+     * @throws NotDirectoryException if the source is not a directory.
+     * @throws FileAlreadyExistsException if the target exists.
+     * @throws IOExceptionList if the tree could not be copied, or the source deleted, with one cause per failure.
+     * @throws InterruptedIOException if interrupted while waiting for the copy, which is then abandoned.
+     * @throws IOException if an I/O error occurs.
+     */
+    public PathCounters moveDirectory(final Path source, final Path target) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class,
+            LinkOption.NOFOLLOW_LINKS);
+        if (!attributes.isDirectory()) {
+            throw new NotDirectoryException(source.toString());
+        }
+        if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        final Path absoluteSource = source.toAbsolutePath().normalize();
+        final Path absoluteTarget = target.toAbsolutePath().normalize();
+        if (absoluteTarget.startsWith(absoluteSource)) {
+            throw new IOException("Cannot move directory: " + source + " to a subdirectory of itself: " + target);
+        }
+        try {
+            rename(absoluteSource, absoluteTarget);
+            return Counters.longPathCounters();
+        } catch (final AtomicMoveNotSupportedException e) {
+            // another file store
+        }
+        final Path staging = absoluteTarget.resolveSibling("." + absoluteTarget.getFileName() + ".moving-"
+            + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        final Copy copy = new Copy();
+        final Directory root = new Directory(absoluteSource, staging, attributes, null);
+        execute(() -> copy.copyDirectory(root));
+        try {
+            copy.done.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if (!copy.failures.isEmpty()) {
+            final ArrayList<IOException> failures = new ArrayList<>(copy.failures);
+            deleteStaging(staging, failures);
+            throw new IOExceptionList(failures);
+        }
+        try {
+            rename(staging, absoluteTarget);
+        } catch (final IOException e) {
+            final ArrayList<IOException> failures = new ArrayList<>();
+            failures.add(e);
+            deleteStaging(staging, failures);
+            throw new IOExceptionList(failures);
+        }
+        new ParallelDeleter(executor).deleteDirectory(absoluteSource);
+        return copy.getCounters();
+    }
+
+    private void deleteStaging(final Path staging, final ArrayList<IOException> failures) {
+        try {
+            if (Files.exists(staging, LinkOption.NOFOLLOW_LINKS)) {
+                new ParallelDeleter(executor).deleteDirectory(staging);
+            }
+        } catch (final IOException e) {
+            failures.add(e);
+        }
+    }
+
+    /**
+     * Renames a directory atomically.
+     *
+     * @param source the directory to rename.
+     * @param target the new path.
+     * @throws AtomicMoveNotSupportedException if the paths are on different file stores.
+     * @throws IOException if an I/O error occurs.
+     */
+    void rename(final Path source, final Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Checks a copied file against its source.
+     */
+    private void verify(final Path source, final BasicFileAttributes attributes, final Path target)
+            throws IOException {
+        if (attributes.isSymbolicLink()) {
+            return;
+        }
+        final long size = Files.size(target);
+        if (size != attributes.size()) {
+            throw new IOException("Copy of '" + source + "' to '" + target + "' has " + size + " bytes instead of "
+                + attributes.size());
+        }
+        if (verifyContent && !PathUtils.fileContentEquals(source, target)) {
+            throw new IOException("Copy of '" + source + "' to '" + target + "' differs from the source");
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.file.Counters.PathCounters;
+import org.apache.commons.io.monitor.FileAlterationListener;
+import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
+import org.apache.commons.io.monitor.FileAlterationObserver;
+
+/**
+ * Counts the files, directories and bytes of directory trees like {@link PathUtils#countDirectory(Path)}, remembering
+ * the count of each directory's own files so that later counts only list the directories that changed.
+ * <p>
+ * A directory's entry is keyed by its path and stamped with its last modified time, which the file system updates
+ * when an entry is created, deleted or renamed in it. A later count reads the time of every directory of the tree,
+ * but lists and reads the attributes of the files of only those whose time changed; so recounting a large tree that
+ * changed little costs one query per directory instead of one per file. A directory that was modified too recently
+ * for its time to be trusted, given the granularity of file system times, is listed again.
+ * </p>
+ * <p>
+ * Writing to an existing file changes its size but not the time of its directory, so such a change is only seen
+ * once the directory is listed again. To keep the counts exact, either call {@link #invalidate(Path)} for the files
+ * written, or add {@link #asFileAlterationListener()} to a {@link FileAlterationObserver} of the tree.
+ * </p>
+ * <p>
+ * Like {@link PathUtils#countDirectory(Path)}, symbolic links are not followed and a directory counts itself. This
+ * class is thread-safe.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class DirectorySizeCache {
+
+    /**
+     * The counts of a directory's own files, and its subdirectories.
+     */
+    private static final class Entry {
+
+        /** The last modified time of the directory when it was listed, or null if it must be listed again. */
+        private final FileTime lastModified;
+        private final long byteCount;
+        private final long fileCount;
+        private final Path[] directories;
+
+        Entry(final FileTime lastModified, final long byteCount, final long fileCount, final Path[] directories) {
+            this.lastModified = lastModified;
+            this.byteCount = byteCount;
+            this.fileCount = fileCount;
+            this.directories = directories;
+        }
+
+        Entry invalidate() {
+            return new Entry(null, byteCount, fileCount, directories);
+        }
+    }
+
+    /**
+     * A directory modified less than this before it was listed may be modified again with the same time.
+     */
+    private static final long RACY_MILLIS = 2000;
+
+    private static final Path[] EMPTY_PATH_ARRAY = new Path[0];
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a listener that invalidates the directories of the files and directories a
+     * {@link FileAlterationObserver} reports changed.
+     *
+     * @return a listener to add to an observer of the counted trees.
+     */
+    public FileAlterationListener asFileAlterationListener() {
+        return new FileAlterationListenerAdaptor() {
+
+            @Override
+            public void onDirectoryChange(final File directory) {
+                invalidate(directory.toPath());
+            }
+
+            @Override
+            public void onDirectoryCreate(final File directory) {
+                invalidate(directory.toPath());
+            }
+
+            @Override
+            public void onDirectoryDelete(final File directory) {
+                invalidate(directory.toPath());
+            }
+
+            @Override
+            public void onFileChange(final File file) {
+                invalidate(file.toPath());
+            }
+
+            @Override
+            public void onFileCreate(final File file) {
+                invalidate(file.toPath());
+            }
+
+            @Override
+            public void onFileDelete(final File file) {
+                invalidate(file.toPath());
+            }
+        };
+    }
+
+    /**
+     * Forgets all the counts.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Counts the files, directories and bytes of a directory tree, listing only the directories that changed since
+     * they were last counted.
+     *
+     * @param directory the directory to count.
+     * @return the counts of the tree, including the directory itself.
+     * @throws IOException if an I/O error occurs.
+     */
+    public PathCounters countDirectory(final Path directory) throws IOException {
+        final PathCounters counters = Counters.longPathCounters();
+        count(directory.toAbsolutePath().normalize(), counters, true);
+        return counters;
+    }
+
+    /**
+     * Counts a directory tree into the counters.
+     *
+     * @param directory the absolute directory.
+     * @param counters the counters to add to.
+     * @param start whether this is the directory to count, which must exist, rather than one of its subdirectories,
+     *        which may have been deleted since its parent was listed.
+     * @throws IOException if an I/O error occurs.
+     */
+    private void count(final Path directory, final PathCounters counters, final boolean start) throws IOException {
+        Entry entry = entries.get(directory);
+        final FileTime lastModified;
+        try {
+            lastModified = Files.getLastModifiedTime(directory, LinkOption.NOFOLLOW_LINKS);
+        } catch (final NoSuchFileException e) {
+            if (start) {
+                throw e;
+            }
+            remove(directory);
+            return;
+        }
+        if (entry == null || !lastModified.equals(entry.lastModified)) {
+            try {
+                entry = list(directory, lastModified, entry);
+            } catch (final NoSuchFileException | NotDirectoryException e) {
+                if (start) {
+                    throw e;
+                }
+                remove(directory);
+                return;
+            }
+        }
+        counters.getDirectoryCounter().increment();
+        counters.getFileCounter().add(entry.fileCount);
+        counters.getByteCounter().add(entry.byteCount);
+        for (final Path subdirectory : entry.directories) {
+            count(subdirectory, counters, false);
+        }
+    }
+
+    /**
+     * Invalidates the count of the directory, if the path is one, and of the directory of the path, so that they are
+     * listed again by the next count.
+     *
+     * @param path a file or directory that changed.
+     */
+    public void invalidate(final Path path) {
+        final Path absolute = path.toAbsolutePath().normalize();
+        invalidateEntry(absolute);
+        final Path parent = absolute.getParent();
+        if (parent != null) {
+            invalidateEntry(parent);
+        }
+    }
+
+    private void invalidateEntry(final Path directory) {
+        entries.computeIfPresent(directory, (key, entry) -> entry.invalidate());
+    }
+
+    /**
+     * Lists a directory and remembers the counts of its own files.
+     *
+     * @param directory the directory to list.
+     * @param lastModified the last modified time of the directory, read before listing it.
+     * @param previous the previous entry of the directory, or null.
+     * @return the new entry.
+     * @throws IOException if an I/O error occurs.
+     */
+    private Entry list(final Path directory, final FileTime lastModified, final Entry previous) throws IOException {
+        final long listedAt = System.currentTimeMillis();
+        long byteCount = 0;
+        long fileCount = 0;
+        final List<Path> directories = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path path : stream) {
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (final NoSuchFileException e) {
+                    // deleted since listed
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    directories.add(path);
+                } else if (!attributes.isSymbolicLink() || Files.exists(path)) {
+                    fileCount++;
+                    byteCount += attributes.size();
+                }
+            }
+        }
+        if (previous != null && previous.directories.length > 0) {
+            // forget the subtrees that are gone
+            final Set<Path> current = new HashSet<>(directories);
+            for (final Path subdirectory : previous.directories) {
+                if (!current.contains(subdirectory)) {
+                    remove(subdirectory);
+                }
+            }
+        }
+        final boolean racy = lastModified.toMillis() + RACY_MILLIS > listedAt;
+        final Entry entry = new Entry(racy ? null : lastModified, byteCount, fileCount,
+            directories.toArray(EMPTY_PATH_ARRAY));
+        entries.put(directory, entry);
+        return entry;
+    }
+
+    /**
+     * Forgets the counts of a directory tree.
+     *
+     * @param directory the directory.
+     */
+    private void remove(final Path directory) {
+        final Entry entry = entries.remove(directory);
+        if (entry != null) {
+            for (final Path subdirectory : entry.directories) {
+                remove(subdirectory);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of directories whose counts are remembered.
+     *
+     * @return the number of directories whose counts are remembered.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
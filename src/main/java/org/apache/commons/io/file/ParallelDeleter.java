@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.file;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOExceptionList;
+import org.apache.commons.io.file.Counters.PathCounters;
+
+/**
+ * Deletes directory trees in parallel on an {@link Executor}.
+ * <p>
+ * Each directory is listed by one task, which deletes its files in batches, a task per batch, and forks a task per
+ * subdirectory; a directory is deleted as soon as the last of its files and subdirectories is, so directories are
+ * removed bottom-up without any task waiting for another. Tasks the executor rejects run on the submitting thread.
+ * </p>
+ * <p>
+ * Like {@link PathUtils#deleteDirectory(Path, DeleteOption...)}, symbolic links are deleted, not followed, files that
+ * vanish during the deletion are ignored, and the returned counters count the deleted files and bytes and the visited
+ * directories. With {@link StandardDeleteOption#OVERRIDE_READ_ONLY}, the read-only attribute of a file is only
+ * cleared when deleting it is denied, instead of for every file.
+ * </p>
+ * <p>
+ * {@link #deleteDirectoryAsync(Path)} first renames the directory aside, so its path is free as soon as the method
+ * returns, and then deletes the renamed tree in the background.
+ * </p>
+ * <p>
+ * A failure to delete an entry does not stop the deletion of the others, but leaves the directories containing the
+ * entry in place; all the failures are reported together in an {@link IOExceptionList}. This class is thread-safe.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class ParallelDeleter {
+
+    /**
+     * A directory being deleted, or cleaned.
+     */
+    private static final class Directory {
+
+        private final Path path;
+        private final Directory parent;
+        private final boolean delete;
+        /** The listing of the directory, and its files and subdirectories, still being deleted. */
+        private final AtomicInteger pending = new AtomicInteger(1);
+        /** Whether an entry of the directory tree could not be deleted. */
+        private volatile boolean failed;
+
+        Directory(final Path path, final Directory parent, final boolean delete) {
+            this.path = path;
+            this.parent = parent;
+            this.delete = delete;
+        }
+    }
+
+    /**
+     * The deletion of one directory tree.
+     */
+    private final class Deletion {
+
+        private final AtomicLong byteCount = new AtomicLong();
+        private final AtomicLong directoryCount = new AtomicLong();
+        private final AtomicLong fileCount = new AtomicLong();
+        private final Queue<IOException> failures = new ConcurrentLinkedQueue<>();
+        private final CompletableFuture<PathCounters> future = new CompletableFuture<>();
+
+        /**
+         * Deletes a batch of files of a directory.
+         */
+        private void deleteFiles(final Directory directory, final Path[] files, final long[] sizes, final int count) {
+            try {
+                for (int i = 0; i < count; i++) {
+                    try {
+                        if (delete(files[i])) {
+                            fileCount.incrementAndGet();
+                            byteCount.addAndGet(sizes[i]);
+                        }
+                    } catch (final IOException e) {
+                        fail(directory, e);
+                    }
+                }
+            } finally {
+                release(directory);
+            }
+        }
+
+        /**
+         * Records a failure, which keeps the directory and its ancestors from being deleted.
+         */
+        private void fail(final Directory directory, final IOException e) {
+            failures.add(e);
+            for (Directory failed = directory; failed != null; failed = failed.parent) {
+                failed.failed = true;
+            }
+        }
+
+        /**
+         * Lists a directory, deleting its files and forking the deletion of its subdirectories.
+         */
+        private void list(final Directory directory) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.path)) {
+                Path[] files = new Path[BATCH_SIZE];
+                long[] sizes = new long[BATCH_SIZE];
+                int count = 0;
+                for (final Path path : stream) {
+                    final BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (final NoSuchFileException e) {
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        final Directory subdirectory = new Directory(path, directory, true);
+                        directory.pending.incrementAndGet();
+                        execute(() -> list(subdirectory));
+                    } else {
+                        files[count] = path;
+                        sizes[count] = attributes.size();
+                        if (++count == BATCH_SIZE) {
+                            final Path[] batch = files;
+                            final long[] batchSizes = sizes;
+                            directory.pending.incrementAndGet();
+                            execute(() -> deleteFiles(directory, batch, batchSizes, BATCH_SIZE));
+                            files = new Path[BATCH_SIZE];
+                            sizes = new long[BATCH_SIZE];
+                            count = 0;
+                        }
+                    }
+                }
+                if (count > 0) {
+                    // the last batch is deleted by this task
+                    directory.pending.incrementAndGet();
+                    deleteFiles(directory, files, sizes, count);
+                }
+            } catch (final IOException e) {
+                fail(directory, e);
+            } catch (final DirectoryIteratorException e) {
+                fail(directory, e.getCause());
+            } finally {
+                release(directory);
+            }
+        }
+
+        /**
+         * Releases a hold on a directory, deleting it once its contents are.
+         */
+        private void release(final Directory directory) {
+            if (directory.pending.decrementAndGet() > 0) {
+                return;
+            }
+            directoryCount.incrementAndGet();
+            if (directory.delete && !directory.failed) {
+                try {
+                    delete(directory.path);
+                } catch (final IOException e) {
+                    fail(directory, e);
+                }
+            }
+            if (directory.parent != null) {
+                release(directory.parent);
+            } else {
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (failures.isEmpty()) {
+                final PathCounters counters = Counters.longPathCounters();
+                counters.getByteCounter().add(byteCount.get());
+                counters.getDirectoryCounter().add(directoryCount.get());
+                counters.getFileCounter().add(fileCount.get());
+                future.complete(counters);
+            } else {
+                future.completeExceptionally(new IOExceptionList(new ArrayList<>(failures)));
+            }
+        }
+    }
+
+    /**
+     * The number of files deleted by one task.
+     */
+    static final int BATCH_SIZE = 256;
+
+    private final Executor executor;
+
+    private final boolean overrideReadOnly;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param executor the executor to run the deletion tasks.
+     * @param options options indicating how deletion is handled.
+     */
+    public ParallelDeleter(final Executor executor, final DeleteOption... options) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.overrideReadOnly = StandardDeleteOption.overrideReadOnly(options);
+    }
+
+    /**
+     * Waits for a deletion.
+     */
+    private static PathCounters await(final CompletableFuture<PathCounters> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    private static void requireDirectory(final Path directory) throws IOException {
+        if (!Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isDirectory()) {
+            throw new NotDirectoryException(directory.toString());
+        }
+    }
+
+    /**
+     * Deletes the contents of a directory, waiting for the deletion to finish.
+     *
+     * @param directory the directory to clean.
+     * @return the counts of the deleted files and bytes and of the visited directories, including this one.
+     * @throws NotDirectoryException if the path is not a directory.
+     * @throws IOExceptionList if any entry could not be deleted, with one cause per failure.
+     * @throws InterruptedIOException if interrupted while waiting, the deletion then goes on in the background.
+     * @throws IOException if an I/O error occurs.
+     */
+    public PathCounters cleanDirectory(final Path directory) throws IOException {
+        requireDirectory(directory);
+        return await(start(directory, false));
+    }
+
+    /**
+     * Deletes a file or an empty directory, clearing its read-only attribute if that is the reason it cannot be.
+     *
+     * @return whether the path existed.
+     */
+    private boolean delete(final Path path) throws IOException {
+        // File.delete() is one system call, where Files.delete() reads the attributes first
+        if (path.getFileSystem() == FileSystems.getDefault() && path.toFile().delete()) {
+            return true;
+        }
+        try {
+            return Files.deleteIfExists(path);
+        } catch (final AccessDeniedException e) {
+            if (!overrideReadOnly) {
+                throw e;
+            }
+            PathUtils.setReadOnly(path, false, LinkOption.NOFOLLOW_LINKS);
+            return Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Deletes a directory and its contents, waiting for the deletion to finish.
+     *
+     * @param directory the directory to delete.
+     * @return the counts of the deleted files and bytes and of the visited directories.
+     * @throws NotDirectoryException if the path is not a directory.
+     * @throws IOExceptionList if any entry could not be deleted, with one cause per failure.
+     * @throws InterruptedIOException if interrupted while waiting, the deletion then goes on in the background.
+     * @throws IOException if an I/O error occurs.
+     */
+    public PathCounters deleteDirectory(final Path directory) throws IOException {
+        requireDirectory(directory);
+        return await(start(directory, true));
+    }
+
+    /**
+     * Renames a directory aside, in its parent directory, and deletes it and its contents in the background.
+     * <p>
+     * When this method returns, the directory path no longer exists and may be reused.
+     * </p>
+     *
+     * @param directory the directory to delete.
+     * @return the counts of the deleted files and bytes and of the visited directories, completed exceptionally with
+     *         an {@link IOExceptionList} if any entry could not be deleted.
+     * @throws NotDirectoryException if the path is not a directory.
+     * @throws IOException if the directory cannot be renamed.
+     */
+    public CompletableFuture<PathCounters> deleteDirectoryAsync(final Path directory) throws IOException {
+        requireDirectory(directory);
+        final Path absolute = directory.toAbsolutePath();
+        final String prefix = "." + absolute.getFileName() + ".deleting-";
+        while (true) {
+            final Path aside = absolute.resolveSibling(prefix + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            try {
+                Files.move(absolute, aside, StandardCopyOption.ATOMIC_MOVE);
+                return start(aside, true);
+            } catch (final FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+    }
+
+    private void execute(final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private CompletableFuture<PathCounters> start(final Path directory, final boolean delete) {
+        final Deletion deletion = new Deletion();
+        final Directory root = new Directory(directory, null, delete);
+        execute(() -> deletion.list(root));
+        return deletion.future;
+    }
+}
@@ -17,6 +17,7 @@
 package org.apache.commons.io.filefilter;
 
 import java.io.File;
+import java.nio.file.Path;
 
 /**
  * An abstract class which implements the Java FileFilter and FilenameFilter
@@ -53,6 +54,17 @@ public boolean accept(final File dir, final String name) {
         return accept(new File(dir, name));
     }
 
+    /**
+     * Gets the file name of a Path like {@link File#getName()}: the empty string for a root.
+     *
+     * @param path  the Path
+     * @return the file name
+     */
+    static String getName(final Path path) {
+        final Path fileName = path.getFileName();
+        return fileName == null ? "" : fileName.toString();
+    }
+
     /**
      * Provide a String representation of this file filter.
      *
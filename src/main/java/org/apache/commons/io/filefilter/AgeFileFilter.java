@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
 
 import org.apache.commons.io.FileUtils;
@@ -146,6 +148,21 @@ public boolean accept(final File file) {
         return acceptOlder != newer;
     }
 
+    /**
+     * Checks to see if the last modification time in the attributes matches cutoff
+     * favorably, like {@link #accept(File)}.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return true if the last modification time matches
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        final boolean newer = attributes.lastModifiedTime().toMillis() > cutoff;
+        return acceptOlder != newer;
+    }
+
     /**
      * Provide a String representation of this file filter.
      *
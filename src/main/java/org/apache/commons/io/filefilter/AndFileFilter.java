@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -148,6 +150,27 @@ public boolean accept(final File file, final String name) {
         return true;
     }
 
+    /**
+     * Checks the Path against each filter in turn, sharing the attributes.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return true if all filters accept the Path
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        if (this.fileFilters.isEmpty()) {
+            return false;
+        }
+        for (final IOFileFilter fileFilter : fileFilters) {
+            if (!fileFilter.accept(path, attributes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Provide a String representation of this file filter.
      *
@@ -18,6 +18,9 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * This filter accepts <code>File</code>s that can be read.
@@ -92,4 +95,19 @@ public boolean accept(final File file) {
         return file.canRead();
     }
 
+    /**
+     * Checks to see if the file can be read. Access rights are not part of the
+     * attributes, this asks the file system once.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes (ignored)
+     * @return {@code true} if the file can be
+     *  read, otherwise {@code false}.
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return Files.isReadable(path);
+    }
+
 }
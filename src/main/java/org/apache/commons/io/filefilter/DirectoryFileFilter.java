@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * This filter accepts <code>File</code>s that are directories.
@@ -71,4 +73,17 @@ public boolean accept(final File file) {
         return file.isDirectory();
     }
 
+    /**
+     * Checks to see if the attributes are those of a directory.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return true if the file is a directory
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return attributes.isDirectory();
+    }
+
 }
@@ -17,7 +17,12 @@
 package org.apache.commons.io.filefilter;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * This filter accepts files or directories that are empty.
@@ -83,4 +88,27 @@ public boolean accept(final File file) {
         return file.length() == 0;
     }
 
+    /**
+     * Checks to see if the file is empty, using the attributes for the size of files.
+     * Directories are still listed.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return {@code true} if the file or directory
+     *  is <i>empty</i>, otherwise {@code false}.
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        if (attributes.isDirectory()) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                return !stream.iterator().hasNext();
+            } catch (final IOException e) {
+                // like File.listFiles() returning null
+                return true;
+            }
+        }
+        return attributes.size() == 0;
+    }
+
 }
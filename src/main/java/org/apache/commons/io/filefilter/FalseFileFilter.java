@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * A file filter that always returns false.
@@ -72,4 +74,17 @@ public boolean accept(final File dir, final String name) {
         return false;
     }
 
+    /**
+     * Returns false.
+     *
+     * @param path  the Path to check (ignored)
+     * @param attributes  the file attributes (ignored)
+     * @return false
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return false;
+    }
+
 }
@@ -0,0 +1,497 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Rewrites a tree of file filters into an equivalent one that is cheaper to evaluate.
+ * <p>
+ * The rewrite:
+ * </p>
+ * <ul>
+ * <li>flattens nested AND and OR filters into a single level backed by an array,</li>
+ * <li>folds {@link TrueFileFilter} and {@link FalseFileFilter} operands and double negations,</li>
+ * <li>merges the {@link NameFileFilter}, {@link PrefixFileFilter} and {@link SuffixFileFilter} operands of an OR,
+ * and the entries of each such filter, into one hash set and two tries per case-sensitivity,</li>
+ * <li>orders the operands of AND and OR so that name checks run before checks that read file attributes, and those
+ * before checks that read file content or are unknown.</li>
+ * </ul>
+ * <p>
+ * Only filters of exactly the built-in classes are rewritten; subclasses and other filters are kept as they are.
+ * Reordering assumes that filters have no side effects, as is the case for all built-in filters.
+ * </p>
+ *
+ * @see FileFilterUtils#compile(IOFileFilter)
+ */
+final class FileFilterCompiler {
+
+    /**
+     * The operands of a compiled AND or OR, in evaluation order.
+     */
+    abstract static class Junction extends AbstractFileFilter implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        final IOFileFilter[] filters;
+
+        final int cost;
+
+        Junction(final IOFileFilter[] filters) {
+            this.filters = filters;
+            int max = CONSTANT;
+            for (final IOFileFilter filter : filters) {
+                max = Math.max(max, cost(filter));
+            }
+            this.cost = max;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder buffer = new StringBuilder(super.toString()).append('(');
+            for (int i = 0; i < filters.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                buffer.append(filters[i]);
+            }
+            return buffer.append(')').toString();
+        }
+    }
+
+    /**
+     * A compiled AND: accepts if all operands accept.
+     */
+    static final class CompiledAndFileFilter extends Junction {
+
+        private static final long serialVersionUID = 1L;
+
+        CompiledAndFileFilter(final IOFileFilter[] filters) {
+            super(filters);
+        }
+
+        @Override
+        public boolean accept(final File file) {
+            for (final IOFileFilter filter : filters) {
+                if (!filter.accept(file)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean accept(final File dir, final String name) {
+            for (final IOFileFilter filter : filters) {
+                if (!filter.accept(dir, name)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean accept(final Path path, final BasicFileAttributes attributes) {
+            for (final IOFileFilter filter : filters) {
+                if (!filter.accept(path, attributes)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A compiled OR: accepts if any operand accepts.
+     */
+    static final class CompiledOrFileFilter extends Junction {
+
+        private static final long serialVersionUID = 1L;
+
+        CompiledOrFileFilter(final IOFileFilter[] filters) {
+            super(filters);
+        }
+
+        @Override
+        public boolean accept(final File file) {
+            for (final IOFileFilter filter : filters) {
+                if (filter.accept(file)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean accept(final File dir, final String name) {
+            for (final IOFileFilter filter : filters) {
+                if (filter.accept(dir, name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean accept(final Path path, final BasicFileAttributes attributes) {
+            for (final IOFileFilter filter : filters) {
+                if (filter.accept(path, attributes)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A trie of strings, walked from the start or from the end of the name.
+     */
+    static final class CharTrie implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private char[] keys = new char[0];
+
+        private CharTrie[] children = new CharTrie[0];
+
+        private boolean terminal;
+
+        void add(final String key, final boolean fromEnd) {
+            CharTrie node = this;
+            final int length = key.length();
+            for (int i = 0; i < length; i++) {
+                node = node.child(key.charAt(fromEnd ? length - 1 - i : i));
+            }
+            node.terminal = true;
+        }
+
+        void addAll(final CharTrie other) {
+            terminal |= other.terminal;
+            for (int i = 0; i < other.keys.length; i++) {
+                child(other.keys[i]).addAll(other.children[i]);
+            }
+        }
+
+        private CharTrie child(final char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                index = -index - 1;
+                final int size = keys.length;
+                keys = Arrays.copyOf(keys, size + 1);
+                children = Arrays.copyOf(children, size + 1);
+                System.arraycopy(keys, index, keys, index + 1, size - index);
+                System.arraycopy(children, index, children, index + 1, size - index);
+                keys[index] = key;
+                children[index] = new CharTrie();
+            }
+            return children[index];
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && !terminal;
+        }
+
+        /**
+         * Lists the keys, as added.
+         */
+        List<String> keys(final boolean fromEnd) {
+            final List<String> list = new ArrayList<>();
+            collect(new StringBuilder(), fromEnd, list);
+            return list;
+        }
+
+        private void collect(final StringBuilder key, final boolean fromEnd, final List<String> list) {
+            if (terminal) {
+                list.add(fromEnd ? new StringBuilder(key).reverse().toString() : key.toString());
+            }
+            for (int i = 0; i < keys.length; i++) {
+                key.append(keys[i]);
+                children[i].collect(key, fromEnd, list);
+                key.setLength(key.length() - 1);
+            }
+        }
+
+        /**
+         * Tests whether the name starts, or ends, with one of the keys.
+         */
+        boolean matches(final String name, final boolean fromEnd, final boolean sensitive) {
+            CharTrie node = this;
+            final int length = name.length();
+            for (int i = 0; !node.terminal; i++) {
+                if (i == length) {
+                    return false;
+                }
+                final char c = name.charAt(fromEnd ? length - 1 - i : i);
+                final int index = Arrays.binarySearch(node.keys, sensitive ? c : fold(c));
+                if (index < 0) {
+                    return false;
+                }
+                node = node.children[index];
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Merged name, prefix and suffix checks for one case-sensitivity.
+     */
+    static final class NameMatchFileFilter extends AbstractFileFilter implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean sensitive;
+
+        private final Set<String> names = new HashSet<>();
+
+        private final CharTrie prefixes = new CharTrie();
+
+        private final CharTrie suffixes = new CharTrie();
+
+        NameMatchFileFilter(final boolean sensitive) {
+            this.sensitive = sensitive;
+        }
+
+        void addAll(final NameMatchFileFilter other) {
+            names.addAll(other.names);
+            prefixes.addAll(other.prefixes);
+            suffixes.addAll(other.suffixes);
+        }
+
+        @Override
+        public boolean accept(final File file) {
+            return matches(file.getName());
+        }
+
+        @Override
+        public boolean accept(final File dir, final String name) {
+            return matches(name);
+        }
+
+        @Override
+        public boolean accept(final Path path, final BasicFileAttributes attributes) {
+            return matches(getName(path));
+        }
+
+        private String key(final String name) {
+            return sensitive ? name : fold(name);
+        }
+
+        boolean matches(final String name) {
+            return !names.isEmpty() && names.contains(key(name))
+                || !prefixes.isEmpty() && prefixes.matches(name, false, sensitive)
+                || !suffixes.isEmpty() && suffixes.matches(name, true, sensitive);
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + "(" + (sensitive ? "sensitive" : "insensitive") + ",names=" + names
+                + ",prefixes=" + prefixes.keys(false) + ",suffixes=" + suffixes.keys(true) + ")";
+        }
+    }
+
+    /** Cost of a constant. */
+    static final int CONSTANT = 0;
+
+    /** Cost of a check of the file name only. */
+    static final int NAME = 1;
+
+    /** Cost of a check of the file attributes. */
+    static final int ATTRIBUTES = 2;
+
+    /** Cost of a check of the file content, or of an unknown filter. */
+    static final int CONTENT = 3;
+
+    private static final Map<Class<?>, Integer> COSTS = costs();
+
+    private static final Comparator<IOFileFilter> BY_COST = Comparator.comparingInt(FileFilterCompiler::cost);
+
+    /**
+     * Builds the cost table of the filters of this package.
+     */
+    @SuppressWarnings("deprecation") // WildcardFilter is still in use
+    private static Map<Class<?>, Integer> costs() {
+        final Map<Class<?>, Integer> costs = new HashMap<>();
+        for (final Class<?> type : Arrays.asList(TrueFileFilter.class, FalseFileFilter.class)) {
+            costs.put(type, CONSTANT);
+        }
+        for (final Class<?> type : Arrays.asList(NameFileFilter.class, PrefixFileFilter.class,
+            SuffixFileFilter.class, WildcardFileFilter.class, RegexFileFilter.class, NameMatchFileFilter.class)) {
+            costs.put(type, NAME);
+        }
+        for (final Class<?> type : Arrays.asList(FileFileFilter.class, DirectoryFileFilter.class,
+            AgeFileFilter.class, SizeFileFilter.class, EmptyFileFilter.class, HiddenFileFilter.class,
+            CanReadFileFilter.class, CanWriteFileFilter.class, CanExecuteFileFilter.class, WildcardFilter.class)) {
+            costs.put(type, ATTRIBUTES);
+        }
+        return costs;
+    }
+
+    /**
+     * Compiles a filter tree.
+     *
+     * @param filter the filter to compile.
+     * @return an equivalent filter.
+     */
+    static IOFileFilter compile(final IOFileFilter filter) {
+        return rewrite(Objects.requireNonNull(filter, "filter"));
+    }
+
+    static int cost(final IOFileFilter filter) {
+        if (filter instanceof Junction) {
+            return ((Junction) filter).cost;
+        }
+        if (filter.getClass() == NotFileFilter.class) {
+            return cost(((NotFileFilter) filter).getFilter());
+        }
+        final Integer cost = COSTS.get(filter.getClass());
+        return cost == null ? CONTENT : cost.intValue();
+    }
+
+    static char fold(final char c) {
+        // the same folding as String.equalsIgnoreCase and String.regionMatches
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    static String fold(final String s) {
+        final char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static boolean isConstant(final IOFileFilter filter, final boolean value) {
+        return filter.getClass() == (value ? TrueFileFilter.class : FalseFileFilter.class);
+    }
+
+    private static IOFileFilter junction(final List<IOFileFilter> operands, final boolean and) {
+        if (operands.isEmpty()) {
+            // like AndFileFilter and OrFileFilter without filters
+            return FalseFileFilter.FALSE;
+        }
+        final List<IOFileFilter> flat = new ArrayList<>();
+        final Map<Boolean, NameMatchFileFilter> matchers = new HashMap<>();
+        for (final IOFileFilter operand : operands) {
+            final IOFileFilter filter = rewrite(operand);
+            if (isConstant(filter, !and)) {
+                // FALSE in an AND, TRUE in an OR
+                return filter;
+            }
+            if (isConstant(filter, and)) {
+                continue;
+            }
+            final List<IOFileFilter> children = and && filter instanceof CompiledAndFileFilter
+                || !and && filter instanceof CompiledOrFileFilter ? Arrays.asList(((Junction) filter).filters)
+                    : Collections.singletonList(filter);
+            for (final IOFileFilter child : children) {
+                if (!and && child instanceof NameMatchFileFilter) {
+                    final NameMatchFileFilter matcher = (NameMatchFileFilter) child;
+                    final NameMatchFileFilter merged = matchers.get(matcher.sensitive);
+                    if (merged == null) {
+                        final NameMatchFileFilter copy = new NameMatchFileFilter(matcher.sensitive);
+                        copy.addAll(matcher);
+                        matchers.put(matcher.sensitive, copy);
+                        flat.add(copy);
+                    } else {
+                        merged.addAll(matcher);
+                    }
+                } else {
+                    flat.add(child);
+                }
+            }
+        }
+        if (flat.isEmpty()) {
+            // only TRUE operands in an AND, only FALSE operands in an OR
+            return and ? TrueFileFilter.TRUE : FalseFileFilter.FALSE;
+        }
+        if (flat.size() == 1) {
+            return flat.get(0);
+        }
+        // stable: operands of the same cost keep their order
+        flat.sort(BY_COST);
+        final IOFileFilter[] array = flat.toArray(new IOFileFilter[0]);
+        return and ? new CompiledAndFileFilter(array) : new CompiledOrFileFilter(array);
+    }
+
+    private static IOFileFilter rewrite(final IOFileFilter filter) {
+        final Class<?> type = filter.getClass();
+        if (type == AndFileFilter.class) {
+            return junction(((AndFileFilter) filter).getFileFilters(), true);
+        }
+        if (type == OrFileFilter.class) {
+            return junction(((OrFileFilter) filter).getFileFilters(), false);
+        }
+        if (type == NotFileFilter.class) {
+            final IOFileFilter original = ((NotFileFilter) filter).getFilter();
+            final IOFileFilter operand = rewrite(original);
+            if (isConstant(operand, true)) {
+                return FalseFileFilter.FALSE;
+            }
+            if (isConstant(operand, false)) {
+                return TrueFileFilter.TRUE;
+            }
+            if (operand.getClass() == NotFileFilter.class) {
+                return ((NotFileFilter) operand).getFilter();
+            }
+            return operand == original ? filter : new NotFileFilter(operand);
+        }
+        if (type == NameFileFilter.class) {
+            final NameFileFilter names = (NameFileFilter) filter;
+            final NameMatchFileFilter matcher = new NameMatchFileFilter(names.getCaseSensitivity().isCaseSensitive());
+            for (final String name : names.getNames()) {
+                matcher.names.add(matcher.key(name));
+            }
+            return matcher;
+        }
+        if (type == PrefixFileFilter.class) {
+            final PrefixFileFilter prefixes = (PrefixFileFilter) filter;
+            final NameMatchFileFilter matcher =
+                new NameMatchFileFilter(prefixes.getCaseSensitivity().isCaseSensitive());
+            for (final String prefix : prefixes.getPrefixes()) {
+                matcher.prefixes.add(matcher.key(prefix), false);
+            }
+            return matcher;
+        }
+        if (type == SuffixFileFilter.class) {
+            final SuffixFileFilter suffixes = (SuffixFileFilter) filter;
+            final NameMatchFileFilter matcher =
+                new NameMatchFileFilter(suffixes.getCaseSensitivity().isCaseSensitive());
+            for (final String suffix : suffixes.getSuffixes()) {
+                matcher.suffixes.add(matcher.key(suffix), true);
+            }
+            return matcher;
+        }
+        return filter;
+    }
+
+    private FileFilterCompiler() {
+        // static only
+    }
+}
@@ -17,7 +17,12 @@
 package org.apache.commons.io.filefilter;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
 
 /**
  * This filter accepts <code>File</code>s that are hidden.
@@ -76,4 +81,26 @@ public boolean accept(final File file) {
         return file.isHidden();
     }
 
+    /**
+     * Checks to see if the file is hidden, using the DOS attributes when the attributes
+     * are {@link DosFileAttributes}.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return {@code true} if the file is
+     *  <i>hidden</i>, otherwise {@code false}.
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        if (attributes instanceof DosFileAttributes) {
+            return ((DosFileAttributes) attributes).isHidden();
+        }
+        try {
+            return Files.isHidden(path);
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
 }
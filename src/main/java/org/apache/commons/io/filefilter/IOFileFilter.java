@@ -19,6 +19,8 @@
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FilenameFilter;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * An interface which brings the FileFilter and FilenameFilter
@@ -57,4 +59,21 @@ public interface IOFileFilter extends FileFilter, FilenameFilter {
     @Override
     boolean accept(File dir, String name);
 
+    /**
+     * Checks to see if the Path should be accepted by this filter, reusing attributes
+     * that the caller has already read, for example in
+     * {@link java.nio.file.FileVisitor#visitFile(Object, BasicFileAttributes)}.
+     * <p>
+     * The built-in filters answer from the attributes, or from the file name alone, instead of
+     * querying the file system again. This default implementation calls {@link #accept(File)}.
+     *
+     * @param path  the Path to check
+     * @param attributes  the attributes of the Path
+     * @return true if this file matches the test
+     * @since 2.9.0
+     */
+    default boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return accept(path.toFile());
+    }
+
 }
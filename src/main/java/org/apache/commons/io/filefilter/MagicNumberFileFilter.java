@@ -20,7 +20,12 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
 
 /**
@@ -251,6 +256,34 @@ public boolean accept(final File file) {
         return false;
     }
 
+    /**
+     * Checks the magic number of a regular file, using the attributes to skip other
+     * files and files too short to hold it.
+     *
+     * @param path the Path to accept or reject.
+     * @param attributes the file attributes
+     * @return {@code true} if the file contains the filter's magic number
+     *         at the specified offset, {@code false} otherwise.
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        if (!attributes.isRegularFile() || attributes.size() < byteOffset + magicNumbers.length) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(magicNumbers.length);
+            channel.position(byteOffset);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading
+            }
+            return !buffer.hasRemaining() && Arrays.equals(this.magicNumbers, buffer.array());
+        } catch (final IOException ioe) {
+            // Do nothing, fall through and do not accept file
+        }
+        return false;
+    }
+
     /**
      * Returns a String representation of the file filter, which includes the
      * magic number bytes and byte offset.
@@ -0,0 +1,484 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.io.IOExceptionList;
+
+/**
+ * Classifies files by content against many magic numbers at once.
+ * <p>
+ * Where a {@link MagicNumberFileFilter} opens and reads a file for its one magic number, this class opens each file
+ * once and reads all the bytes its signatures need with a single positional read, or one per distant region. The
+ * signatures at each offset are matched together by walking a trie of their bytes.
+ * </p>
+ * <pre>
+ * MagicNumberSniffer&lt;String&gt; sniffer = new MagicNumberSniffer&lt;&gt;(
+ *     new MagicNumberSniffer.Signature&lt;&gt;("class", new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE}, 0),
+ *     new MagicNumberSniffer.Signature&lt;&gt;("tar", "ustar".getBytes(StandardCharsets.US_ASCII), 257));
+ * String type = sniffer.getType(path);
+ * Map&lt;Path, String&gt; types = sniffer.classify(paths, executor);
+ * File[] archives = dir.listFiles(sniffer.asFileFilter("tar"));
+ * </pre>
+ * <p>
+ * This class is immutable and thread-safe.
+ * </p>
+ *
+ * @param <T> the type of the file types, for example String or an enum.
+ * @since 2.9.0
+ */
+public final class MagicNumberSniffer<T> {
+
+    /**
+     * A magic number identifying a file type.
+     *
+     * @param <T> the type of the file types.
+     */
+    public static final class Signature<T> {
+
+        private final T type;
+
+        private final byte[] magicNumber;
+
+        private final long offset;
+
+        /**
+         * Constructs a new signature.
+         *
+         * @param type the file type the magic number identifies, not null.
+         * @param magicNumber the magic number, at least one byte.
+         * @param offset the byte offset in the file of the magic number.
+         * @throws IllegalArgumentException if the magic number is empty or the offset negative.
+         */
+        public Signature(final T type, final byte[] magicNumber, final long offset) {
+            this.type = Objects.requireNonNull(type, "type");
+            Objects.requireNonNull(magicNumber, "magicNumber");
+            if (magicNumber.length == 0) {
+                throw new IllegalArgumentException("The magic number must contain at least one byte");
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("The offset cannot be negative");
+            }
+            this.magicNumber = magicNumber.clone();
+            this.offset = offset;
+        }
+
+        /**
+         * Gets the file type.
+         *
+         * @return the file type.
+         */
+        public T getType() {
+            return type;
+        }
+
+        /**
+         * Gets the magic number.
+         *
+         * @return a copy of the magic number.
+         */
+        public byte[] getMagicNumber() {
+            return magicNumber.clone();
+        }
+
+        /**
+         * Gets the byte offset in the file of the magic number.
+         *
+         * @return the offset.
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public String toString() {
+            return type + "@" + offset;
+        }
+    }
+
+    /**
+     * Accepts files of the given types.
+     */
+    private final class TypeFileFilter extends AbstractFileFilter {
+
+        /** The indices of the accepted signatures. */
+        private final BitSet signatures;
+
+        private final Collection<T> types;
+
+        TypeFileFilter(final Collection<T> types) {
+            this.types = types;
+            this.signatures = new BitSet();
+            for (int i = 0; i < MagicNumberSniffer.this.signatures.length; i++) {
+                if (types.isEmpty() || types.contains(MagicNumberSniffer.this.signatures[i].type)) {
+                    signatures.set(i);
+                }
+            }
+        }
+
+        @Override
+        public boolean accept(final File file) {
+            if (file != null && file.isFile()) {
+                try {
+                    return sniff(file.toPath()).intersects(signatures);
+                } catch (final IOException e) {
+                    // Do nothing, fall through and do not accept file
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean accept(final Path path, final BasicFileAttributes attributes) {
+            if (attributes.isRegularFile() && attributes.size() >= minLength) {
+                try {
+                    return sniff(path).intersects(signatures);
+                } catch (final IOException e) {
+                    // Do nothing, fall through and do not accept file
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + types;
+        }
+    }
+
+    /**
+     * A trie of the magic numbers at one offset.
+     */
+    private static final class ByteTrie {
+
+        private byte[] keys = new byte[0];
+
+        private ByteTrie[] children = new ByteTrie[0];
+
+        /** The indices of the signatures ending here. */
+        private int[] signatures = new int[0];
+
+        void add(final byte[] magicNumber, final int signature) {
+            ByteTrie node = this;
+            for (final byte b : magicNumber) {
+                int index = Arrays.binarySearch(node.keys, b);
+                if (index < 0) {
+                    index = -index - 1;
+                    final int size = node.keys.length;
+                    node.keys = Arrays.copyOf(node.keys, size + 1);
+                    node.children = Arrays.copyOf(node.children, size + 1);
+                    System.arraycopy(node.keys, index, node.keys, index + 1, size - index);
+                    System.arraycopy(node.children, index, node.children, index + 1, size - index);
+                    node.keys[index] = b;
+                    node.children[index] = new ByteTrie();
+                }
+                node = node.children[index];
+            }
+            node.signatures = Arrays.copyOf(node.signatures, node.signatures.length + 1);
+            node.signatures[node.signatures.length - 1] = signature;
+        }
+
+        /**
+         * Adds the signatures whose magic number starts at the given position of the buffer.
+         */
+        void match(final byte[] buffer, final int position, final int limit, final BitSet matches) {
+            ByteTrie node = this;
+            for (int i = position; i < limit; i++) {
+                final int index = Arrays.binarySearch(node.keys, buffer[i]);
+                if (index < 0) {
+                    return;
+                }
+                node = node.children[index];
+                for (final int signature : node.signatures) {
+                    matches.set(signature);
+                }
+            }
+        }
+    }
+
+    /**
+     * A region of the file read at once, spanning the magic numbers of one or more offsets.
+     */
+    private static final class Region {
+
+        final long start;
+
+        final int length;
+
+        /** The offsets of the magic numbers in the region, relative to its start. */
+        final int[] offsets;
+
+        /** The magic numbers at each offset. */
+        final ByteTrie[] tries;
+
+        Region(final long start, final long end, final List<Long> offsets, final List<ByteTrie> tries) {
+            this.start = start;
+            this.length = (int) (end - start);
+            this.offsets = new int[offsets.size()];
+            for (int i = 0; i < this.offsets.length; i++) {
+                this.offsets[i] = (int) (offsets.get(i).longValue() - start);
+            }
+            this.tries = tries.toArray(new ByteTrie[0]);
+        }
+    }
+
+    /**
+     * Gaps between magic numbers smaller than this are read through rather than read separately.
+     */
+    private static final int MAX_GAP = 4096;
+
+    private final Signature<T>[] signatures;
+
+    private final Region[] regions;
+
+    /** The length of the shortest file any signature can match. */
+    private final long minLength;
+
+    /**
+     * Constructs a new sniffer.
+     *
+     * @param signatures the signatures, earlier ones take precedence in {@link #getType(Path)}.
+     * @throws IllegalArgumentException if there are no signatures.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"}) // generic array creation
+    public MagicNumberSniffer(final Collection<Signature<T>> signatures) {
+        this.signatures = signatures.toArray(new Signature[0]);
+        if (this.signatures.length == 0) {
+            throw new IllegalArgumentException("No signatures");
+        }
+        final TreeMap<Long, ByteTrie> tries = new TreeMap<>();
+        final Map<Long, Long> ends = new TreeMap<>();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < this.signatures.length; i++) {
+            final Signature<T> signature = Objects.requireNonNull(this.signatures[i], "signature");
+            final Long offset = Long.valueOf(signature.offset);
+            tries.computeIfAbsent(offset, k -> new ByteTrie()).add(signature.magicNumber, i);
+            final long end = signature.offset + signature.magicNumber.length;
+            ends.merge(offset, Long.valueOf(end), (a, b) -> Long.valueOf(Math.max(a.longValue(), b.longValue())));
+            min = Math.min(min, end);
+        }
+        this.minLength = min;
+        final List<Region> list = new ArrayList<>();
+        final List<Long> offsets = new ArrayList<>();
+        final List<ByteTrie> regionTries = new ArrayList<>();
+        long start = 0;
+        long regionEnd = 0;
+        for (final Map.Entry<Long, ByteTrie> entry : tries.entrySet()) {
+            final long offset = entry.getKey().longValue();
+            final long end = ends.get(entry.getKey()).longValue();
+            if (!offsets.isEmpty() && (offset - regionEnd > MAX_GAP || end - start > Integer.MAX_VALUE)) {
+                list.add(new Region(start, regionEnd, offsets, regionTries));
+                offsets.clear();
+                regionTries.clear();
+            }
+            if (offsets.isEmpty()) {
+                start = offset;
+                regionEnd = end;
+            }
+            regionEnd = Math.max(regionEnd, end);
+            offsets.add(entry.getKey());
+            regionTries.add(entry.getValue());
+        }
+        list.add(new Region(start, regionEnd, offsets, regionTries));
+        this.regions = list.toArray(new Region[0]);
+    }
+
+    /**
+     * Constructs a new sniffer.
+     *
+     * @param signatures the signatures, earlier ones take precedence in {@link #getType(Path)}.
+     * @throws IllegalArgumentException if there are no signatures.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // the other constructor only reads the list, into an array of its own
+    public MagicNumberSniffer(final Signature<T>... signatures) {
+        this(Arrays.asList(signatures));
+    }
+
+    /**
+     * Returns a filter that accepts regular files matching a signature of one of the given types.
+     * <p>
+     * Like {@link MagicNumberFileFilter}, the filter rejects files it cannot read.
+     * </p>
+     *
+     * @param types the accepted types; none to accept files matching any signature.
+     * @return a file filter.
+     */
+    @SafeVarargs
+    public final IOFileFilter asFileFilter(final T... types) {
+        final Set<T> set = new HashSet<>();
+        for (final T type : types) {
+            set.add(type);
+        }
+        return new TypeFileFilter(set);
+    }
+
+    /**
+     * Classifies files in parallel.
+     * <p>
+     * Each file is classified by a task run on the given executor; the call returns when all files are classified. If
+     * the executor rejects a task, the calling thread runs it.
+     * </p>
+     *
+     * @param paths the files to classify.
+     * @param executor the executor to run the tasks.
+     * @return the type of each file that matched a signature, as by {@link #getType(Path)}.
+     * @throws IOExceptionList if any file could not be read, with one cause per such file.
+     * @throws InterruptedIOException if interrupted while waiting for the tasks.
+     */
+    public Map<Path, T> classify(final Collection<? extends Path> paths, final Executor executor)
+        throws IOException {
+        Objects.requireNonNull(executor, "executor");
+        final Map<Path, T> types = new ConcurrentHashMap<>();
+        final List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(paths.size());
+        for (final Path path : paths) {
+            final Runnable task = () -> {
+                try {
+                    final T type = getType(path);
+                    if (type != null) {
+                        types.put(path, type);
+                    }
+                } catch (final IOException e) {
+                    failures.add(e);
+                } finally {
+                    done.countDown();
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (final RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        try {
+            done.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if (!failures.isEmpty()) {
+            throw new IOExceptionList(new ArrayList<>(failures));
+        }
+        return types;
+    }
+
+    /**
+     * Gets the signatures.
+     *
+     * @return an unmodifiable list of the signatures, in precedence order.
+     */
+    public List<Signature<T>> getSignatures() {
+        return Collections.unmodifiableList(Arrays.asList(signatures));
+    }
+
+    /**
+     * Gets the type of the first signature the file matches.
+     *
+     * @param path the file to classify.
+     * @return the type, or null if the file is not a regular file or matches no signature.
+     * @throws IOException if the file cannot be read.
+     */
+    public T getType(final Path path) throws IOException {
+        final BitSet matches = sniff(path);
+        return matches.isEmpty() ? null : signatures[matches.nextSetBit(0)].type;
+    }
+
+    /**
+     * Gets the types of all the signatures the file matches.
+     *
+     * @param path the file to classify.
+     * @return the types, in precedence order; empty if the file is not a regular file or matches no signature.
+     * @throws IOException if the file cannot be read.
+     */
+    public Set<T> getTypes(final Path path) throws IOException {
+        final BitSet matches = sniff(path);
+        final Set<T> types = new LinkedHashSet<>();
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            types.add(signatures[i].type);
+        }
+        return types;
+    }
+
+    /**
+     * Reads the regions of the file and matches all signatures.
+     *
+     * @return the indices of the matching signatures.
+     */
+    private BitSet sniff(final Path path) throws IOException {
+        final BitSet matches = new BitSet(signatures.length);
+        if (!Files.isRegularFile(path)) {
+            return matches;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = null;
+            for (final Region region : regions) {
+                final int length = region.length;
+                if (buffer == null || buffer.capacity() < length) {
+                    buffer = ByteBuffer.allocate(length);
+                }
+                buffer.clear().limit(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, region.start + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                final int limit = buffer.position();
+                if (limit == 0) {
+                    // regions are sorted, the file ends before this one
+                    break;
+                }
+                for (int i = 0; i < region.tries.length; i++) {
+                    if (region.offsets[i] < limit) {
+                        region.tries[i].match(buffer.array(), region.offsets[i], limit, matches);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + Arrays.toString(signatures);
+    }
+}
@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 
 import org.apache.commons.io.IOCase;
@@ -165,6 +167,37 @@ public boolean accept(final File dir, final String name) {
         return false;
     }
 
+    /**
+     * Checks to see if the file name matches, without reading any attributes.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes (ignored)
+     * @return true if the file name matches
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return accept((File) null, getName(path));
+    }
+
+    /**
+     * Gets the names, for {@link FileFilterUtils#compile(IOFileFilter)}.
+     *
+     * @return the names, not copied
+     */
+    String[] getNames() {
+        return names;
+    }
+
+    /**
+     * Gets the case-sensitivity, for {@link FileFilterUtils#compile(IOFileFilter)}.
+     *
+     * @return the case-sensitivity
+     */
+    IOCase getCaseSensitivity() {
+        return caseSensitivity;
+    }
+
     /**
      * Provide a String representation of this file filter.
      *
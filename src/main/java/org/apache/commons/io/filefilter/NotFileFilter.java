@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * This filter produces a logical NOT of the filters specified.
@@ -68,6 +70,28 @@ public boolean accept(final File file, final String name) {
         return ! filter.accept(file, name);
     }
 
+    /**
+     * Returns the logical NOT of the underlying filter's return value for the same Path.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return true if the filter returns false
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return ! filter.accept(path, attributes);
+    }
+
+    /**
+     * Gets the negated filter, for {@link FileFilterUtils#compile(IOFileFilter)}.
+     *
+     * @return the negated filter
+     */
+    IOFileFilter getFilter() {
+        return filter;
+    }
+
     /**
      * Provide a String representation of this file filter.
      *
@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -140,6 +142,24 @@ public boolean accept(final File file, final String name) {
         return false;
     }
 
+    /**
+     * Checks the Path against each filter in turn, sharing the attributes.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return true if any filter accepts the Path
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        for (final IOFileFilter fileFilter : fileFilters) {
+            if (fileFilter.accept(path, attributes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Provide a String representation of this file filter.
      *
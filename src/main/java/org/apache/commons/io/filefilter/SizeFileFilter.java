@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Filters files based on size, can filter either smaller files or
@@ -94,6 +96,20 @@ public boolean accept(final File file) {
         return acceptLarger != file.length() < size;
     }
 
+    /**
+     * Checks to see if the size in the attributes is bigger or smaller than the size
+     * of this filter, like {@link #accept(File)}.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return true if the size matches
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return acceptLarger != attributes.size() < size;
+    }
+
     /**
      * Provide a String representation of this file filter.
      *
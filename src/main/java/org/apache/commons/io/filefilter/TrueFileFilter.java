@@ -18,6 +18,8 @@
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * A file filter that always returns true.
@@ -71,4 +73,17 @@ public boolean accept(final File dir, final String name) {
         return true;
     }
 
+    /**
+     * Returns true.
+     *
+     * @param path  the Path to check (ignored)
+     * @param attributes  the file attributes (ignored)
+     * @return true
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return true;
+    }
+
 }
@@ -17,11 +17,16 @@
 package org.apache.commons.io.filefilter;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOCase;
+import org.apache.commons.io.WildcardMatcher;
 
 /**
  * Filters files using the supplied wildcards.
@@ -57,6 +62,8 @@ public class WildcardFileFilter extends AbstractFileFilter implements Serializab
     private final String[] wildcards;
     /** Whether the comparison is case sensitive. */
     private final IOCase caseSensitivity;
+    /** The wildcards compiled once into a single matcher, rebuilt on deserialization. */
+    private transient WildcardMatcher matcher;
 
     /**
      * Construct a new case-sensitive wildcard filter for a single wildcard.
@@ -81,6 +88,7 @@ public WildcardFileFilter(final String wildcard, final IOCase caseSensitivity) {
         }
         this.wildcards = new String[] { wildcard };
         this.caseSensitivity = caseSensitivity == null ? IOCase.SENSITIVE : caseSensitivity;
+        this.matcher = WildcardMatcher.compile(this.caseSensitivity, this.wildcards);
     }
 
     /**
@@ -109,6 +117,7 @@ public WildcardFileFilter(final String[] wildcards, final IOCase caseSensitivity
         this.wildcards = new String[wildcards.length];
         System.arraycopy(wildcards, 0, this.wildcards, 0, wildcards.length);
         this.caseSensitivity = caseSensitivity == null ? IOCase.SENSITIVE : caseSensitivity;
+        this.matcher = WildcardMatcher.compile(this.caseSensitivity, this.wildcards);
     }
 
     /**
@@ -136,6 +145,7 @@ public WildcardFileFilter(final List<String> wildcards, final IOCase caseSensiti
         }
         this.wildcards = wildcards.toArray(EMPTY_STRING_ARRAY);
         this.caseSensitivity = caseSensitivity == null ? IOCase.SENSITIVE : caseSensitivity;
+        this.matcher = WildcardMatcher.compile(this.caseSensitivity, this.wildcards);
     }
 
     //-----------------------------------------------------------------------
@@ -148,12 +158,7 @@ public WildcardFileFilter(final List<String> wildcards, final IOCase caseSensiti
      */
     @Override
     public boolean accept(final File dir, final String name) {
-        for (final String wildcard : wildcards) {
-            if (FilenameUtils.wildcardMatch(name, wildcard, caseSensitivity)) {
-                return true;
-            }
-        }
-        return false;
+        return matcher.matches(name);
     }
 
     /**
@@ -164,13 +169,25 @@ public boolean accept(final File dir, final String name) {
      */
     @Override
     public boolean accept(final File file) {
-        final String name = file.getName();
-        for (final String wildcard : wildcards) {
-            if (FilenameUtils.wildcardMatch(name, wildcard, caseSensitivity)) {
-                return true;
-            }
-        }
-        return false;
+        return matcher.matches(file.getName());
+    }
+
+    /**
+     * Checks to see if the file name matches, without reading any attributes.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes (ignored)
+     * @return true if the file name matches
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return accept((File) null, getName(path));
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        matcher = WildcardMatcher.compile(caseSensitivity, wildcards);
     }
 
     /**
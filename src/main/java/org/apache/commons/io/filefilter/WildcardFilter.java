@@ -17,10 +17,16 @@
 package org.apache.commons.io.filefilter;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.WildcardMatcher;
 
 /**
  * Filters files using the supplied wildcards.
@@ -54,6 +60,8 @@ public class WildcardFilter extends AbstractFileFilter implements Serializable {
     private static final long serialVersionUID = -5037645902506953517L;
     /** The wildcards that will be used to match file names. */
     private final String[] wildcards;
+    /** The wildcards compiled once, rebuilt on deserialization. */
+    private transient WildcardMatcher matcher;
 
     /**
      * Construct a new case-sensitive wildcard filter for a single wildcard.
@@ -66,6 +74,7 @@ public WildcardFilter(final String wildcard) {
             throw new IllegalArgumentException("The wildcard must not be null");
         }
         this.wildcards = new String[] { wildcard };
+        this.matcher = WildcardMatcher.compile(IOCase.SENSITIVE, this.wildcards);
     }
 
     /**
@@ -80,6 +89,7 @@ public WildcardFilter(final String... wildcards) {
         }
         this.wildcards = new String[wildcards.length];
         System.arraycopy(wildcards, 0, this.wildcards, 0, wildcards.length);
+        this.matcher = WildcardMatcher.compile(IOCase.SENSITIVE, this.wildcards);
     }
 
     /**
@@ -94,6 +104,7 @@ public WildcardFilter(final List<String> wildcards) {
             throw new IllegalArgumentException("The wildcard list must not be null");
         }
         this.wildcards = wildcards.toArray(EMPTY_STRING_ARRAY);
+        this.matcher = WildcardMatcher.compile(IOCase.SENSITIVE, this.wildcards);
     }
 
     //-----------------------------------------------------------------------
@@ -109,14 +120,7 @@ public boolean accept(final File dir, final String name) {
         if (dir != null && new File(dir, name).isDirectory()) {
             return false;
         }
-
-        for (final String wildcard : wildcards) {
-            if (FilenameUtils.wildcardMatch(name, wildcard)) {
-                return true;
-            }
-        }
-
-        return false;
+        return matcher.matches(name);
     }
 
     /**
@@ -130,14 +134,25 @@ public boolean accept(final File file) {
         if (file.isDirectory()) {
             return false;
         }
+        return matcher.matches(file.getName());
+    }
 
-        for (final String wildcard : wildcards) {
-            if (FilenameUtils.wildcardMatch(file.getName(), wildcard)) {
-                return true;
-            }
-        }
+    /**
+     * Checks to see if the file name matches one of the wildcards, using the attributes to reject directories.
+     *
+     * @param path  the Path to check
+     * @param attributes  the file attributes
+     * @return true if the file name matches a wildcard
+     * @since 2.9.0
+     */
+    @Override
+    public boolean accept(final Path path, final BasicFileAttributes attributes) {
+        return !attributes.isDirectory() && accept((File) null, getName(path));
+    }
 
-        return false;
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        matcher = WildcardMatcher.compile(IOCase.SENSITIVE, wildcards);
     }
 
 }
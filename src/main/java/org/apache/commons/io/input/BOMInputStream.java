@@ -81,7 +81,13 @@
  * }
  * </pre>
  *
+ * <p>
+ * The first bytes are read in one bulk read when the BOM is first needed. Once they have been returned, reads are
+ * passed straight to the underlying stream.
+ * </p>
+ *
  * @see org.apache.commons.io.ByteOrderMark
+ * @see BOMReadableByteChannel
  * @see <a href="http://en.wikipedia.org/wiki/Byte_order_mark">Wikipedia - Byte Order Mark</a>
  * @since 2.0
  */
@@ -92,7 +98,7 @@ public class BOMInputStream extends ProxyInputStream {
      */
     private final List<ByteOrderMark> boms;
     private ByteOrderMark byteOrderMark;
-    private int[] firstBytes;
+    private byte[] firstBytes;
     private int fbLength;
     private int fbIndex;
     private int markFbIndex;
@@ -135,7 +141,7 @@ public BOMInputStream(final InputStream delegate, final ByteOrderMark... boms) {
     /**
      * Compares ByteOrderMark objects in descending length order.
      */
-    private static final Comparator<ByteOrderMark> ByteOrderMarkLengthComparator = (bom1, bom2) -> {
+    static final Comparator<ByteOrderMark> ByteOrderMarkLengthComparator = (bom1, bom2) -> {
         final int len1 = bom1.length();
         final int len2 = bom2.length();
         return Integer.compare(len2, len1);
@@ -203,28 +209,13 @@ public boolean hasBOM(final ByteOrderMark bom) throws IOException {
      */
     public ByteOrderMark getBOM() throws IOException {
         if (firstBytes == null) {
-            fbLength = 0;
+            fbIndex = 0;
             // BOMs are sorted from longest to shortest
-            final int maxBomSize = boms.get(0).length();
-            firstBytes = new int[maxBomSize];
-            // Read first maxBomSize bytes
-            for (int i = 0; i < firstBytes.length; i++) {
-                firstBytes[i] = in.read();
-                fbLength++;
-                if (firstBytes[i] < 0) {
-                    break;
-                }
-            }
-            // match BOM in firstBytes
-            byteOrderMark = find();
-            if (byteOrderMark != null) {
-                if (!include) {
-                    if (byteOrderMark.length() < firstBytes.length) {
-                        fbIndex = byteOrderMark.length();
-                    } else {
-                        fbLength = 0;
-                    }
-                }
+            firstBytes = new byte[boms.get(0).length()];
+            fbLength = IOUtils.read(in, firstBytes);
+            byteOrderMark = find(boms, firstBytes, fbLength);
+            if (byteOrderMark != null && !include) {
+                fbIndex = byteOrderMark.length();
             }
         }
         return byteOrderMark;
@@ -244,27 +235,28 @@ public String getBOMCharsetName() throws IOException {
     }
 
     /**
-     * This method reads and either preserves or skips the first bytes in the stream. It behaves like the single-byte
-     * <code>read()</code> method, either returning a valid byte or -1 to indicate that the initial bytes have been
-     * processed already.
+     * Tests whether all the first bytes have been returned or skipped, after which reads pass straight through.
      *
-     * @return the byte read (excluding BOM) or -1 if the end of stream
-     * @throws IOException
-     *             if an I/O error occurs
+     * @return true once the first bytes have been consumed
      */
-    private int readFirstBytes() throws IOException {
-        getBOM();
-        return fbIndex < fbLength ? firstBytes[fbIndex++] : EOF;
+    private boolean firstBytesConsumed() {
+        return firstBytes != null && fbIndex >= fbLength;
     }
 
     /**
-     * Find a BOM with the specified bytes.
+     * Find the first BOM that the given bytes start with.
      *
+     * @param boms
+     *            The BOMs to look for, longest first
+     * @param bytes
+     *            The first bytes of a stream
+     * @param length
+     *            The number of valid bytes
      * @return The matched BOM or null if none matched
      */
-    private ByteOrderMark find() {
+    static ByteOrderMark find(final List<ByteOrderMark> boms, final byte[] bytes, final int length) {
         for (final ByteOrderMark bom : boms) {
-            if (matches(bom)) {
+            if (matches(bom, bytes, length)) {
                 return bom;
             }
         }
@@ -272,19 +264,23 @@ private ByteOrderMark find() {
     }
 
     /**
-     * Check if the bytes match a BOM.
+     * Check if the bytes start with a BOM.
      *
      * @param bom
      *            The BOM
+     * @param bytes
+     *            The first bytes of a stream, may be longer than the BOM
+     * @param length
+     *            The number of valid bytes
      * @return true if the bytes match the bom, otherwise false
      */
-    private boolean matches(final ByteOrderMark bom) {
-        // if (bom.length() != fbLength) {
-        // return false;
-        // }
-        // firstBytes may be bigger than the BOM bytes
-        for (int i = 0; i < bom.length(); i++) {
-            if (bom.get(i) != firstBytes[i]) {
+    private static boolean matches(final ByteOrderMark bom, final byte[] bytes, final int length) {
+        final int bomLength = bom.length();
+        if (bomLength > length) {
+            return false;
+        }
+        for (int i = 0; i < bomLength; i++) {
+            if (bom.get(i) != (bytes[i] & 0xFF)) {
                 return false;
             }
         }
@@ -304,8 +300,13 @@ private boolean matches(final ByteOrderMark bom) {
      */
     @Override
     public int read() throws IOException {
-        final int b = readFirstBytes();
-        return b >= 0 ? b : in.read();
+        if (!firstBytesConsumed()) {
+            getBOM();
+            if (fbIndex < fbLength) {
+                return firstBytes[fbIndex++] & 0xFF;
+            }
+        }
+        return in.read();
     }
 
     /**
@@ -322,18 +323,15 @@ public int read() throws IOException {
      *             if an I/O error occurs
      */
     @Override
-    public int read(final byte[] buf, int off, int len) throws IOException {
-        int firstCount = 0;
-        int b = 0;
-        while (len > 0 && b >= 0) {
-            b = readFirstBytes();
-            if (b >= 0) {
-                buf[off++] = (byte) (b & 0xFF);
-                len--;
-                firstCount++;
-            }
+    public int read(final byte[] buf, final int off, final int len) throws IOException {
+        if (firstBytesConsumed()) {
+            return in.read(buf, off, len);
         }
-        final int secondCount = in.read(buf, off, len);
+        getBOM();
+        final int firstCount = Math.min(len, fbLength - fbIndex);
+        System.arraycopy(firstBytes, fbIndex, buf, off, firstCount);
+        fbIndex += firstCount;
+        final int secondCount = in.read(buf, off + firstCount, len - firstCount);
         return secondCount < 0 ? firstCount > 0 ? firstCount : EOF : firstCount + secondCount;
     }
 
@@ -391,10 +389,12 @@ public synchronized void reset() throws IOException {
      */
     @Override
     public long skip(final long n) throws IOException {
-        int skipped = 0;
-        while ((n > skipped) && (readFirstBytes() >= 0)) {
-            skipped++;
+        if (firstBytesConsumed() || n <= 0) {
+            return in.skip(n);
         }
+        getBOM();
+        final int skipped = (int) Math.min(n, fbLength - fbIndex);
+        fbIndex += skipped;
         return in.skip(n - skipped) + skipped;
     }
 }
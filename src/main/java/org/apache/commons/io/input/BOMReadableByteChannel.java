@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.io.ByteOrderMark;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A {@link ReadableByteChannel} that detects a {@link ByteOrderMark} at the start of a channel and optionally skips
+ * it, the channel counterpart of {@link BOMInputStream}.
+ * <p>
+ * The first bytes are read in one go when the BOM is first needed, which requires a blocking channel. Reads
+ * return the remaining first bytes on their own, then pass straight to the underlying channel.
+ * </p>
+ *
+ * @see BOMInputStream
+ * @since 2.9.0
+ */
+public class BOMReadableByteChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel;
+
+    private final boolean include;
+
+    /** BOMs are sorted from longest to shortest. */
+    private final List<ByteOrderMark> boms;
+
+    private ByteOrderMark byteOrderMark;
+
+    /** The first bytes not yet returned, null until read. */
+    private ByteBuffer firstBytes;
+
+    /**
+     * Constructs a new instance that detects and excludes a {@link ByteOrderMark#UTF_8} BOM.
+     *
+     * @param channel the channel to delegate to.
+     */
+    public BOMReadableByteChannel(final ReadableByteChannel channel) {
+        this(channel, false, ByteOrderMark.UTF_8);
+    }
+
+    /**
+     * Constructs a new instance that detects the specified BOMs and optionally includes them.
+     *
+     * @param channel the channel to delegate to.
+     * @param include true to include the detected BOM or false to exclude it.
+     * @param boms the BOMs to detect.
+     * @throws IllegalArgumentException if no BOM is given.
+     */
+    public BOMReadableByteChannel(final ReadableByteChannel channel, final boolean include,
+        final ByteOrderMark... boms) {
+        this.channel = Objects.requireNonNull(channel, "channel");
+        if (IOUtils.length(boms) == 0) {
+            throw new IllegalArgumentException("No BOMs specified");
+        }
+        this.include = include;
+        final ByteOrderMark[] sorted = boms.clone();
+        Arrays.sort(sorted, BOMInputStream.ByteOrderMarkLengthComparator);
+        this.boms = Arrays.asList(sorted);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Gets the BOM, reading the first bytes of the channel if needed.
+     *
+     * @return the BOM or null if none.
+     * @throws IOException if an error reading the first bytes of the channel occurs.
+     */
+    public ByteOrderMark getBOM() throws IOException {
+        if (firstBytes == null) {
+            final byte[] bytes = new byte[boms.get(0).length()];
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            final int length = IOUtils.read(channel, buffer);
+            byteOrderMark = BOMInputStream.find(boms, bytes, length);
+            final int start = byteOrderMark != null && !include ? byteOrderMark.length() : 0;
+            firstBytes = ByteBuffer.wrap(bytes, start, length - start);
+        }
+        return byteOrderMark;
+    }
+
+    /**
+     * Gets the charset name of the BOM.
+     *
+     * @return the charset name or null if no BOM was found.
+     * @throws IOException if an error reading the first bytes of the channel occurs.
+     */
+    public String getBOMCharsetName() throws IOException {
+        getBOM();
+        return byteOrderMark == null ? null : byteOrderMark.getCharsetName();
+    }
+
+    /**
+     * Tests whether the channel starts with one of the BOMs.
+     *
+     * @return whether a BOM was found.
+     * @throws IOException if an error reading the first bytes of the channel occurs.
+     */
+    public boolean hasBOM() throws IOException {
+        return getBOM() != null;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        if (firstBytes == null) {
+            getBOM();
+        }
+        if (!firstBytes.hasRemaining()) {
+            return channel.read(dst);
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        final int n = Math.min(dst.remaining(), firstBytes.remaining());
+        final int limit = firstBytes.limit();
+        firstBytes.limit(firstBytes.position() + n);
+        dst.put(firstBytes);
+        firstBytes.limit(limit);
+        return n;
+    }
+}
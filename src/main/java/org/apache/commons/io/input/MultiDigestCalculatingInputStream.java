@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.apache.commons.io.IOUtils.EOF;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.MultiDigest;
+
+/**
+ * An input stream that updates several message digests and checksums with the bytes read, in one pass over each
+ * buffer.
+ * <p>
+ * Unlike stacking one {@link MessageDigestCalculatingInputStream} per algorithm, this stream has no observer
+ * dispatch: each read updates the {@link MultiDigest} directly from the caller's buffer. Skipped bytes are read and
+ * digested too. Bytes read again after {@link #reset()} are digested again.
+ * </p>
+ * <p>
+ * <em>Note</em>: The digests only reflect the data read so far; read the stream to its end, for example with
+ * {@link #consume()}, before using them.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class MultiDigestCalculatingInputStream extends ProxyInputStream {
+
+    private final MultiDigest digest;
+
+    /** Lazily allocated buffer for {@link #skip(long)}. */
+    private byte[] skipBuffer;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param inputStream the stream to calculate the digests for.
+     * @param digest the digests to update.
+     */
+    public MultiDigestCalculatingInputStream(final InputStream inputStream, final MultiDigest digest) {
+        super(inputStream);
+        this.digest = Objects.requireNonNull(digest, "digest");
+    }
+
+    /**
+     * Constructs a new instance with a message digest for each of the given algorithms.
+     *
+     * @param inputStream the stream to calculate the digests for.
+     * @param algorithms the names of the message digest algorithms.
+     * @throws NoSuchAlgorithmException if no provider supports one of the algorithms.
+     */
+    public MultiDigestCalculatingInputStream(final InputStream inputStream, final String... algorithms)
+        throws NoSuchAlgorithmException {
+        this(inputStream, MultiDigest.of(algorithms));
+    }
+
+    /**
+     * Reads all the data from this stream, updating the digests, and ignores it.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void consume() throws IOException {
+        final byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        while (read(buffer) != EOF) {
+            // consume
+        }
+    }
+
+    /**
+     * Gets the digests updated by this stream.
+     *
+     * @return the digests.
+     */
+    public MultiDigest getMultiDigest() {
+        return digest;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != EOF) {
+            digest.update(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            digest.update(b, off, n);
+        }
+        return n;
+    }
+
+    /**
+     * Reads and digests the bytes to skip.
+     *
+     * @param n the number of bytes to skip.
+     * @return the number of bytes skipped.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        if (skipBuffer == null) {
+            skipBuffer = new byte[(int) Math.min(n, IOUtils.DEFAULT_BUFFER_SIZE)];
+        }
+        long remaining = n;
+        while (remaining > 0) {
+            final int count = read(skipBuffer, 0, (int) Math.min(remaining, skipBuffer.length));
+            if (count == EOF) {
+                break;
+            }
+            remaining -= count;
+        }
+        return n - remaining;
+    }
+}
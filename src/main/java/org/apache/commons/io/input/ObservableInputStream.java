@@ -34,7 +34,15 @@
  * as instances of InputStream usually aren't.
  * If you must access the stream from multiple threads, then synchronization, locking,
  * or a similar means must be used.
+ * <p>
+ * Single byte reads notify {@link Observer#data(int)} for every byte. Streams constructed with a byte batch size
+ * instead collect the bytes of single byte reads and pass them to {@link Observer#data(byte[], int, int)} once the
+ * batch is full, before any other notification, and when {@link #flushObservers()} is called. A batch that is
+ * pending when observers are added or removed goes to the observers present while it was collected, on the next
+ * read, on close, or on {@link #flushObservers()}.
+ * </p>
  * @see MessageDigestCalculatingInputStream
+ * @see ThroughputObserver
  */
 public class ObservableInputStream extends ProxyInputStream {
 
@@ -93,54 +101,159 @@ public void closed() throws IOException {
          * @throws IOException if an i/o-error occurs
          */
         public void error(final IOException pException) throws IOException { throw pException; }
+
+        /**
+         * Tests whether this observer wants {@link #readTime(long)} notifications. The stream only measures the
+         * duration of reads while it has at least one such observer. The value must not change while the observer
+         * is added.
+         * @return whether to call {@link #readTime(long)}, false by default
+         * @since 2.9.0
+         */
+        public boolean isTimingReads() {
+            return false;
+        }
+
+        /**
+         * Called after each read of the underlying stream with the time the read took, before the data, finished
+         * or error notification of that read.
+         * @param nanos the duration of the read in nanoseconds
+         * @throws IOException if an i/o-error occurs
+         * @since 2.9.0
+         */
+        public void readTime(final long nanos) throws IOException {
+            // noop
+        }
     }
 
     private final List<Observer> observers = new ArrayList<>();
 
+    /** Collects the bytes of single byte reads, null if not batching. */
+    private final byte[] byteBatch;
+
+    private int byteBatchCount;
+
+    /** The observers of the pending batch, null if they have not changed since it was started. */
+    private List<Observer> byteBatchObservers;
+
+    /** Whether an observer wants read times. */
+    private boolean timingReads;
+
     /**
      * Creates a new ObservableInputStream for the given InputStream.
      * @param pProxy the input stream to proxy
      */
     public ObservableInputStream(final InputStream pProxy) {
         super(pProxy);
+        this.byteBatch = null;
+    }
+
+    /**
+     * Creates a new ObservableInputStream for the given InputStream that notifies the bytes of single byte reads
+     * in batches.
+     * @param pProxy the input stream to proxy
+     * @param byteBatchSize the number of bytes of single byte reads to collect before notifying the observers
+     * @throws IllegalArgumentException if {@code byteBatchSize} is not positive
+     * @since 2.9.0
+     */
+    public ObservableInputStream(final InputStream pProxy, final int byteBatchSize) {
+        super(pProxy);
+        if (byteBatchSize <= 0) {
+            throw new IllegalArgumentException("Byte batch size must be positive: " + byteBatchSize);
+        }
+        this.byteBatch = new byte[byteBatchSize];
     }
 
     /**
-     * Adds an Observer.
+     * Adds an Observer. The observer is not notified of the bytes of a pending batch.
      * @param pObserver the observer to add
      */
     public void add(final Observer pObserver) {
+        keepByteBatchObservers();
         observers.add(pObserver);
+        timingReads |= pObserver.isTimingReads();
     }
 
     /**
-     * Removes an Observer.
+     * Removes an Observer. The observer is still notified of the bytes of a pending batch.
      * @param pObserver the observer to remove
      */
     public void remove(final Observer pObserver) {
+        keepByteBatchObservers();
         observers.remove(pObserver);
+        timingReads = false;
+        for (final Observer observer : observers) {
+            timingReads |= observer.isTimingReads();
+        }
     }
 
     /**
-     * Removes all Observers.
+     * Removes all Observers. They are still notified of the bytes of a pending batch.
      */
     public void removeAllObservers() {
+        keepByteBatchObservers();
         observers.clear();
+        timingReads = false;
+    }
+
+    /**
+     * Notifies the observers of the bytes of single byte reads collected so far, if this stream batches them.
+     * @throws IOException Some observer has thrown an exception, which is being
+     *   passed down.
+     * @since 2.9.0
+     */
+    public void flushObservers() throws IOException {
+        if (byteBatchCount > 0) {
+            final int count = byteBatchCount;
+            final List<Observer> list = byteBatchObservers;
+            byteBatchCount = 0;
+            byteBatchObservers = null;
+            if (list == null) {
+                noteDataBytes(byteBatch, 0, count);
+            } else {
+                for (final Observer observer : list) {
+                    observer.data(byteBatch, 0, count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remembers the observers of the pending batch before they change.
+     */
+    private void keepByteBatchObservers() {
+        if (byteBatchCount > 0 && byteBatchObservers == null) {
+            byteBatchObservers = new ArrayList<>(getObservers());
+        }
     }
 
     @Override
     public int read() throws IOException {
         int result = 0;
         IOException ioe = null;
+        final long start = timingReads ? System.nanoTime() : 0;
         try {
             result = super.read();
         } catch (final IOException pException) {
             ioe = pException;
         }
+        if (timingReads) {
+            noteReadTime(System.nanoTime() - start);
+        }
         if (ioe != null) {
+            flushObservers();
             noteError(ioe);
         } else if (result == -1) {
+            flushObservers();
             noteFinished();
+        } else if (byteBatch != null) {
+            if (byteBatchObservers != null) {
+                // the observers changed: this byte starts a new batch
+                flushObservers();
+            }
+            byteBatch[byteBatchCount++] = (byte) result;
+            if (byteBatchCount == byteBatch.length) {
+                flushObservers();
+            }
         } else {
             noteDataByte(result);
         }
@@ -151,11 +264,16 @@ public int read() throws IOException {
     public int read(final byte[] pBuffer) throws IOException {
         int result = 0;
         IOException ioe = null;
+        final long start = timingReads ? System.nanoTime() : 0;
         try {
             result = super.read(pBuffer);
         } catch (final IOException pException) {
             ioe = pException;
         }
+        if (timingReads) {
+            noteReadTime(System.nanoTime() - start);
+        }
+        flushObservers();
         if (ioe != null) {
             noteError(ioe);
         } else if (result == -1) {
@@ -170,11 +288,16 @@ public int read(final byte[] pBuffer) throws IOException {
     public int read(final byte[] pBuffer, final int pOffset, final int pLength) throws IOException {
         int result = 0;
         IOException ioe = null;
+        final long start = timingReads ? System.nanoTime() : 0;
         try {
             result = super.read(pBuffer, pOffset, pLength);
         } catch (final IOException pException) {
             ioe = pException;
         }
+        if (timingReads) {
+            noteReadTime(System.nanoTime() - start);
+        }
+        flushObservers();
         if (ioe != null) {
             noteError(ioe);
         } else if (result == -1) {
@@ -194,8 +317,11 @@ public int read(final byte[] pBuffer, final int pOffset, final int pLength) thro
      *   passed down.
      */
     protected void noteDataBytes(final byte[] pBuffer, final int pOffset, final int pLength) throws IOException {
-        for (final Observer observer : getObservers()) {
-            observer.data(pBuffer, pOffset, pLength);
+        final List<Observer> list = getObservers();
+        // indexed to avoid an iterator per notification
+        final int size = list.size();
+        for (int i = 0; i < size; i++) {
+            list.get(i).data(pBuffer, pOffset, pLength);
         }
     }
 
@@ -204,8 +330,10 @@ protected void noteDataBytes(final byte[] pBuffer, final int pOffset, final int
      *   passed down.
      */
     protected void noteFinished() throws IOException {
-        for (final Observer observer : getObservers()) {
-            observer.finished();
+        final List<Observer> list = getObservers();
+        final int size = list.size();
+        for (int i = 0; i < size; i++) {
+            list.get(i).finished();
         }
     }
 
@@ -216,8 +344,10 @@ protected void noteFinished() throws IOException {
      *   passed down.
      */
     protected void noteDataByte(final int pDataByte) throws IOException {
-        for (final Observer observer : getObservers()) {
-            observer.data(pDataByte);
+        final List<Observer> list = getObservers();
+        final int size = list.size();
+        for (int i = 0; i < size; i++) {
+            list.get(i).data(pDataByte);
         }
     }
 
@@ -229,8 +359,10 @@ protected void noteDataByte(final int pDataByte) throws IOException {
      *   argument.
      */
     protected void noteError(final IOException pException) throws IOException {
-        for (final Observer observer : getObservers()) {
-            observer.error(pException);
+        final List<Observer> list = getObservers();
+        final int size = list.size();
+        for (int i = 0; i < size; i++) {
+            list.get(i).error(pException);
         }
     }
 
@@ -239,8 +371,27 @@ protected void noteError(final IOException pException) throws IOException {
      *   passed down.
      */
     protected void noteClosed() throws IOException {
-        for (final Observer observer : getObservers()) {
-            observer.closed();
+        final List<Observer> list = getObservers();
+        final int size = list.size();
+        for (int i = 0; i < size; i++) {
+            list.get(i).closed();
+        }
+    }
+
+    /** Notifies the observers that want read times by invoking {@link Observer#readTime(long)}.
+     * @param nanos Passed to the observers.
+     * @throws IOException Some observer has thrown an exception, which is being
+     *   passed down.
+     * @since 2.9.0
+     */
+    protected void noteReadTime(final long nanos) throws IOException {
+        final List<Observer> list = getObservers();
+        final int size = list.size();
+        for (int i = 0; i < size; i++) {
+            final Observer observer = list.get(i);
+            if (observer.isTimingReads()) {
+                observer.readTime(nanos);
+            }
         }
     }
 
@@ -259,6 +410,7 @@ public void close() throws IOException {
         } catch (final IOException e) {
             ioe = e;
         }
+        flushObservers();
         if (ioe == null) {
             noteClosed();
         } else {
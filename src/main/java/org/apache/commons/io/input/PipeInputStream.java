@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.apache.commons.io.IOUtils.EOF;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+import org.apache.commons.io.input.buffer.ConcurrentCircularByteBuffer;
+import org.apache.commons.io.output.PipeOutputStream;
+
+/**
+ * The reading end of a pipe backed by a lock-free {@link ConcurrentCircularByteBuffer}, an alternative to
+ * {@link java.io.PipedInputStream} for moving bytes from one thread to another.
+ * <p>
+ * Exactly one thread may read from this stream while exactly one other thread writes to the matching
+ * {@link PipeOutputStream}:
+ * </p>
+ * <pre>
+ * final PipeInputStream in = new PipeInputStream();
+ * final PipeOutputStream out = in.newPipeOutputStream();
+ * executor.submit(() -&gt; { try (OutputStream o = out) { produce(o); } return null; });
+ * consume(in);
+ * </pre>
+ * <p>
+ * Reads block until data is available and return {@link org.apache.commons.io.IOUtils#EOF EOF} once the
+ * output stream has been closed and all its bytes have been read.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class PipeInputStream extends InputStream {
+
+    private final ConcurrentCircularByteBuffer buffer;
+
+    private final byte[] single = new byte[1];
+
+    /**
+     * Constructs a new instance with a buffer of default size.
+     */
+    public PipeInputStream() {
+        this(new ConcurrentCircularByteBuffer());
+    }
+
+    /**
+     * Constructs a new instance reading from the given buffer.
+     *
+     * @param buffer the buffer to read from.
+     */
+    public PipeInputStream(final ConcurrentCircularByteBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer, "buffer");
+    }
+
+    /**
+     * Creates a new output stream that writes to the buffer of this stream.
+     *
+     * @return a new output stream.
+     */
+    public PipeOutputStream newPipeOutputStream() {
+        return new PipeOutputStream(buffer);
+    }
+
+    @Override
+    public int read() throws IOException {
+        return buffer.take(single, 0, 1) == EOF ? EOF : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        return buffer.take(b, off, len);
+    }
+
+    @Override
+    public int available() {
+        return buffer.getCurrentNumberOfBytes();
+    }
+
+    /**
+     * Closes the reading end; further writes to the output stream fail.
+     */
+    @Override
+    public void close() {
+        buffer.closeConsumer();
+    }
+}
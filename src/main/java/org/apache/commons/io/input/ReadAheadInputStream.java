@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.apache.commons.io.IOUtils.EOF;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * An input stream that reads the underlying stream ahead of the consumer on a background thread.
+ * <p>
+ * The stream owns a fixed number of buffers. While the consumer drains one buffer, a worker fills the others
+ * from the underlying stream, so the latency of the underlying stream (decompression, network mounts) overlaps
+ * with the processing of the data already read. With the default of two buffers this is classic double
+ * buffering.
+ * </p>
+ * <p>
+ * The worker fills each buffer completely, or up to the end of the underlying stream, before handing it over.
+ * An exception thrown by the underlying stream is rethrown by the call of the consumer that reaches it, after
+ * the data read before the failure has been consumed.
+ * </p>
+ * <p>
+ * The worker runs on the given {@link Executor}, or on a dedicated daemon thread if none is given. It stops at the
+ * end of the underlying stream, on failure, or when this stream is closed. {@link #close()} closes the underlying
+ * stream while a read of it may be in progress, which unblocks the read for streams such as sockets and pipes, and
+ * then waits for the worker to stop.
+ * </p>
+ * <p>
+ * Like most streams, this class is not safe for use by several reading threads.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    /**
+     * A buffer and the position of the consumer in it.
+     */
+    private static final class Chunk {
+
+        final byte[] buffer;
+        final IOException exception;
+        int length;
+        int position;
+
+        Chunk(final byte[] buffer, final IOException exception) {
+            this.buffer = buffer;
+            this.exception = exception;
+        }
+
+        int remaining() {
+            return length - position;
+        }
+    }
+
+    /** The default number of buffers. */
+    public static final int DEFAULT_BUFFER_COUNT = 2;
+
+    /** Marks the end of the underlying stream. */
+    private static final Chunk END = new Chunk(null, null);
+
+    private static final int NEW = 0;
+
+    private static final int RUNNING = 1;
+
+    private static final int CANCELLED = 2;
+
+    private final InputStream in;
+
+    /** Empty buffers, filled by the worker. */
+    private final BlockingQueue<Chunk> free;
+
+    /** Filled buffers in stream order, drained by the consumer; one extra slot for {@link #END} or a failure. */
+    private final BlockingQueue<Chunk> filled;
+
+    private final AtomicInteger state = new AtomicInteger(NEW);
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /** Guards {@link #worker} so that an interrupt never leaks out of the worker task. */
+    private final Object workerLock = new Object();
+
+    private Thread worker;
+
+    /** The chunk being drained by the consumer. */
+    private Chunk current;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new instance with two buffers of {@link IOUtils#DEFAULT_BUFFER_SIZE} bytes, filled on a dedicated
+     * thread.
+     *
+     * @param in the stream to read ahead.
+     */
+    public ReadAheadInputStream(final InputStream in) {
+        this(in, IOUtils.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new instance with two buffers, filled on a dedicated thread.
+     *
+     * @param in the stream to read ahead.
+     * @param bufferSize the size of each buffer.
+     * @throws IllegalArgumentException if {@code bufferSize} is not positive.
+     */
+    public ReadAheadInputStream(final InputStream in, final int bufferSize) {
+        this(in, bufferSize, DEFAULT_BUFFER_COUNT, null);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param in the stream to read ahead.
+     * @param bufferSize the size of each buffer.
+     * @param bufferCount the number of buffers, at least two.
+     * @param executor the executor running the worker, or null to start a dedicated daemon thread.
+     * @throws IllegalArgumentException if {@code bufferSize} is not positive or {@code bufferCount} is less than two.
+     */
+    public ReadAheadInputStream(final InputStream in, final int bufferSize, final int bufferCount,
+        final Executor executor) {
+        this.in = Objects.requireNonNull(in, "in");
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        if (bufferCount < 2) {
+            throw new IllegalArgumentException("At least two buffers are needed: " + bufferCount);
+        }
+        this.free = new ArrayBlockingQueue<>(bufferCount);
+        this.filled = new ArrayBlockingQueue<>(bufferCount + 1);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(new Chunk(new byte[bufferSize], null));
+        }
+        if (executor == null) {
+            final Thread thread = new Thread(this::fill, "commons-io-read-ahead");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            executor.execute(this::fill);
+        }
+    }
+
+    /**
+     * Returns the number of bytes already read ahead; never blocks.
+     *
+     * @return the number of bytes that can be read without blocking.
+     * @throws IOException if this stream is closed.
+     */
+    @Override
+    public int available() throws IOException {
+        checkOpen();
+        long available = current == null ? 0 : current.remaining();
+        for (final Chunk chunk : filled) {
+            available += chunk.remaining();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, available);
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Stops the worker and closes the underlying stream, then waits for the worker to stop. The underlying stream
+     * is closed first so that a read of it blocked in the worker fails instead of holding up this call.
+     *
+     * @throws IOException if closing the underlying stream fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (state.compareAndSet(NEW, CANCELLED)) {
+            in.close();
+            filled.clear();
+            current = END;
+            return;
+        }
+        synchronized (workerLock) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+        try {
+            in.close();
+        } finally {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    stopped.await();
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            filled.clear();
+            current = END;
+        }
+    }
+
+    /**
+     * The worker task: fills free buffers in order until the end of the stream, a failure, or close.
+     */
+    private void fill() {
+        if (!state.compareAndSet(NEW, RUNNING)) {
+            return;
+        }
+        synchronized (workerLock) {
+            worker = Thread.currentThread();
+        }
+        try {
+            while (!closed) {
+                final Chunk chunk = free.take();
+                final int n = IOUtils.read(in, chunk.buffer);
+                chunk.length = n;
+                chunk.position = 0;
+                if (n > 0) {
+                    filled.put(chunk);
+                }
+                if (n < chunk.buffer.length) {
+                    filled.put(END);
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            // closing
+        } catch (final IOException e) {
+            fail(e);
+        } catch (final RuntimeException e) {
+            fail(new IOException(e));
+        } finally {
+            synchronized (workerLock) {
+                worker = null;
+            }
+            // clear an interrupt from close() so it does not leak into a pooled thread
+            Thread.interrupted();
+            stopped.countDown();
+        }
+    }
+
+    private void fail(final IOException e) {
+        if (!closed) {
+            // never blocks: at most every buffer plus this one are queued
+            filled.offer(new Chunk(null, e));
+        }
+    }
+
+    private boolean isDataReady() {
+        final Chunk next = filled.peek();
+        return next != null && next != END && next.exception == null;
+    }
+
+    /**
+     * Makes {@link #current} a chunk with remaining bytes, recycling the drained one.
+     *
+     * @return false at the end of the stream.
+     */
+    private boolean nextChunk() throws IOException {
+        checkOpen();
+        if (current == END) {
+            return false;
+        }
+        if (current != null) {
+            if (current.exception != null) {
+                throw current.exception;
+            }
+            if (current.remaining() > 0) {
+                return true;
+            }
+            free.add(current);
+            current = null;
+        }
+        final Chunk chunk;
+        try {
+            chunk = filled.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        current = chunk;
+        if (chunk.exception != null) {
+            throw chunk.exception;
+        }
+        return chunk != END;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final Chunk chunk = current;
+        if (chunk != null && chunk.remaining() > 0 && !closed) {
+            return chunk.buffer[chunk.position++] & 0xFF;
+        }
+        if (!nextChunk()) {
+            return EOF;
+        }
+        return current.buffer[current.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        Objects.requireNonNull(b, "b");
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException(String.format("offset=%,d, length=%,d", off, len));
+        }
+        if (len == 0) {
+            checkOpen();
+            return 0;
+        }
+        if (!nextChunk()) {
+            return EOF;
+        }
+        int total = 0;
+        do {
+            final Chunk chunk = current;
+            final int n = Math.min(len - total, chunk.remaining());
+            System.arraycopy(chunk.buffer, chunk.position, b, off + total, n);
+            chunk.position += n;
+            total += n;
+            // only continue with data that is ready so the caller is neither held up nor handed a failure
+        } while (total < len && isDataReady() && nextChunk());
+        return total;
+    }
+
+    /**
+     * Skips bytes by discarding data read ahead; the underlying stream is read, not skipped.
+     *
+     * @param n the number of bytes to skip.
+     * @return the number of bytes skipped, less than {@code n} only at the end of the stream.
+     * @throws IOException if this stream is closed or reading the underlying stream failed.
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n <= 0) {
+            checkOpen();
+            return 0;
+        }
+        long skipped = 0;
+        while (skipped < n && nextChunk()) {
+            final Chunk chunk = current;
+            final int k = (int) Math.min(n - skipped, chunk.remaining());
+            chunk.position += k;
+            skipped += k;
+        }
+        return skipped;
+    }
+}
@@ -27,8 +27,11 @@
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
+import org.apache.commons.io.IOUtils;
+
 /**
  * {@link InputStream} implementation that reads a character stream from a {@link Reader}
  * and transforms it to a byte stream using a specified charset encoding. The stream
@@ -72,6 +75,11 @@
  * will always return 0. Also, this class doesn't support {@link InputStream#mark(int)}.
  * </p>
  * <p>
+ * Reads of at least {@value #MIN_DIRECT_LENGTH} bytes are encoded straight into the caller's array. For US-ASCII,
+ * ISO-8859-1 and UTF-8, runs of characters that map to a single byte are copied without the encoder.
+ * {@link #reset(Reader)} lets an instance, and its buffers, be reused for another reader.
+ * </p>
+ * <p>
  * Instances of {@link ReaderInputStream} are not thread safe.
  * </p>
  *
@@ -80,11 +88,23 @@
  * @since 2.0
  */
 public class ReaderInputStream extends InputStream {
-    private static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final int DEFAULT_BUFFER_SIZE = IOUtils.DEFAULT_BUFFER_SIZE;
+
+    /** The size of the encoder output buffer, used for reads too short to encode into directly. */
+    private static final int ENCODER_OUT_SIZE = 1024;
+
+    /** The minimum length of a read encoded directly into the caller's array. */
+    private static final int MIN_DIRECT_LENGTH = 128;
 
-    private final Reader reader;
+    private Reader reader;
     private final CharsetEncoder encoder;
 
+    /**
+     * The first character that the fast path does not copy as a byte: 0x80 for US-ASCII and UTF-8, 0x100 for
+     * ISO-8859-1, 0 to always use the encoder.
+     */
+    private final int singleByteLimit;
+
     /**
      * CharBuffer used as input for the decoder. It should be reasonably
      * large as we read data from the underlying Reader into this buffer.
@@ -94,7 +114,8 @@ public class ReaderInputStream extends InputStream {
     /**
      * ByteBuffer used as output for the decoder. This buffer can be small
      * as it is only used to transfer data from the decoder to the
-     * buffer provided by the caller.
+     * buffer provided by the caller, when that buffer is too short to
+     * encode into directly.
      */
     private final ByteBuffer encoderOut;
 
@@ -123,12 +144,20 @@ public ReaderInputStream(final Reader reader, final CharsetEncoder encoder) {
     public ReaderInputStream(final Reader reader, final CharsetEncoder encoder, final int bufferSize) {
         this.reader = reader;
         this.encoder = encoder;
+        this.singleByteLimit = singleByteLimit(encoder.charset());
         this.encoderIn = CharBuffer.allocate(bufferSize);
         this.encoderIn.flip();
-        this.encoderOut = ByteBuffer.allocate(128);
+        this.encoderOut = ByteBuffer.allocate(ENCODER_OUT_SIZE);
         this.encoderOut.flip();
     }
 
+    private static int singleByteLimit(final Charset charset) {
+        if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.UTF_8.equals(charset)) {
+            return 0x80;
+        }
+        return StandardCharsets.ISO_8859_1.equals(charset) ? 0x100 : 0;
+    }
+
     /**
      * Construct a new {@link ReaderInputStream}.
      *
@@ -190,12 +219,14 @@ public ReaderInputStream(final Reader reader) {
     }
 
     /**
-     * Fills the internal char buffer from the reader.
+     * Fills the internal char buffer from the reader if the encoder needs more input, then encodes into the given
+     * buffer.
      *
+     * @param out the buffer to encode into, ready for writing
      * @throws IOException
      *             If an I/O error occurs
      */
-    private void fillBuffer() throws IOException {
+    private void encode(final ByteBuffer out) throws IOException {
         if (!endOfInput && (lastCoderResult == null || lastCoderResult.isUnderflow())) {
             encoderIn.compact();
             final int position = encoderIn.position();
@@ -210,8 +241,40 @@ private void fillBuffer() throws IOException {
             }
             encoderIn.flip();
         }
+        if (singleByteLimit != 0) {
+            encodeSingleBytes(out);
+        }
+        lastCoderResult = encoder.encode(encoderIn, out, endOfInput);
+    }
+
+    /**
+     * Copies the leading run of characters that encode to a single byte of the same value, bypassing the encoder.
+     *
+     * @param out the buffer to encode into, ready for writing
+     */
+    private void encodeSingleBytes(final ByteBuffer out) {
+        final char[] src = encoderIn.array();
+        final byte[] dst = out.array();
+        int i = encoderIn.position();
+        int j = out.arrayOffset() + out.position();
+        final int n = Math.min(encoderIn.remaining(), out.remaining());
+        final int end = i + n;
+        while (i < end && src[i] < singleByteLimit) {
+            dst[j++] = (byte) src[i++];
+        }
+        out.position(j - out.arrayOffset());
+        encoderIn.position(i);
+    }
+
+    /**
+     * Fills the encoder output buffer.
+     *
+     * @throws IOException
+     *             If an I/O error occurs
+     */
+    private void fillBuffer() throws IOException {
         encoderOut.compact();
-        lastCoderResult = encoder.encode(encoderIn, encoderOut, endOfInput);
+        encode(encoderOut);
         encoderOut.flip();
     }
 
@@ -243,6 +306,16 @@ public int read(final byte[] array, int off, int len) throws IOException {
                 off += c;
                 len -= c;
                 read += c;
+            } else if (len >= MIN_DIRECT_LENGTH) {
+                final ByteBuffer out = ByteBuffer.wrap(array, off, len);
+                encode(out);
+                final int c = out.position() - off;
+                off += c;
+                len -= c;
+                read += c;
+                if (c == 0 && endOfInput) {
+                    break;
+                }
             } else {
                 fillBuffer();
                 if (endOfInput && !encoderOut.hasRemaining()) {
@@ -286,6 +359,24 @@ public int read() throws IOException {
         }
     }
 
+    /**
+     * Resets this stream to read from another reader, discarding any buffered data and resetting the encoder, so
+     * that the instance and its buffers can be reused, for example from a pool. The current reader is not closed.
+     *
+     * @param reader the new {@link Reader}
+     * @since 2.9.0
+     */
+    public void reset(final Reader reader) {
+        this.reader = reader;
+        encoder.reset();
+        encoderIn.clear();
+        encoderIn.flip();
+        encoderOut.clear();
+        encoderOut.flip();
+        lastCoderResult = null;
+        endOfInput = false;
+    }
+
     /**
      * Close the stream. This method will cause the underlying {@link Reader}
      * to be closed.
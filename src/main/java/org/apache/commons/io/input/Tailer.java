@@ -18,7 +18,6 @@
 
 import static org.apache.commons.io.IOUtils.EOF;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -27,6 +26,7 @@
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 
 /**
  * Simple implementation of the unix "tail -f" functionality.
@@ -512,7 +512,7 @@ public void stop() {
      * @throws java.io.IOException if an I/O error occurs.
      */
     private long readLines(final RandomAccessFile reader) throws IOException {
-        try (ByteArrayOutputStream lineBuf = new ByteArrayOutputStream(64)) {
+        try (UnsynchronizedByteArrayOutputStream lineBuf = new UnsynchronizedByteArrayOutputStream(64)) {
             long pos = reader.getFilePointer();
             long rePos = pos; // position to re-read
             int num;
@@ -523,7 +523,7 @@ private long readLines(final RandomAccessFile reader) throws IOException {
                     switch ( ch ) {
                         case '\n':
                             seenCR = false; // swallow CR before LF
-                            listener.handle(new String(lineBuf.toByteArray(), charset));
+                            listener.handle(lineBuf.toString(charset));
                             lineBuf.reset();
                             rePos = pos + i + 1;
                             break;
@@ -536,7 +536,7 @@ private long readLines(final RandomAccessFile reader) throws IOException {
                         default:
                             if (seenCR) {
                                 seenCR = false; // swallow final CR
-                                listener.handle(new String(lineBuf.toByteArray(), charset));
+                                listener.handle(lineBuf.toString(charset));
                                 lineBuf.reset();
                                 rePos = pos + i + 1;
                             }
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.io.input.ObservableInputStream.Observer;
+
+/**
+ * An {@link Observer} that measures the throughput of an {@link ObservableInputStream}: bytes read, bytes per
+ * second, a histogram of read latencies and the time spent in stalled reads.
+ * <p>
+ * The observer allocates nothing while the stream is read. It is updated by the reading thread only, and its
+ * getters may be called from any thread, for example by a metrics reporter.
+ * </p>
+ * <p>
+ * The latency histogram has {@value #BUCKETS} buckets with power of two bounds: bucket {@code i} counts the reads
+ * that took at least 2<sup>i</sup> and less than 2<sup>i+1</sup> nanoseconds, bucket 0 also counts reads that took
+ * no measurable time.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class ThroughputObserver extends Observer {
+
+    /** The number of buckets of the latency histogram. */
+    public static final int BUCKETS = 64;
+
+    /** The default duration from which a read counts as a stall. */
+    public static final long DEFAULT_STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long stallThresholdNanos;
+
+    // single writer: lazySet publishes the counters without the cost of a volatile write
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong readNanos = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong stallNanos = new AtomicLong();
+    private final AtomicLong firstReadStart = new AtomicLong();
+    private final AtomicLong lastReadEnd = new AtomicLong();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Constructs a new instance that counts reads of at least one millisecond as stalls.
+     */
+    public ThroughputObserver() {
+        this(DEFAULT_STALL_THRESHOLD_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param stallThreshold the duration from which a read counts as a stall.
+     * @param unit the unit of {@code stallThreshold}.
+     */
+    public ThroughputObserver(final long stallThreshold, final TimeUnit unit) {
+        this.stallThresholdNanos = unit.toNanos(stallThreshold);
+    }
+
+    private static void add(final AtomicLong counter, final long delta) {
+        counter.lazySet(counter.get() + delta);
+    }
+
+    @Override
+    public void data(final byte[] buffer, final int offset, final int length) {
+        add(bytes, length);
+    }
+
+    @Override
+    public void data(final int value) {
+        add(bytes, 1);
+    }
+
+    /**
+     * Gets the number of bytes read.
+     *
+     * @return the number of bytes read.
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Gets the average number of bytes read per second between the start of the first read and the end of the last
+     * one, including the time the reader spent between reads.
+     *
+     * @return the bytes per second, or 0 if nothing was measured.
+     */
+    public double getBytesPerSecond() {
+        final long elapsed = lastReadEnd.get() - firstReadStart.get();
+        return elapsed <= 0 ? 0 : bytes.get() * 1e9 / elapsed;
+    }
+
+    /**
+     * Gets a copy of the read latency histogram.
+     *
+     * @return an array of {@link #BUCKETS} read counts.
+     */
+    public long[] getLatencyHistogram() {
+        final long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = latencyHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets the average number of bytes per second of the underlying stream, counting only the time spent in reads.
+     *
+     * @return the bytes per second, or 0 if nothing was measured.
+     */
+    public double getReadBytesPerSecond() {
+        final long nanos = readNanos.get();
+        return nanos <= 0 ? 0 : bytes.get() * 1e9 / nanos;
+    }
+
+    /**
+     * Gets the total time spent in reads of the underlying stream.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getReadNanos() {
+        return readNanos.get();
+    }
+
+    /**
+     * Gets the number of reads of the underlying stream.
+     *
+     * @return the number of reads.
+     */
+    public long getReads() {
+        return reads.get();
+    }
+
+    /**
+     * Gets the number of reads that took at least the stall threshold.
+     *
+     * @return the number of stalls.
+     */
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    /**
+     * Gets the total time spent in reads that took at least the stall threshold.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getStallNanos() {
+        return stallNanos.get();
+    }
+
+    /**
+     * Returns true: this observer needs the duration of each read.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isTimingReads() {
+        return true;
+    }
+
+    @Override
+    public void readTime(final long nanos) {
+        final long now = System.nanoTime();
+        if (reads.get() == 0) {
+            firstReadStart.lazySet(now - nanos);
+        }
+        lastReadEnd.lazySet(now);
+        add(reads, 1);
+        add(readNanos, nanos);
+        final int bucket = nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+        latencyHistogram.lazySet(bucket, latencyHistogram.get(bucket) + 1);
+        if (nanos >= stallThresholdNanos) {
+            add(stalls, 1);
+            add(stallNanos, nanos);
+        }
+    }
+
+    /**
+     * Resets all the measurements. Must not be called while the observed stream is being read.
+     */
+    public void reset() {
+        bytes.set(0);
+        reads.set(0);
+        readNanos.set(0);
+        stalls.set(0);
+        stallNanos.set(0);
+        firstReadStart.set(0);
+        lastReadEnd.set(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            latencyHistogram.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [bytes=" + bytes + ", reads=" + reads + ", readNanos=" + readNanos
+            + ", stalls=" + stalls + ", stallNanos=" + stallNanos + "]";
+    }
+}
@@ -17,21 +17,25 @@
 package org.apache.commons.io.input;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.Charset;
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.ByteOrderMark;
@@ -70,8 +74,67 @@
  * @since 2.0
  */
 public class XmlStreamReader extends Reader {
+
+    /**
+     * The MIME type and charset parameter of an HTTP content type, parsed once and cached.
+     */
+    private static final class ContentType {
+
+        static ContentType of(final String httpContentType) {
+            ContentType contentType = CONTENT_TYPES.get(httpContentType);
+            if (contentType == null) {
+                contentType = new ContentType(httpContentType);
+                cache(CONTENT_TYPES, httpContentType, contentType);
+            }
+            return contentType;
+        }
+
+        final String mime;
+
+        final String encoding;
+
+        private ContentType(final String httpContentType) {
+            final int i = httpContentType.indexOf(';');
+            if (i == -1) {
+                this.mime = httpContentType.trim();
+                this.encoding = null;
+            } else {
+                this.mime = httpContentType.substring(0, i).trim();
+                this.encoding = parseCharset(httpContentType, i + 1);
+            }
+        }
+
+        /**
+         * Parses the charset parameter like the pattern {@code charset=["']?([.[^; "']]*)["']?}.
+         */
+        private static String parseCharset(final String httpContentType, final int from) {
+            final int i = httpContentType.indexOf("charset=", from);
+            if (i == -1) {
+                return null;
+            }
+            int start = i + "charset=".length();
+            if (start < httpContentType.length()) {
+                final char c = httpContentType.charAt(start);
+                if (c == '"' || c == '\'') {
+                    start++;
+                }
+            }
+            int end = start;
+            while (end < httpContentType.length() && "; \"'".indexOf(httpContentType.charAt(end)) == -1) {
+                end++;
+            }
+            return httpContentType.substring(start, end).toUpperCase(Locale.ROOT);
+        }
+    }
+
     private static final int BUFFER_SIZE = IOUtils.DEFAULT_BUFFER_SIZE;
 
+    /** The initial size of the buffer for the XML prolog. */
+    private static final int PROLOG_CHUNK_SIZE = 256;
+
+    /** The maximum number of entries of each cache. */
+    private static final int CACHE_SIZE = 64;
+
     private static final String UTF_8 = "UTF-8";
 
     private static final String US_ASCII = "US-ASCII";
@@ -110,6 +173,30 @@ public class XmlStreamReader extends Reader {
         new ByteOrderMark(EBCDIC,   0x4C, 0x6F, 0xA7, 0x94)
     };
 
+    /** The XML guess bytes, longest first. */
+    private static final List<ByteOrderMark> XML_GUESS_LIST;
+
+    static {
+        final ByteOrderMark[] sorted = XML_GUESS_BYTES.clone();
+        Arrays.sort(sorted, BOMInputStream.ByteOrderMarkLengthComparator);
+        XML_GUESS_LIST = Arrays.asList(sorted);
+    }
+
+    /** The encoded '&gt;' for each XML guess encoding supported by this JVM. */
+    private static final Map<String, byte[]> XML_GUESS_GT = new HashMap<>();
+
+    static {
+        for (final ByteOrderMark guess : XML_GUESS_BYTES) {
+            if (Charset.isSupported(guess.getCharsetName())) {
+                XML_GUESS_GT.put(guess.getCharsetName(), ">".getBytes(Charset.forName(guess.getCharsetName())));
+            }
+        }
+    }
+
+    private static final Map<String, Charset> CHARSETS = new ConcurrentHashMap<>();
+
+    private static final Map<String, ContentType> CONTENT_TYPES = new ConcurrentHashMap<>();
+
     private final Reader reader;
 
     private final String encoding;
@@ -223,9 +310,8 @@ public XmlStreamReader(final InputStream inputStream, final boolean lenient, fin
         Objects.requireNonNull(inputStream, "inputStream");
         this.defaultEncoding = defaultEncoding;
         final BOMInputStream bom = new BOMInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE), false, BOMS);
-        final BOMInputStream pis = new BOMInputStream(bom, true, XML_GUESS_BYTES);
-        this.encoding = doRawStream(bom, pis, lenient);
-        this.reader = new InputStreamReader(pis, encoding);
+        this.encoding = doRawStream(bom, lenient);
+        this.reader = new InputStreamReader(bom, charset(encoding));
     }
 
     /**
@@ -275,13 +361,12 @@ public XmlStreamReader(final URLConnection conn, final String defaultEncoding) t
         final String contentType = conn.getContentType();
         final InputStream inputStream = conn.getInputStream();
         final BOMInputStream bom = new BOMInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE), false, BOMS);
-        final BOMInputStream pis = new BOMInputStream(bom, true, XML_GUESS_BYTES);
         if (conn instanceof HttpURLConnection || contentType != null) {
-            this.encoding = processHttpStream(bom, pis, contentType, lenient);
+            this.encoding = processHttpStream(bom, contentType, lenient);
         } else {
-            this.encoding = doRawStream(bom, pis, lenient);
+            this.encoding = doRawStream(bom, lenient);
         }
-        this.reader = new InputStreamReader(pis, encoding);
+        this.reader = new InputStreamReader(bom, charset(encoding));
     }
 
     /**
@@ -345,9 +430,8 @@ public XmlStreamReader(final InputStream inputStream, final String httpContentTy
         Objects.requireNonNull(inputStream, "inputStream");
         this.defaultEncoding = defaultEncoding;
         final BOMInputStream bom = new BOMInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE), false, BOMS);
-        final BOMInputStream pis = new BOMInputStream(bom, true, XML_GUESS_BYTES);
-        this.encoding = processHttpStream(bom, pis, httpContentType, lenient);
-        this.reader = new InputStreamReader(pis, encoding);
+        this.encoding = processHttpStream(bom, httpContentType, lenient);
+        this.reader = new InputStreamReader(bom, charset(encoding));
     }
 
     /**
@@ -423,18 +507,17 @@ public void close() throws IOException {
     /**
      * Process the raw stream.
      *
-     * @param bom BOMInputStream to detect byte order marks
-     * @param pis BOMInputStream to guess XML encoding
+     * @param bom BOMInputStream to detect byte order marks and guess the XML encoding
      * @param lenient indicates if the charset encoding detection should be
      *        relaxed.
      * @return the encoding to be used
      * @throws IOException thrown if there is a problem reading the stream.
      */
-    private String doRawStream(final BOMInputStream bom, final BOMInputStream pis, final boolean lenient)
+    private String doRawStream(final BOMInputStream bom, final boolean lenient)
             throws IOException {
         final String bomEnc      = bom.getBOMCharsetName();
-        final String xmlGuessEnc = pis.getBOMCharsetName();
-        final String xmlEnc = getXmlProlog(pis, xmlGuessEnc);
+        final String xmlGuessEnc = getXmlGuessEncoding(bom);
+        final String xmlEnc = getXmlProlog(bom, xmlGuessEnc);
         try {
             return calculateRawEncoding(bomEnc, xmlGuessEnc, xmlEnc);
         } catch (final XmlStreamReaderException ex) {
@@ -448,19 +531,18 @@ private String doRawStream(final BOMInputStream bom, final BOMInputStream pis, f
     /**
      * Process a HTTP stream.
      *
-     * @param bom BOMInputStream to detect byte order marks
-     * @param pis BOMInputStream to guess XML encoding
+     * @param bom BOMInputStream to detect byte order marks and guess the XML encoding
      * @param httpContentType The HTTP content type
      * @param lenient indicates if the charset encoding detection should be
      *        relaxed.
      * @return the encoding to be used
      * @throws IOException thrown if there is a problem reading the stream.
      */
-    private String processHttpStream(final BOMInputStream bom, final BOMInputStream pis, final String httpContentType,
+    private String processHttpStream(final BOMInputStream bom, final String httpContentType,
         final boolean lenient) throws IOException {
         final String bomEnc = bom.getBOMCharsetName();
-        final String xmlGuessEnc = pis.getBOMCharsetName();
-        final String xmlEnc = getXmlProlog(pis, xmlGuessEnc);
+        final String xmlGuessEnc = getXmlGuessEncoding(bom);
+        final String xmlEnc = getXmlProlog(bom, xmlGuessEnc);
         try {
             return calculateHttpEncoding(httpContentType, bomEnc, xmlGuessEnc, xmlEnc, lenient);
         } catch (final XmlStreamReaderException ex) {
@@ -593,8 +675,9 @@ String calculateHttpEncoding(final String httpContentType,
         }
 
         // Determine mime/encoding content types from HTTP Content Type
-        final String cTMime = getContentTypeMime(httpContentType);
-        final String cTEnc  = getContentTypeEncoding(httpContentType);
+        final ContentType contentType = httpContentType == null ? null : ContentType.of(httpContentType);
+        final String cTMime = contentType == null ? null : contentType.mime;
+        final String cTEnc  = contentType == null ? null : contentType.encoding;
         final boolean appXml  = isAppXml(cTMime);
         final boolean textXml = isTextXml(cTMime);
 
@@ -658,22 +741,9 @@ String calculateHttpEncoding(final String httpContentType,
      * @return The mime content type
      */
     static String getContentTypeMime(final String httpContentType) {
-        String mime = null;
-        if (httpContentType != null) {
-            final int i = httpContentType.indexOf(";");
-            if (i >= 0) {
-                mime = httpContentType.substring(0, i);
-            } else {
-                mime = httpContentType;
-            }
-            mime = mime.trim();
-        }
-        return mime;
+        return httpContentType == null ? null : ContentType.of(httpContentType).mime;
     }
 
-    private static final Pattern CHARSET_PATTERN = Pattern
-            .compile("charset=[\"']?([.[^; \"']]*)[\"']?");
-
     /**
      * Returns charset parameter value, NULL if not present, NULL if
      * httpContentType is NULL.
@@ -682,17 +752,7 @@ static String getContentTypeMime(final String httpContentType) {
      * @return The content type encoding (upcased)
      */
     static String getContentTypeEncoding(final String httpContentType) {
-        String encoding = null;
-        if (httpContentType != null) {
-            final int i = httpContentType.indexOf(";");
-            if (i > -1) {
-                final String postMime = httpContentType.substring(i + 1);
-                final Matcher m = CHARSET_PATTERN.matcher(postMime);
-                encoding = m.find() ? m.group(1) : null;
-                encoding = encoding != null ? encoding.toUpperCase(Locale.ROOT) : null;
-            }
-        }
-        return encoding;
+        return httpContentType == null ? null : ContentType.of(httpContentType).encoding;
     }
 
     /**
@@ -702,8 +762,28 @@ static String getContentTypeEncoding(final String httpContentType) {
             "<\\?xml.*encoding[\\s]*=[\\s]*((?:\".[^\"]*\")|(?:'.[^']*'))",
             Pattern.MULTILINE);
 
+    /**
+     * Guesses the encoding from the bytes following the BOM, without consuming them.
+     *
+     * @param bom the stream positioned after the BOM.
+     * @return the guessed encoding, null if none.
+     * @throws IOException thrown if there is a problem reading the stream.
+     */
+    private static String getXmlGuessEncoding(final BOMInputStream bom) throws IOException {
+        final byte[] bytes = new byte[XML_GUESS_LIST.get(0).length()];
+        bom.mark(bytes.length);
+        final int length = IOUtils.read(bom, bytes);
+        bom.reset();
+        final ByteOrderMark guess = BOMInputStream.find(XML_GUESS_LIST, bytes, length);
+        return guess == null ? null : guess.getCharsetName();
+    }
+
     /**
      * Returns the encoding declared in the <?xml encoding=...?>, NULL if none.
+     * <p>
+     * Reads up to the first '&gt;', found by comparing code units on the raw bytes, then decodes only those
+     * bytes and scans them by hand with the semantics of {@link #ENCODING_PATTERN}.
+     * </p>
      *
      * @param inputStream InputStream to create the reader from.
      * @param guessedEnc guessed encoding
@@ -712,48 +792,137 @@ static String getContentTypeEncoding(final String httpContentType) {
      */
     private static String getXmlProlog(final InputStream inputStream, final String guessedEnc)
             throws IOException {
-        String encoding = null;
-        if (guessedEnc != null) {
-            final byte[] bytes = new byte[BUFFER_SIZE];
-            inputStream.mark(BUFFER_SIZE);
-            int offset = 0;
-            int max = BUFFER_SIZE;
-            int c = inputStream.read(bytes, offset, max);
-            int firstGT = -1;
-            String xmlProlog = ""; // avoid possible NPE warning (cannot happen; this just silences the warning)
-            while (c != -1 && firstGT == -1 && offset < BUFFER_SIZE) {
-                offset += c;
-                max -= c;
-                c = inputStream.read(bytes, offset, max);
-                xmlProlog = new String(bytes, 0, offset, guessedEnc);
-                firstGT = xmlProlog.indexOf('>');
+        if (guessedEnc == null) {
+            return null;
+        }
+        final byte[] gt = XML_GUESS_GT.get(guessedEnc);
+        if (gt == null) {
+            throw new UnsupportedEncodingException(guessedEnc);
+        }
+        // most prologs fit the first chunk, grow up to BUFFER_SIZE for the others
+        byte[] bytes = new byte[PROLOG_CHUNK_SIZE];
+        inputStream.mark(BUFFER_SIZE);
+        int length = 0;
+        int end = -1;
+        while (end == -1 && length < BUFFER_SIZE) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(BUFFER_SIZE, bytes.length * 2));
             }
-            if (firstGT == -1) {
-                if (c == -1) {
-                    throw new IOException("Unexpected end of XML stream");
-                }
-                throw new IOException(
-                        "XML prolog or ROOT element not found on first "
-                                + offset + " bytes");
+            final int n = inputStream.read(bytes, length, bytes.length - length);
+            if (n == IOUtils.EOF) {
+                throw new IOException("Unexpected end of XML stream");
             }
-            final int bytesRead = offset;
-            if (bytesRead > 0) {
-                inputStream.reset();
-                final BufferedReader bReader = new BufferedReader(new StringReader(
-                        xmlProlog.substring(0, firstGT + 1)));
-                final StringBuffer prolog = new StringBuffer();
-                String line;
-                while ((line = bReader.readLine()) != null) {
-                    prolog.append(line);
-                }
-                final Matcher m = ENCODING_PATTERN.matcher(prolog);
-                if (m.find()) {
-                    encoding = m.group(1).toUpperCase(Locale.ROOT);
-                    encoding = encoding.substring(1, encoding.length() - 1);
+            end = indexOfUnit(bytes, length - length % gt.length, length + n, gt);
+            length += n;
+        }
+        if (end == -1) {
+            throw new IOException("XML prolog or ROOT element not found on first " + length + " bytes");
+        }
+        inputStream.reset();
+        return getXmlPrologEncoding(new String(bytes, 0, end, charset(guessedEnc)));
+    }
+
+    /**
+     * Finds a code unit in bytes, looking only at positions aligned on the unit size.
+     *
+     * @param bytes the bytes to search.
+     * @param from the first position to look at, aligned on the unit size.
+     * @param to the end of the bytes.
+     * @param unit the encoded code unit.
+     * @return the position after the code unit, -1 if not found.
+     */
+    private static int indexOfUnit(final byte[] bytes, final int from, final int to, final byte[] unit) {
+        final int width = unit.length;
+        outer:
+        for (int i = from; i + width <= to; i += width) {
+            for (int j = 0; j < width; j++) {
+                if (bytes[i + j] != unit[j]) {
+                    continue outer;
                 }
             }
+            return i + width;
         }
-        return encoding;
+        return -1;
+    }
+
+    /**
+     * Returns the encoding declared in an XML prolog, like {@link #ENCODING_PATTERN} applied to the prolog without
+     * line terminators, but without regular expressions.
+     *
+     * @param prolog the prolog up to and including the first '&gt;'.
+     * @return the encoding (upcased), NULL if none.
+     */
+    static String getXmlPrologEncoding(final String prolog) {
+        final String text = prolog.indexOf('\n') == -1 && prolog.indexOf('\r') == -1 ? prolog
+            : prolog.replace("\r", "").replace("\n", "");
+        final int start = text.indexOf("<?xml");
+        if (start == -1) {
+            return null;
+        }
+        // the regular expression is greedy: the last 'encoding' followed by a quoted value wins
+        for (int i = text.lastIndexOf("encoding"); i >= start + 5; i = text.lastIndexOf("encoding", i - 1)) {
+            int pos = skipWhitespace(text, i + "encoding".length());
+            if (pos == text.length() || text.charAt(pos) != '=') {
+                continue;
+            }
+            pos = skipWhitespace(text, pos + 1);
+            if (pos == text.length()) {
+                continue;
+            }
+            final char quote = text.charAt(pos);
+            // the value has at least one character, which may be the quote itself
+            final int close = quote == '"' || quote == '\'' ? text.indexOf(quote, pos + 2) : -1;
+            if (close != -1) {
+                return text.substring(pos + 1, close).toUpperCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+
+    private static int skipWhitespace(final String text, int pos) {
+        while (pos < text.length()) {
+            switch (text.charAt(pos)) {
+            case ' ':
+            case '\t':
+            case '\u000B':
+            case '\f':
+                pos++;
+                break;
+            default:
+                return pos;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Looks up a charset, caching the result.
+     *
+     * @param name the charset name.
+     * @return the charset.
+     * @throws UnsupportedEncodingException if the charset is not supported or the name is not legal.
+     */
+    private static Charset charset(final String name) throws UnsupportedEncodingException {
+        Charset charset = CHARSETS.get(name);
+        if (charset == null) {
+            try {
+                charset = Charset.forName(name);
+            } catch (final IllegalArgumentException e) {
+                final UnsupportedEncodingException uee = new UnsupportedEncodingException(name);
+                uee.initCause(e);
+                throw uee;
+            }
+            cache(CHARSETS, name, charset);
+        }
+        return charset;
+    }
+
+    private static <V> void cache(final Map<String, V> cache, final String key, final V value) {
+        if (cache.size() >= CACHE_SIZE) {
+            // rare: content types vary little, start over rather than track usage
+            cache.clear();
+        }
+        cache.put(key, value);
     }
 
     /**
@@ -71,16 +71,11 @@ protected void fillBuffer() throws IOException {
         if (eofSeen) {
             return;
         }
-        int space = buffer.getSpace();
-        final byte[] buf = new byte[space];
-        while (space > 0) {
-            final int res = in.read(buf, 0, space);
-            if (res == -1) {
+        // read straight into the free space of the ring, no intermediate array
+        while (buffer.hasSpace()) {
+            if (buffer.add(in) == -1) {
                 eofSeen = true;
                 return;
-            } else if (res > 0) {
-                buffer.add(buf, 0, res);
-                space -= res;
             }
         }
     }
@@ -125,8 +120,8 @@ public int read(final byte[] targetBuffer, final int offset, final int length) t
             return -1;
         }
         final int result = Math.min(length, buffer.getCurrentNumberOfBytes());
-        for (int i = 0; i < result; i++) {
-            targetBuffer[offset + i] = buffer.read();
+        if (result > 0) {
+            buffer.read(targetBuffer, offset, result);
         }
         return result;
     }
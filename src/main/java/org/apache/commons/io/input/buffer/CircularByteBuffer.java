@@ -16,6 +16,9 @@
  */
 package org.apache.commons.io.input.buffer;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 import org.apache.commons.io.IOUtils;
@@ -103,16 +106,27 @@ public void read(final byte[] targetBuffer, final int targetOffset, final int le
             throw new IllegalStateException("Currently, there are only " + currentNumberOfBytes
                     + "in the buffer, not " + length);
         }
-        int offset = targetOffset;
-        for (int i = 0; i < length; i++) {
-            targetBuffer[offset++] = buffer[startOffset];
-            --currentNumberOfBytes;
-            if (++startOffset == buffer.length) {
-                startOffset = 0;
-            }
+        copyOut(targetBuffer, targetOffset, length);
+        currentNumberOfBytes -= length;
+        startOffset += length;
+        if (startOffset >= buffer.length) {
+            startOffset -= buffer.length;
         }
     }
 
+    /**
+     * Copies the next {@code length} bytes to the given array, without removing them.
+     *
+     * @param targetBuffer The byte array, where to store bytes.
+     * @param targetOffset The offset, where to store bytes in the byte array.
+     * @param length The number of bytes to copy, at most {@link #getCurrentNumberOfBytes()}.
+     */
+    private void copyOut(final byte[] targetBuffer, final int targetOffset, final int length) {
+        final int first = Math.min(length, buffer.length - startOffset);
+        System.arraycopy(buffer, startOffset, targetBuffer, targetOffset, first);
+        System.arraycopy(buffer, 0, targetBuffer, targetOffset + first, length - first);
+    }
+
     /**
      * Adds a new byte to the buffer, which will eventually be returned by following
      * invocations of {@link #read()}.
@@ -155,21 +169,42 @@ public boolean peek(final byte[] sourceBuffer, final int offset, final int lengt
         if (length < 0 || length > buffer.length) {
             throw new IllegalArgumentException("Invalid length: " + length);
         }
-        if (length < currentNumberOfBytes) {
+        if (length > currentNumberOfBytes) {
             return false;
         }
-        int localOffset = startOffset;
-        for (int i = 0; i < length; i++) {
-            if (buffer[localOffset] != sourceBuffer[i + offset]) {
+        // compare the two contiguous regions of the ring separately
+        final int first = Math.min(length, buffer.length - startOffset);
+        for (int i = 0; i < first; i++) {
+            if (buffer[startOffset + i] != sourceBuffer[offset + i]) {
                 return false;
             }
-            if (++localOffset == buffer.length) {
-                localOffset = 0;
+        }
+        for (int i = first; i < length; i++) {
+            if (buffer[i - first] != sourceBuffer[offset + i]) {
+                return false;
             }
         }
         return true;
     }
 
+    /**
+     * Copies the next bytes in the buffer, as many as fit, into the given byte
+     * buffer. No bytes are being removed from the buffer.
+     *
+     * @param target the byte buffer to copy to.
+     * @return the number of bytes copied.
+     * @throws NullPointerException The byte buffer {@code target} is null.
+     * @since 2.9.0
+     */
+    public int peek(final ByteBuffer target) {
+        Objects.requireNonNull(target, "target");
+        final int length = Math.min(target.remaining(), currentNumberOfBytes);
+        final int first = Math.min(length, buffer.length - startOffset);
+        target.put(buffer, startOffset, first);
+        target.put(buffer, 0, length - first);
+        return length;
+    }
+
     /**
      * Adds the given bytes to the buffer. This is the same as invoking {@link #add(byte)}
      * for the bytes at offsets {@code offset+0}, {@code offset+1}, ...,
@@ -194,13 +229,43 @@ public void add(final byte[] targetBuffer, final int offset, final int length) {
         if (currentNumberOfBytes + length > buffer.length) {
             throw new IllegalStateException("No space available");
         }
-        for (int i = 0; i < length; i++) {
-            buffer[endOffset] = targetBuffer[offset + i];
-            if (++endOffset == buffer.length) {
+        final int first = Math.min(length, buffer.length - endOffset);
+        System.arraycopy(targetBuffer, offset, buffer, endOffset, first);
+        System.arraycopy(targetBuffer, offset + first, buffer, 0, length - first);
+        endOffset += length;
+        if (endOffset >= buffer.length) {
+            endOffset -= buffer.length;
+        }
+        currentNumberOfBytes += length;
+    }
+
+    /**
+     * Adds bytes read from the given input stream to the buffer, reading them
+     * directly into the free space of the buffer. At most one read call is
+     * made, so fewer bytes than {@link #getSpace()} may be added.
+     *
+     * @param inputStream the input stream to read from.
+     * @return the number of bytes added, or {@link IOUtils#EOF} at the end of the input stream.
+     * @throws IOException if reading from the input stream fails.
+     * @throws NullPointerException The input stream is null.
+     * @since 2.9.0
+     */
+    public int add(final InputStream inputStream) throws IOException {
+        Objects.requireNonNull(inputStream, "inputStream");
+        if (currentNumberOfBytes == buffer.length) {
+            return 0;
+        }
+        // the free space up to the end of the array, or up to the start of the data when it wraps
+        final int contiguous = endOffset >= startOffset ? buffer.length - endOffset : startOffset - endOffset;
+        final int n = inputStream.read(buffer, endOffset, contiguous);
+        if (n > 0) {
+            endOffset += n;
+            if (endOffset == buffer.length) {
                 endOffset = 0;
             }
+            currentNumberOfBytes += n;
         }
-        currentNumberOfBytes += length;
+        return n;
     }
 
     /**
@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input.buffer;
+
+import static org.apache.commons.io.IOUtils.EOF;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A lock-free ring buffer of bytes for exactly one producer thread and one consumer thread.
+ * <p>
+ * Unlike {@link CircularByteBuffer}, which is not thread-safe, this buffer lets one thread {@link #put(byte[],
+ * int, int) put} bytes while another thread {@link #take(byte[], int, int) takes} them, without locks. The read
+ * and write cursors are only ever advanced by their own thread and are kept on separate cache lines, together with
+ * each thread's cached view of the other cursor, so the two threads do not contend. Data moves with at most two
+ * {@link System#arraycopy(Object, int, Object, int, int)} calls per operation.
+ * </p>
+ * <p>
+ * A thread that finds the buffer full (producer) or empty (consumer) spins for a configurable number of
+ * iterations, then parks until the other side makes progress or closes its end.
+ * </p>
+ * <p>
+ * {@link org.apache.commons.io.input.PipeInputStream} and {@link org.apache.commons.io.output.PipeOutputStream}
+ * expose the two ends as streams.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class ConcurrentCircularByteBuffer {
+
+    /** Number of longs between two cursors, 128 bytes to stay clear of adjacent cache line prefetching. */
+    private static final int PAD = 16;
+
+    /** Index of the read cursor, advanced by the consumer. */
+    private static final int HEAD = PAD;
+
+    /** Index of the consumer's last view of the write cursor, on the consumer's cache line. */
+    private static final int TAIL_CACHE = HEAD + 1;
+
+    /** Index of the write cursor, advanced by the producer. */
+    private static final int TAIL = 2 * PAD;
+
+    /** Index of the producer's last view of the read cursor, on the producer's cache line. */
+    private static final int HEAD_CACHE = TAIL + 1;
+
+    /** The default number of spins before parking. */
+    public static final int DEFAULT_SPINS = 100;
+
+    private final byte[] buffer;
+
+    private final int mask;
+
+    private final int spins;
+
+    /**
+     * The read and write cursors, each followed by its thread's view of the other cursor, padded apart. The fields
+     * below are written rarely, so the only lines written on every operation are the two cursor lines.
+     */
+    private final AtomicLongArray cursors = new AtomicLongArray(3 * PAD);
+
+    private volatile Thread parkedProducer;
+
+    private volatile Thread parkedConsumer;
+
+    private volatile boolean producerClosed;
+
+    private volatile boolean consumerClosed;
+
+    /**
+     * Creates a new instance with a reasonable default buffer size ({@link IOUtils#DEFAULT_BUFFER_SIZE}).
+     */
+    public ConcurrentCircularByteBuffer() {
+        this(IOUtils.DEFAULT_BUFFER_SIZE, DEFAULT_SPINS);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param size the size of buffer to create, rounded up to a power of two.
+     * @param spins the number of times a blocked thread checks for progress before parking.
+     * @throws IllegalArgumentException if {@code size} is not positive or greater than 2<sup>30</sup>, or
+     *         {@code spins} is negative.
+     */
+    public ConcurrentCircularByteBuffer(final int size, final int spins) {
+        if (size <= 0 || size > 1 << 30) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        if (spins < 0) {
+            throw new IllegalArgumentException("Negative spins: " + spins);
+        }
+        final int capacity = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+        this.buffer = new byte[capacity];
+        this.mask = capacity - 1;
+        this.spins = spins;
+    }
+
+    /**
+     * Adds as many of the given bytes as currently fit in the buffer without blocking. Must only be called by the
+     * producer thread.
+     *
+     * @param source the bytes to add.
+     * @param offset the offset of the first byte to add.
+     * @param length the maximum number of bytes to add.
+     * @return the number of bytes added, possibly zero.
+     * @throws IndexOutOfBoundsException if the offset and length do not fit the array.
+     */
+    public int offer(final byte[] source, final int offset, final int length) {
+        checkFromIndexSize(source, offset, length);
+        final long tail = cursors.get(TAIL);
+        long head = cursors.get(HEAD_CACHE);
+        int n = (int) Math.min(length, buffer.length - (tail - head));
+        if (n < length) {
+            head = cursors.get(HEAD);
+            cursors.lazySet(HEAD_CACHE, head);
+            n = (int) Math.min(length, buffer.length - (tail - head));
+        }
+        if (n == 0) {
+            return 0;
+        }
+        final int index = (int) tail & mask;
+        final int first = Math.min(n, buffer.length - index);
+        System.arraycopy(source, offset, buffer, index, first);
+        System.arraycopy(source, offset + first, buffer, 0, n - first);
+        cursors.set(TAIL, tail + n);
+        unpark(parkedConsumer);
+        return n;
+    }
+
+    /**
+     * Removes up to {@code length} bytes from the buffer without blocking. Must only be called by the consumer
+     * thread.
+     *
+     * @param target the array to store the bytes in.
+     * @param offset the offset at which to store the first byte.
+     * @param length the maximum number of bytes to remove.
+     * @return the number of bytes removed, possibly zero.
+     * @throws IndexOutOfBoundsException if the offset and length do not fit the array.
+     */
+    public int poll(final byte[] target, final int offset, final int length) {
+        checkFromIndexSize(target, offset, length);
+        final long head = cursors.get(HEAD);
+        long tail = cursors.get(TAIL_CACHE);
+        int n = (int) Math.min(length, tail - head);
+        if (n < length) {
+            tail = cursors.get(TAIL);
+            cursors.lazySet(TAIL_CACHE, tail);
+            n = (int) Math.min(length, tail - head);
+        }
+        if (n == 0) {
+            return 0;
+        }
+        final int index = (int) head & mask;
+        final int first = Math.min(n, buffer.length - index);
+        System.arraycopy(buffer, index, target, offset, first);
+        System.arraycopy(buffer, 0, target, offset + first, n - first);
+        cursors.set(HEAD, head + n);
+        unpark(parkedProducer);
+        return n;
+    }
+
+    /**
+     * Adds all the given bytes, waiting for space as needed. Must only be called by the producer thread.
+     *
+     * @param source the bytes to add.
+     * @param offset the offset of the first byte to add.
+     * @param length the number of bytes to add.
+     * @throws IOException if the producer or consumer end has been closed.
+     * @throws InterruptedIOException if the thread is interrupted while waiting.
+     * @throws IndexOutOfBoundsException if the offset and length do not fit the array.
+     */
+    public void put(final byte[] source, final int offset, final int length) throws IOException {
+        checkFromIndexSize(source, offset, length);
+        int pos = offset;
+        int remaining = length;
+        int spin = 0;
+        while (remaining > 0) {
+            if (producerClosed) {
+                throw new IOException("Producer end closed");
+            }
+            if (consumerClosed) {
+                throw new IOException("Consumer end closed");
+            }
+            final int n = offer(source, pos, remaining);
+            if (n > 0) {
+                pos += n;
+                remaining -= n;
+                spin = 0;
+            } else if (spin++ < spins) {
+                Thread.yield();
+            } else {
+                parkedProducer = Thread.currentThread();
+                // re-check after publishing ourselves so a concurrent take() cannot be missed
+                if (cursors.get(TAIL) - cursors.get(HEAD) == buffer.length && !consumerClosed) {
+                    LockSupport.park(this);
+                }
+                parkedProducer = null;
+                checkInterrupted();
+            }
+        }
+    }
+
+    /**
+     * Removes at least one and up to {@code length} bytes, waiting for data as needed. Must only be called by the
+     * consumer thread.
+     *
+     * @param target the array to store the bytes in.
+     * @param offset the offset at which to store the first byte.
+     * @param length the maximum number of bytes to remove.
+     * @return the number of bytes removed, or {@link IOUtils#EOF} if the buffer is empty and the producer end has
+     *         been closed.
+     * @throws IOException if the consumer end has been closed.
+     * @throws InterruptedIOException if the thread is interrupted while waiting.
+     * @throws IndexOutOfBoundsException if the offset and length do not fit the array.
+     */
+    public int take(final byte[] target, final int offset, final int length) throws IOException {
+        checkFromIndexSize(target, offset, length);
+        if (length == 0) {
+            return 0;
+        }
+        int spin = 0;
+        while (true) {
+            if (consumerClosed) {
+                throw new IOException("Consumer end closed");
+            }
+            // read the flag before polling: bytes put before closing are then visible to poll()
+            final boolean closed = producerClosed;
+            final int n = poll(target, offset, length);
+            if (n > 0) {
+                return n;
+            }
+            if (closed) {
+                return EOF;
+            }
+            if (spin++ < spins) {
+                Thread.yield();
+            } else {
+                parkedConsumer = Thread.currentThread();
+                // re-check after publishing ourselves so a concurrent put() cannot be missed
+                if (cursors.get(TAIL) == cursors.get(HEAD) && !producerClosed) {
+                    LockSupport.park(this);
+                }
+                parkedConsumer = null;
+                checkInterrupted();
+            }
+        }
+    }
+
+    /**
+     * Closes the producer end: the consumer gets {@link IOUtils#EOF} once it has taken the remaining bytes.
+     */
+    public void closeProducer() {
+        producerClosed = true;
+        unpark(parkedConsumer);
+    }
+
+    /**
+     * Closes the consumer end: further puts fail.
+     */
+    public void closeConsumer() {
+        consumerClosed = true;
+        unpark(parkedProducer);
+    }
+
+    /**
+     * Tests whether the producer end has been closed.
+     *
+     * @return whether the producer end has been closed.
+     */
+    public boolean isProducerClosed() {
+        return producerClosed;
+    }
+
+    /**
+     * Tests whether the consumer end has been closed.
+     *
+     * @return whether the consumer end has been closed.
+     */
+    public boolean isConsumerClosed() {
+        return consumerClosed;
+    }
+
+    /**
+     * Returns the number of bytes that are currently present in the buffer.
+     *
+     * @return the number of bytes.
+     */
+    public int getCurrentNumberOfBytes() {
+        // the cursors are read one after the other while they may move, keep the result in range
+        final long head = cursors.get(HEAD);
+        return (int) Math.max(0, Math.min(buffer.length, cursors.get(TAIL) - head));
+    }
+
+    /**
+     * Returns the number of bytes that can currently be added to the buffer.
+     *
+     * @return the number of bytes that can be added.
+     */
+    public int getSpace() {
+        return buffer.length - getCurrentNumberOfBytes();
+    }
+
+    /**
+     * Returns the capacity of the buffer.
+     *
+     * @return the capacity, a power of two.
+     */
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    private static void checkFromIndexSize(final byte[] array, final int offset, final int length) {
+        Objects.requireNonNull(array, "array");
+        if (offset < 0 || length < 0 || offset > array.length - length) {
+            throw new IndexOutOfBoundsException(String.format("offset=%,d, length=%,d", offset, length));
+        }
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static void unpark(final Thread thread) {
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -18,6 +18,9 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Objects;
 
 
@@ -50,6 +53,19 @@ public PeekableInputStream(final InputStream inputStream) {
         super(inputStream);
     }
 
+    /**
+     * Creates a new instance, which reads from the given channel, and
+     * uses the given buffer size. The channel fills the buffer directly.
+     *
+     * @param channel    The channel, which is being buffered.
+     * @param bufferSize The size of the {@link CircularByteBuffer}, which is
+     *                    used internally.
+     * @since 2.9.0
+     */
+    public PeekableInputStream(final ReadableByteChannel channel, final int bufferSize) {
+        super(Channels.newInputStream(Objects.requireNonNull(channel, "channel")), bufferSize);
+    }
+
     /**
      * Returns, whether the next bytes in the buffer are as given by
      * {@code sourceBuffer}. This is equivalent to {@link #peek(byte[], int, int)}
@@ -87,9 +103,27 @@ public boolean peek(final byte[] sourceBuffer, final int offset, final int lengt
             throw new IllegalArgumentException("Peek request size of " + sourceBuffer.length
                     + " bytes exceeds buffer size of " + bufferSize + " bytes");
         }
-        if (buffer.getCurrentNumberOfBytes() < sourceBuffer.length) {
+        if (buffer.getCurrentNumberOfBytes() < length) {
             fillBuffer();
         }
         return buffer.peek(sourceBuffer, offset, length);
     }
+
+    /**
+     * Copies the next bytes of this stream into the given byte buffer, without
+     * consuming them. At most {@code bufferSize} bytes can be peeked; fewer
+     * bytes are copied at the end of the stream.
+     *
+     * @param target the byte buffer to copy to.
+     * @return the number of bytes copied.
+     * @throws IOException if there is a problem calling fillBuffer()
+     * @since 2.9.0
+     */
+    public int peek(final ByteBuffer target) throws IOException {
+        Objects.requireNonNull(target, "target");
+        if (buffer.getCurrentNumberOfBytes() < target.remaining()) {
+            fillBuffer();
+        }
+        return buffer.peek(target);
+    }
 }
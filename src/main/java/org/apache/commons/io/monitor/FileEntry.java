@@ -17,7 +17,11 @@
 package org.apache.commons.io.monitor;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * The state of a file or directory, capturing the following {@link File} attributes at a point in time.
@@ -89,6 +93,8 @@ public FileEntry(final FileEntry parent, final File file) {
      * <p>
      * The <code>exists</code>, <code>directory</code>, <code>lastModified</code>
      * and <code>length</code> properties are compared for changes
+     * <p>
+     * The attributes are read in one file system query rather than one per property.
      *
      * @param file the file instance to compare to
      * @return {@code true} if the file has changed, otherwise {@code false}
@@ -102,11 +108,17 @@ public boolean refresh(final File file) {
         final long    origLength       = length;
 
         // refresh the values
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (final IOException | InvalidPathException e) {
+            attributes = null;
+        }
         name         = file.getName();
-        exists       = file.exists();
-        directory    = exists && file.isDirectory();
-        lastModified = exists ? file.lastModified() : 0;
-        length       = exists && !directory ? file.length() : 0;
+        exists       = attributes != null;
+        directory    = exists && attributes.isDirectory();
+        lastModified = exists ? attributes.lastModifiedTime().toMillis() : 0;
+        length       = exists && !directory ? attributes.size() : 0;
 
         // Return if there are changes
         return exists != origExists ||
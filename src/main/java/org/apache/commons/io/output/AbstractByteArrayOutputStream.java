@@ -23,6 +23,11 @@
 import java.io.OutputStream;
 import java.io.SequenceInputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -53,6 +58,12 @@
  * {@link java.io.ByteArrayOutputStream#toString(int)} method that has been
  * ignored.
  * </p>
+ * <p>
+ * Subclasses decide on the locking policy: {@link ByteArrayOutputStream} guards every call with the instance
+ * monitor, while {@link UnsynchronizedByteArrayOutputStream} is meant for streams owned by a single thread and
+ * writes straight into the current buffer without any locking. Prefer the latter when the stream does not escape
+ * the method or object that creates it.
+ * </p>
  *
  * @since 2.7
  */
@@ -75,6 +86,25 @@ public abstract class AbstractByteArrayOutputStream extends OutputStream {
     protected int count;
     /** Flag to indicate if the buffers can be reused after reset */
     private boolean reuseBuffers = true;
+    /** The pool buffers are taken from and returned to, may be null. */
+    private final ByteArraySegmentPool pool;
+
+    /**
+     * Constructs a new instance that allocates its buffers from the heap.
+     */
+    protected AbstractByteArrayOutputStream() {
+        this(null);
+    }
+
+    /**
+     * Constructs a new instance that takes its buffers from the given pool and returns them on {@link #close()}.
+     *
+     * @param pool the pool to allocate buffers from, null to allocate from the heap.
+     * @since 2.9.0
+     */
+    protected AbstractByteArrayOutputStream(final ByteArraySegmentPool pool) {
+        this.pool = pool;
+    }
 
     /**
      * Makes a new buffer available either by allocating
@@ -103,7 +133,7 @@ protected void needNewBuffer(final int newcount) {
             }
 
             currentBufferIndex++;
-            currentBuffer = new byte[newBufferSize];
+            currentBuffer = pool != null ? pool.acquire() : new byte[newBufferSize];
             buffers.add(currentBuffer);
         }
     }
@@ -125,8 +155,14 @@ protected void needNewBuffer(final int newcount) {
      */
     protected void writeImpl(final byte[] b, final int off, final int len) {
         final int newcount = count + len;
-        int remaining = len;
         int inBufferPos = count - filledBufferSum;
+        if (len <= currentBuffer.length - inBufferPos) {
+            // Fast path: the whole chunk fits in the current buffer.
+            System.arraycopy(b, off, currentBuffer, inBufferPos, len);
+            count = newcount;
+            return;
+        }
+        int remaining = len;
         while (remaining > 0) {
             final int part = Math.min(remaining, currentBuffer.length - inBufferPos);
             System.arraycopy(b, off + len - remaining, currentBuffer, inBufferPos, part);
@@ -151,12 +187,13 @@ protected void writeImpl(final byte[] b, final int off, final int len) {
      * @param b the byte to write
      */
     protected void writeImpl(final int b) {
-        int inBufferPos = count - filledBufferSum;
-        if (inBufferPos == currentBuffer.length) {
+        final int inBufferPos = count - filledBufferSum;
+        if (inBufferPos < currentBuffer.length) {
+            currentBuffer[inBufferPos] = (byte) b;
+        } else {
             needNewBuffer(count + 1);
-            inBufferPos = 0;
+            currentBuffer[0] = (byte) b;
         }
-        currentBuffer[inBufferPos] = (byte) b;
         count++;
     }
 
@@ -213,13 +250,46 @@ protected int writeImpl(final InputStream in) throws IOException {
      * Closing a {@code ByteArrayOutputStream} has no effect. The methods in
      * this class can be called after the stream has been closed without
      * generating an {@code IOException}.
+     * <p>
+     * If this stream was created with a {@link ByteArraySegmentPool}, closing
+     * it returns its buffers to the pool and discards the contents; buffers
+     * still referenced by a stream returned from {@link #toInputStream()} are
+     * not returned. The stream can still be written to afterwards.
+     * </p>
      *
      * @throws IOException never (this method should not declare this exception
      * but it has to now due to backwards compatibility)
      */
     @Override
     public void close() throws IOException {
-        //nop
+        closeImpl();
+    }
+
+    /**
+     * Returns the buffers of this stream to its pool, if it has one, and
+     * empties this stream.
+     *
+     * @since 2.9.0
+     */
+    protected void closeImpl() {
+        if (pool == null || buffers.isEmpty()) {
+            return;
+        }
+        for (final byte[] buf : buffers) {
+            if (reuseBuffers) {
+                pool.release(buf);
+            } else {
+                // the buffers belong to an InputStream or ByteBuffers now
+                pool.forget(buf);
+            }
+        }
+        buffers.clear();
+        count = 0;
+        filledBufferSum = 0;
+        // an empty current buffer makes the next write take a new buffer from the pool
+        currentBufferIndex = -1;
+        currentBuffer = EMPTY_BYTE_ARRAY;
+        reuseBuffers = true;
     }
 
     /**
@@ -231,15 +301,21 @@ public void close() throws IOException {
      * @see java.io.ByteArrayOutputStream#reset()
      */
     protected void resetImpl() {
+        if (buffers.isEmpty()) {
+            return;
+        }
         count = 0;
         filledBufferSum = 0;
         currentBufferIndex = 0;
         if (reuseBuffers) {
             currentBuffer = buffers.get(currentBufferIndex);
         } else {
-            //Throw away old buffers
+            //Throw away old buffers, they now belong to the InputStream
             currentBuffer = null;
             final int size = buffers.get(0).length;
+            if (pool != null) {
+                buffers.forEach(pool::forget);
+            }
             buffers.clear();
             needNewBuffer(size);
             reuseBuffers = true;
@@ -276,6 +352,158 @@ protected void writeToImpl(final OutputStream out) throws IOException {
         }
     }
 
+    /**
+     * Writes the entire contents of this byte stream to the specified
+     * channel. A {@link GatheringByteChannel} receives all buffers of this
+     * stream in gathering writes, without copying them first.
+     *
+     * @param channel  the channel to write to
+     * @throws IOException if an I/O error occurs, such as if the channel is closed
+     * @since 2.9.0
+     */
+    public void writeTo(final WritableByteChannel channel) throws IOException {
+        writeToImpl(channel);
+    }
+
+    /**
+     * Writes the entire contents of this byte stream to the specified
+     * channel.
+     *
+     * @param channel  the channel to write to
+     * @throws IOException if an I/O error occurs, such as if the channel is closed
+     * @since 2.9.0
+     */
+    protected void writeToImpl(final WritableByteChannel channel) throws IOException {
+        final ByteBuffer[] byteBuffers = byteBuffers(false);
+        if (channel instanceof GatheringByteChannel) {
+            final GatheringByteChannel gathering = (GatheringByteChannel) channel;
+            long remaining = count;
+            int first = 0;
+            while (remaining > 0) {
+                remaining -= gathering.write(byteBuffers, first, byteBuffers.length - first);
+                while (first < byteBuffers.length && !byteBuffers[first].hasRemaining()) {
+                    first++;
+                }
+            }
+        } else {
+            for (final ByteBuffer byteBuffer : byteBuffers) {
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the current contents of this byte stream as read-only byte
+     * buffers that wrap the buffers of <code>this</code> stream, avoiding
+     * memory allocation and copy. The returned array can be passed to
+     * {@link GatheringByteChannel#write(ByteBuffer[])}.
+     * <p>
+     * Like {@link #toInputStream()}, the buffers are not reused by this
+     * stream after a {@link #reset()}, so the views stay valid.
+     * </p>
+     *
+     * @return the current contents of this output stream, one buffer per
+     *         internal segment.
+     * @since 2.9.0
+     */
+    public ByteBuffer[] toByteBuffers() {
+        return byteBuffers(true);
+    }
+
+    /**
+     * Gets the current contents of this byte stream as a channel. The
+     * returned channel reads the buffers of <code>this</code> stream,
+     * avoiding memory allocation and copy.
+     * <p>
+     * Like {@link #toInputStream()}, the buffers are not reused by this
+     * stream after a {@link #reset()}.
+     * </p>
+     *
+     * @return the current contents of this output stream.
+     * @since 2.9.0
+     */
+    public ReadableByteChannel toReadableByteChannel() {
+        return new ByteBuffersChannel(toByteBuffers());
+    }
+
+    /**
+     * Wraps the filled part of each buffer in a read-only byte buffer.
+     *
+     * @param expose whether the buffers escape this stream and must not be reused.
+     * @return the byte buffers.
+     */
+    private ByteBuffer[] byteBuffers(final boolean expose) {
+        final List<ByteBuffer> list = new ArrayList<>(buffers.size());
+        int remaining = count;
+        for (final byte[] buf : buffers) {
+            if (remaining == 0) {
+                break;
+            }
+            final int c = Math.min(buf.length, remaining);
+            list.add(ByteBuffer.wrap(buf, 0, c).asReadOnlyBuffer());
+            remaining -= c;
+        }
+        if (expose && !list.isEmpty()) {
+            reuseBuffers = false;
+        }
+        return list.toArray(new ByteBuffer[list.size()]);
+    }
+
+    /**
+     * A {@link ReadableByteChannel} over a sequence of byte buffers.
+     */
+    private static final class ByteBuffersChannel implements ReadableByteChannel {
+
+        private final ByteBuffer[] byteBuffers;
+        private int index;
+        private boolean open = true;
+
+        ByteBuffersChannel(final ByteBuffer[] byteBuffers) {
+            this.byteBuffers = byteBuffers;
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            while (index < byteBuffers.length && !byteBuffers[index].hasRemaining()) {
+                index++;
+            }
+            if (index == byteBuffers.length) {
+                return EOF;
+            }
+            int read = 0;
+            while (index < byteBuffers.length && dst.hasRemaining()) {
+                final ByteBuffer src = byteBuffers[index];
+                final int n = Math.min(src.remaining(), dst.remaining());
+                if (n == src.remaining()) {
+                    dst.put(src);
+                    index++;
+                } else {
+                    final ByteBuffer slice = src.duplicate();
+                    slice.limit(slice.position() + n);
+                    dst.put(slice);
+                    src.position(src.position() + n);
+                }
+                read += n;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
     /**
      * Gets the current contents of this byte stream as a Input Stream. The
      * returned stream is backed by buffers of <code>this</code> stream,
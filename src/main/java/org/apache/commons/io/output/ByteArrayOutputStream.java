@@ -19,6 +19,10 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
 
 /**
  * Implements a ThreadSafe version of {@link AbstractByteArrayOutputStream} using instance synchronization.
@@ -51,6 +55,21 @@ public ByteArrayOutputStream(final int size) {
         }
     }
 
+    /**
+     * Creates a new byte array output stream that takes its buffers from the
+     * given pool and returns them when closed.
+     *
+     * @param pool  the pool to allocate buffers from
+     * @throws NullPointerException if the pool is null
+     * @since 2.9.0
+     */
+    public ByteArrayOutputStream(final ByteArraySegmentPool pool) {
+        super(Objects.requireNonNull(pool, "pool"));
+        synchronized (this) {
+            needNewBuffer(pool.getSegmentSize());
+        }
+    }
+
     @Override
     public void write(final byte[] b, final int off, final int len) {
         if ((off < 0)
@@ -90,11 +109,31 @@ public synchronized void reset() {
         resetImpl();
     }
 
+    @Override
+    public synchronized void close() throws IOException {
+        closeImpl();
+    }
+
     @Override
     public synchronized void writeTo(final OutputStream out) throws IOException {
         writeToImpl(out);
     }
 
+    @Override
+    public synchronized void writeTo(final WritableByteChannel channel) throws IOException {
+        writeToImpl(channel);
+    }
+
+    @Override
+    public synchronized ByteBuffer[] toByteBuffers() {
+        return super.toByteBuffers();
+    }
+
+    @Override
+    public synchronized ReadableByteChannel toReadableByteChannel() {
+        return super.toReadableByteChannel();
+    }
+
     /**
      * Fetches entire contents of an <code>InputStream</code> and represent
      * same data as result InputStream.
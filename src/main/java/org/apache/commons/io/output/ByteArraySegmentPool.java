@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe free-list of fixed size byte arrays ("segments") that
+ * {@link AbstractByteArrayOutputStream} implementations can allocate their buffers from.
+ * <p>
+ * A pool is meant to be shared by many short-lived streams: a stream created with a pool takes its buffers
+ * from the pool as it grows and gives them back when it is {@link AbstractByteArrayOutputStream#close() closed},
+ * so that the next stream can reuse them instead of allocating new arrays. At most {@code maxPooledSegments}
+ * idle segments are retained; segments released to a full pool are left to the garbage collector.
+ * </p>
+ * <p>
+ * The pool keeps counters that can be used for monitoring. {@link #getOutstandingCount()} is the number of
+ * segments handed out and not yet released or {@link #forget(byte[]) forgotten}; a value that keeps growing under
+ * a steady load means streams are being discarded without being closed.
+ * </p>
+ * <p>
+ * Subclasses may override {@link #allocate()} to change how new segments are created.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class ByteArraySegmentPool {
+
+    /** The size of each segment. */
+    private final int segmentSize;
+
+    /** The maximum number of idle segments retained. */
+    private final int maxPooledSegments;
+
+    /** The idle segments. */
+    private final Queue<byte[]> segments = new ConcurrentLinkedQueue<>();
+
+    /** The number of idle segments, tracked separately since ConcurrentLinkedQueue.size() is O(n). */
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    /** The segments handed out and not yet released; arrays hash and compare by identity. */
+    private final Set<byte[]> outstanding = ConcurrentHashMap.newKeySet();
+
+    /** The number of segments allocated by this pool. */
+    private final AtomicLong allocatedCount = new AtomicLong();
+
+    /** The number of acquisitions satisfied from the free-list. */
+    private final AtomicLong reusedCount = new AtomicLong();
+
+    /** The number of released segments dropped because the pool was full. */
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    /**
+     * Constructs a new pool.
+     *
+     * @param segmentSize the size in bytes of each segment.
+     * @param maxPooledSegments the maximum number of idle segments to retain.
+     * @throws IllegalArgumentException if {@code segmentSize} is not positive or {@code maxPooledSegments} is
+     *         negative.
+     */
+    public ByteArraySegmentPool(final int segmentSize, final int maxPooledSegments) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        if (maxPooledSegments < 0) {
+            throw new IllegalArgumentException("Negative maximum pooled segments: " + maxPooledSegments);
+        }
+        this.segmentSize = segmentSize;
+        this.maxPooledSegments = maxPooledSegments;
+    }
+
+    /**
+     * Takes a segment from the pool, allocating a new one if the pool is empty. The contents of a reused segment
+     * are undefined.
+     *
+     * @return a segment of {@link #getSegmentSize()} bytes.
+     */
+    public byte[] acquire() {
+        byte[] segment = segments.poll();
+        if (segment != null) {
+            pooledCount.decrementAndGet();
+            reusedCount.incrementAndGet();
+        } else {
+            segment = allocate();
+            allocatedCount.incrementAndGet();
+        }
+        outstanding.add(segment);
+        return segment;
+    }
+
+    /**
+     * Allocates a new segment when the pool is empty.
+     *
+     * @return a new segment of {@link #getSegmentSize()} bytes.
+     */
+    protected byte[] allocate() {
+        return new byte[segmentSize];
+    }
+
+    /**
+     * Stops tracking a segment handed out by {@link #acquire()} without returning it to the pool, for a segment that
+     * is now owned by something else and is left to the garbage collector. Arrays that are not outstanding are
+     * ignored.
+     *
+     * @param segment the segment to forget, may be null.
+     */
+    public void forget(final byte[] segment) {
+        if (segment != null) {
+            outstanding.remove(segment);
+        }
+    }
+
+    /**
+     * Returns a segment to the pool. Arrays that were not handed out by {@link #acquire()}, or that were already
+     * released or forgotten, are ignored. The caller must not use the segment afterwards.
+     *
+     * @param segment the segment to return, may be null.
+     */
+    public void release(final byte[] segment) {
+        if (segment == null || !outstanding.remove(segment)) {
+            return;
+        }
+        if (pooledCount.incrementAndGet() <= maxPooledSegments) {
+            segments.offer(segment);
+        } else {
+            pooledCount.decrementAndGet();
+            discardedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops all idle segments.
+     */
+    public void clear() {
+        while (segments.poll() != null) {
+            pooledCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the size in bytes of each segment.
+     *
+     * @return the segment size.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Gets the maximum number of idle segments this pool retains.
+     *
+     * @return the maximum number of idle segments.
+     */
+    public int getMaxPooledSegments() {
+        return maxPooledSegments;
+    }
+
+    /**
+     * Gets the number of idle segments currently in the pool.
+     *
+     * @return the number of idle segments.
+     */
+    public int getPooledCount() {
+        return pooledCount.get();
+    }
+
+    /**
+     * Gets the number of segments handed out by {@link #acquire()} and not yet {@link #release(byte[]) released} or
+     * {@link #forget(byte[]) forgotten}.
+     *
+     * @return the number of segments in use.
+     */
+    public int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    /**
+     * Gets the number of segments this pool has allocated since it was created.
+     *
+     * @return the number of allocated segments.
+     */
+    public long getAllocatedCount() {
+        return allocatedCount.get();
+    }
+
+    /**
+     * Gets the number of {@link #acquire()} calls satisfied by reusing an idle segment.
+     *
+     * @return the number of reused segments.
+     */
+    public long getReusedCount() {
+        return reusedCount.get();
+    }
+
+    /**
+     * Gets the number of released segments dropped because the pool was full.
+     *
+     * @return the number of discarded segments.
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [segmentSize=" + segmentSize + ", maxPooledSegments="
+            + maxPooledSegments + ", pooled=" + pooledCount + ", outstanding=" + outstanding.size() + ", allocated="
+            + allocatedCount + ", reused=" + reusedCount + ", discarded=" + discardedCount + "]";
+    }
+}
@@ -20,10 +20,18 @@
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 
+import org.apache.commons.io.FileCleaningTracker;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.ProxyInputStream;
 
 
 /**
@@ -36,6 +44,13 @@
  * not know in advance the size of the file being uploaded. If the file is small
  * you want to store it in memory (for speed), but if the file is large you want
  * to store it to file (to avoid memory issues).
+ * <p>
+ * Once closed, the data can be read back with {@link #toInputStream()},
+ * transferred to a channel with {@link #writeTo(WritableByteChannel)}, which
+ * uses {@link FileChannel#transferTo(long, long, WritableByteChannel)} for
+ * data on disk, or viewed through {@link #toByteBuffer()}, which memory maps
+ * data on disk. {@link #trackFile(FileCleaningTracker)} deletes the file in
+ * the background once the stream and its readers are no longer used.
  */
 public class DeferredFileOutputStream
     extends ThresholdingOutputStream
@@ -47,7 +62,7 @@
      * The output stream to which data will be written prior to the threshold
      * being reached.
      */
-    private ByteArrayOutputStream memoryOutputStream;
+    private UnsynchronizedByteArrayOutputStream memoryOutputStream;
 
 
     /**
@@ -84,6 +99,11 @@
      */
     private boolean closed = false;
 
+    /**
+     * The tracker that deletes the output file, may be null.
+     */
+    private FileCleaningTracker fileCleaningTracker;
+
     // ----------------------------------------------------------- Constructors
 
 
@@ -181,7 +201,7 @@ private DeferredFileOutputStream(final int threshold, final File outputFile, fin
         this.suffix = suffix;
         this.directory = directory;
 
-        memoryOutputStream = new ByteArrayOutputStream(initialBufferSize);
+        memoryOutputStream = new UnsynchronizedByteArrayOutputStream(initialBufferSize);
         currentOutputStream = memoryOutputStream;
     }
 
@@ -228,6 +248,9 @@ protected void thresholdReached() throws IOException
         }
         currentOutputStream = fos;
         memoryOutputStream = null;
+        if (fileCleaningTracker != null) {
+            fileCleaningTracker.track(outputFile, this);
+        }
     }
 
 
@@ -322,4 +345,122 @@ public void writeTo(final OutputStream out) throws IOException
             }
         }
     }
+
+    /**
+     * Writes the data from this output stream to the specified channel,
+     * after it has been closed. Data on disk is transferred with
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which
+     * lets the operating system move the bytes without copying them through
+     * the Java heap where it supports it.
+     *
+     * @param channel channel to write to.
+     * @throws IOException if this stream is not yet closed or an error occurs.
+     * @since 2.9.0
+     */
+    public void writeTo(final WritableByteChannel channel) throws IOException
+    {
+        checkClosed();
+        if (isInMemory()) {
+            memoryOutputStream.writeTo(channel);
+        } else {
+            try (FileChannel fileChannel = FileChannel.open(outputFile.toPath(), StandardOpenOption.READ)) {
+                final long size = fileChannel.size();
+                long position = 0;
+                while (position < size) {
+                    position += fileChannel.transferTo(position, size - position, channel);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the data from this output stream as an input stream, after it has
+     * been closed. Data in memory is read from the buffers of this stream
+     * without copying them; data on disk is read from the file.
+     * <p>
+     * A stream reading the file keeps this object reachable, so a file
+     * registered with {@link #trackFile(FileCleaningTracker)} is not deleted
+     * while it is in use.
+     * </p>
+     *
+     * @return the data from this output stream.
+     * @throws IOException if this stream is not yet closed or an error occurs.
+     * @since 2.9.0
+     */
+    public InputStream toInputStream() throws IOException
+    {
+        checkClosed();
+        if (isInMemory()) {
+            return memoryOutputStream.toInputStream();
+        }
+        return new FileDataInputStream(Files.newInputStream(outputFile.toPath()));
+    }
+
+    /**
+     * Gets a read-only byte buffer over the data from this output stream,
+     * after it has been closed. Data on disk is memory mapped rather than
+     * read, so large files are paged in on demand.
+     * <p>
+     * A mapped buffer does not keep this object reachable, so do not combine
+     * it with {@link #trackFile(FileCleaningTracker)} on platforms that cannot
+     * delete a mapped file.
+     * </p>
+     *
+     * @return the data from this output stream.
+     * @throws IOException if this stream is not yet closed, the file is larger
+     * than {@link Integer#MAX_VALUE} bytes, or an error occurs.
+     * @since 2.9.0
+     */
+    public ByteBuffer toByteBuffer() throws IOException
+    {
+        checkClosed();
+        if (isInMemory()) {
+            return ByteBuffer.wrap(memoryOutputStream.toByteArray()).asReadOnlyBuffer();
+        }
+        try (FileChannel fileChannel = FileChannel.open(outputFile.toPath(), StandardOpenOption.READ)) {
+            final long size = fileChannel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + size);
+            }
+            // the mapping remains valid after the channel is closed
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Registers the output file with the given tracker, which deletes it in
+     * its background thread once this stream and all the input streams
+     * returned by {@link #toInputStream()} have been garbage collected. If the
+     * threshold has not been reached yet, the file is registered when it is
+     * created.
+     *
+     * @param tracker the tracker that deletes the file.
+     * @since 2.9.0
+     */
+    public void trackFile(final FileCleaningTracker tracker)
+    {
+        fileCleaningTracker = tracker;
+        if (tracker != null && !isInMemory()) {
+            tracker.track(outputFile, this);
+        }
+    }
+
+    private void checkClosed() throws IOException
+    {
+        if (!closed) {
+            throw new IOException("Stream not closed");
+        }
+    }
+
+    /**
+     * Reads the output file. Being an inner class, it keeps its owner, the
+     * {@link FileCleaningTracker} marker, reachable.
+     */
+    private final class FileDataInputStream extends ProxyInputStream
+    {
+        FileDataInputStream(final InputStream in)
+        {
+            super(in);
+        }
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe pool of fixed size direct {@link ByteBuffer} segments with a hard memory budget.
+ * <p>
+ * Direct memory is only reclaimed when the owning buffer object is garbage collected, so this pool never lets
+ * go of a segment once allocated: released segments go back to the free-list and the total number of segments
+ * ever allocated is bounded by {@code maxBytes / segmentSize}. When that budget is used up,
+ * {@link #tryAcquire()} returns {@code null} and callers are expected to fall back to another storage, as
+ * {@link TieredDeferredFileOutputStream} does by spilling to disk.
+ * </p>
+ * <p>
+ * A single pool is meant to be shared by all the streams of an application so that they share one budget.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class DirectBufferSegmentPool {
+
+    /**
+     * Wraps a segment so that it hashes and compares by identity, {@link ByteBuffer} itself compares by content.
+     */
+    private static final class Identity {
+
+        private final ByteBuffer segment;
+
+        Identity(final ByteBuffer segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Identity && ((Identity) obj).segment == segment;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(segment);
+        }
+    }
+
+    /** The size of each segment. */
+    private final int segmentSize;
+
+    /** The maximum number of segments this pool allocates. */
+    private final int maxSegments;
+
+    /** The idle segments. */
+    private final Queue<ByteBuffer> segments = new ConcurrentLinkedQueue<>();
+
+    /** The number of segments allocated so far, idle or in use. */
+    private final AtomicInteger allocatedCount = new AtomicInteger();
+
+    /** The segments handed out and not yet released. */
+    private final Set<Identity> outstanding = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new pool.
+     *
+     * @param segmentSize the size in bytes of each segment.
+     * @param maxBytes the budget in bytes, rounded down to a multiple of {@code segmentSize}.
+     * @throws IllegalArgumentException if {@code segmentSize} is not positive or {@code maxBytes} is negative.
+     */
+    public DirectBufferSegmentPool(final int segmentSize, final long maxBytes) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Negative memory budget: " + maxBytes);
+        }
+        this.segmentSize = segmentSize;
+        this.maxSegments = (int) Math.min(Integer.MAX_VALUE, maxBytes / segmentSize);
+    }
+
+    /**
+     * Takes a cleared segment from the pool, allocating a new one if the pool is empty and the budget allows it.
+     *
+     * @return a segment of {@link #getSegmentSize()} bytes, or {@code null} if the budget is exhausted.
+     */
+    public ByteBuffer tryAcquire() {
+        ByteBuffer segment = segments.poll();
+        if (segment == null) {
+            int allocated;
+            do {
+                allocated = allocatedCount.get();
+                if (allocated >= maxSegments) {
+                    return null;
+                }
+            } while (!allocatedCount.compareAndSet(allocated, allocated + 1));
+            segment = ByteBuffer.allocateDirect(segmentSize);
+        }
+        outstanding.add(new Identity(segment));
+        return segment;
+    }
+
+    /**
+     * Returns a segment to the pool. Buffers that this pool did not hand out, and segments that were already
+     * released, are ignored. The caller must not use the segment afterwards.
+     *
+     * @param segment the segment to return, may be null.
+     */
+    public void release(final ByteBuffer segment) {
+        if (segment == null || !outstanding.remove(new Identity(segment))) {
+            return;
+        }
+        segment.clear();
+        segments.offer(segment);
+    }
+
+    /**
+     * Tests whether a call to {@link #tryAcquire()} would currently fail.
+     *
+     * @return whether the budget is used up.
+     */
+    public boolean isExhausted() {
+        return outstanding.size() >= maxSegments;
+    }
+
+    /**
+     * Gets the size in bytes of each segment.
+     *
+     * @return the segment size.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Gets the memory budget in bytes.
+     *
+     * @return the budget, a multiple of {@link #getSegmentSize()}.
+     */
+    public long getMaxBytes() {
+        return (long) maxSegments * segmentSize;
+    }
+
+    /**
+     * Gets the number of bytes of direct memory allocated by this pool, idle or in use.
+     *
+     * @return the allocated bytes.
+     */
+    public long getAllocatedBytes() {
+        return (long) allocatedCount.get() * segmentSize;
+    }
+
+    /**
+     * Gets the number of bytes of direct memory currently in use.
+     *
+     * @return the bytes in use.
+     */
+    public long getUsedBytes() {
+        return (long) outstanding.size() * segmentSize;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [segmentSize=" + segmentSize + ", maxSegments=" + maxSegments
+            + ", allocated=" + allocatedCount + ", outstanding=" + outstanding.size() + "]";
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+import org.apache.commons.io.MultiDigest;
+
+/**
+ * An output stream that updates several message digests and checksums with the bytes written, in one pass over
+ * each buffer.
+ * <p>
+ * The digests are updated from the caller's buffer after the underlying stream has accepted the bytes, so
+ * {@code IOUtils.copy(input, new MultiDigestCalculatingOutputStream(output, digest))} hashes while copying without
+ * copying the data again. Use {@link NullOutputStream#NULL_OUTPUT_STREAM} as the underlying stream to only compute
+ * the digests.
+ * </p>
+ *
+ * @see org.apache.commons.io.input.MultiDigestCalculatingInputStream
+ * @since 2.9.0
+ */
+public class MultiDigestCalculatingOutputStream extends ProxyOutputStream {
+
+    private final MultiDigest digest;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param outputStream the stream to write to.
+     * @param digest the digests to update.
+     */
+    public MultiDigestCalculatingOutputStream(final OutputStream outputStream, final MultiDigest digest) {
+        super(outputStream);
+        this.digest = Objects.requireNonNull(digest, "digest");
+    }
+
+    /**
+     * Constructs a new instance with a message digest for each of the given algorithms.
+     *
+     * @param outputStream the stream to write to.
+     * @param algorithms the names of the message digest algorithms.
+     * @throws NoSuchAlgorithmException if no provider supports one of the algorithms.
+     */
+    public MultiDigestCalculatingOutputStream(final OutputStream outputStream, final String... algorithms)
+        throws NoSuchAlgorithmException {
+        this(outputStream, MultiDigest.of(algorithms));
+    }
+
+    /**
+     * Gets the digests updated by this stream.
+     *
+     * @return the digests.
+     */
+    public MultiDigest getMultiDigest() {
+        return digest;
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        super.write(b);
+        digest.update(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        super.write(b, off, len);
+        digest.update(b, off, len);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        super.write(b);
+        digest.update(b);
+    }
+}
@@ -0,0 +1,521 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A splitter of {@link OutputStream} like {@link TeeOutputStream}, that writes to each branch on its own thread so
+ * that a slow branch does not hold up the others.
+ * <p>
+ * Written bytes are copied once into a shared, reference counted chunk which is queued to the bounded queue of
+ * every branch. Each branch writer returns the chunk to the pool after the last branch has written it. When the
+ * queue of a branch is full, the {@link SlowBranchPolicy} decides whether the caller waits, the chunk is dropped for
+ * that branch, or the branch is detached.
+ * </p>
+ * <p>
+ * {@link #flush()} waits until all the attached branches have written and flushed everything written before it.
+ * {@link #close()} drains and closes all the branches. Under the {@link SlowBranchPolicy#BLOCK} policy, a failure of a
+ * branch is rethrown by the next call to this stream. Under the other policies, a branch that fails is closed and
+ * detached while the others carry on, and its failure is reported by {@link #getBranchFailure(int)}. The methods of
+ * this class are synchronized.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class ParallelTeeOutputStream extends OutputStream {
+
+    /**
+     * What to do with a chunk for a branch whose queue is full.
+     */
+    public enum SlowBranchPolicy {
+
+        /** Waits for the branch to catch up. */
+        BLOCK,
+
+        /** Drops the chunk for that branch, which then misses those bytes. */
+        DROP,
+
+        /** Detaches the branch: it writes the chunks already queued, is closed, and receives nothing more. */
+        DETACH
+    }
+
+    /**
+     * Tells the branch writer to flush, or to close and stop.
+     */
+    private static final class Barrier {
+
+        final CountDownLatch latch;
+        final boolean close;
+
+        Barrier(final CountDownLatch latch, final boolean close) {
+            this.latch = latch;
+            this.close = close;
+        }
+    }
+
+    /**
+     * A shared chunk of data.
+     */
+    private final class Chunk {
+
+        final byte[] buffer;
+        final int length;
+        final AtomicInteger references = new AtomicInteger();
+
+        Chunk(final byte[] buffer, final int length) {
+            this.buffer = buffer;
+            this.length = length;
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                pool.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * A branch stream, its queue and its writer.
+     */
+    private final class Branch implements Runnable {
+
+        final OutputStream out;
+
+        /** One slot more than the queue capacity, reserved for the close barrier of a detached branch. */
+        final BlockingQueue<Object> queue;
+
+        final AtomicLong pendingBytes = new AtomicLong();
+
+        final AtomicLong droppedBytes = new AtomicLong();
+
+        final CountDownLatch stopped = new CountDownLatch(1);
+
+        volatile boolean detached;
+
+        /** The first failure of this branch, null if none. */
+        volatile IOException branchFailure;
+
+        boolean failed;
+
+        Branch(final OutputStream out) {
+            this.out = Objects.requireNonNull(out, "branch");
+            this.queue = new ArrayBlockingQueue<>(queueCapacity + 1);
+        }
+
+        void fail(final IOException e) {
+            failed = true;
+            if (branchFailure == null) {
+                branchFailure = e;
+            }
+            if (policy == SlowBranchPolicy.BLOCK) {
+                if (failure == null) {
+                    failure = e;
+                }
+            } else {
+                detached = true;
+            }
+        }
+
+        /**
+         * Releases an item the writer will not take: the chunk reference, or the barrier latch.
+         */
+        void release(final Object item) {
+            if (item instanceof Chunk) {
+                final Chunk chunk = (Chunk) item;
+                pendingBytes.addAndGet(-chunk.length);
+                chunk.release();
+            } else if (((Barrier) item).latch != null) {
+                ((Barrier) item).latch.countDown();
+            }
+        }
+
+        /**
+         * Releases an item just queued if the writer has stopped since, as it may have emptied the queue already.
+         */
+        void releaseIfStopped(final Object item) {
+            if (stopped.getCount() == 0 && queue.remove(item)) {
+                release(item);
+            }
+        }
+
+        @Override
+        public void run() {
+            // whether the writer stops without the close barrier and must close the branch itself
+            boolean abandoned = false;
+            try {
+                while (true) {
+                    final Object item;
+                    try {
+                        item = queue.take();
+                    } catch (final InterruptedException e) {
+                        // only a close barrier stops the writer
+                        continue;
+                    }
+                    if (item instanceof Chunk) {
+                        final Chunk chunk = (Chunk) item;
+                        try {
+                            if (!failed) {
+                                out.write(chunk.buffer, 0, chunk.length);
+                            }
+                        } catch (final IOException e) {
+                            fail(e);
+                        } finally {
+                            pendingBytes.addAndGet(-chunk.length);
+                            chunk.release();
+                        }
+                    } else {
+                        final Barrier barrier = (Barrier) item;
+                        try {
+                            if (barrier.close) {
+                                out.close();
+                            } else if (!failed) {
+                                out.flush();
+                            }
+                        } catch (final IOException e) {
+                            fail(e);
+                        } finally {
+                            if (barrier.latch != null) {
+                                barrier.latch.countDown();
+                            }
+                        }
+                        if (barrier.close) {
+                            return;
+                        }
+                    }
+                    if (failed && detached) {
+                        // failed under DROP or DETACH: the other branches carry on without this one
+                        abandoned = true;
+                        return;
+                    }
+                }
+            } catch (final RuntimeException e) {
+                abandoned = true;
+                fail(new IOException(e));
+                detached = true;
+            } catch (final Error e) {
+                abandoned = true;
+                fail(new IOException(e));
+                detached = true;
+                throw e;
+            } finally {
+                if (abandoned) {
+                    try {
+                        out.close();
+                    } catch (final IOException | RuntimeException e) {
+                        // the branch has failed already
+                    }
+                }
+                // a producer that queues an item from now on releases it itself
+                stopped.countDown();
+                // unblock a producer that waits for this queue
+                Object item;
+                while ((item = queue.poll()) != null) {
+                    release(item);
+                }
+            }
+        }
+    }
+
+    private final List<Branch> branches;
+
+    private final ByteArraySegmentPool pool;
+
+    private final int queueCapacity;
+
+    private final SlowBranchPolicy policy;
+
+    /** The chunk being filled, null if none. */
+    private byte[] buffer;
+
+    private int count;
+
+    private boolean closed;
+
+    private volatile IOException failure;
+
+    /**
+     * Constructs a new instance with chunks of {@link IOUtils#DEFAULT_BUFFER_SIZE} bytes, queues of
+     * {@link WriteBehindOutputStream#DEFAULT_QUEUE_CAPACITY} chunks, the {@link SlowBranchPolicy#BLOCK} policy and one
+     * dedicated thread per branch.
+     *
+     * @param branches the streams to write to.
+     */
+    public ParallelTeeOutputStream(final OutputStream... branches) {
+        this(Arrays.asList(branches), IOUtils.DEFAULT_BUFFER_SIZE, WriteBehindOutputStream.DEFAULT_QUEUE_CAPACITY,
+            SlowBranchPolicy.BLOCK, null);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param branches the streams to write to.
+     * @param chunkSize the size of each chunk.
+     * @param queueCapacity the maximum number of chunks waiting to be written by each branch.
+     * @param policy what to do when the queue of a branch is full.
+     * @param executor the executor running the branch writers, one task per branch, or null to start a dedicated
+     *        daemon thread per branch.
+     * @throws IllegalArgumentException if {@code chunkSize} or {@code queueCapacity} is not positive, or there are
+     *         no branches.
+     */
+    public ParallelTeeOutputStream(final Collection<? extends OutputStream> branches, final int chunkSize,
+        final int queueCapacity, final SlowBranchPolicy policy, final Executor executor) {
+        Objects.requireNonNull(branches, "branches");
+        if (branches.isEmpty()) {
+            throw new IllegalArgumentException("No branches");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.pool = new ByteArraySegmentPool(chunkSize, queueCapacity + 2);
+        final List<Branch> list = new ArrayList<>(branches.size());
+        for (final OutputStream out : branches) {
+            list.add(new Branch(out));
+        }
+        this.branches = list;
+        int index = 0;
+        for (final Branch branch : list) {
+            if (executor == null) {
+                final Thread thread = new Thread(branch, "commons-io-tee-" + index++);
+                thread.setDaemon(true);
+                thread.start();
+            } else {
+                executor.execute(branch);
+            }
+        }
+    }
+
+    private void await(final CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        final IOException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all pending data to and closes every branch.
+     *
+     * @throws IOException if a branch failed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        publish();
+        for (final Branch branch : branches) {
+            if (!branch.detached) {
+                put(branch, new Barrier(null, true));
+            }
+        }
+        for (final Branch branch : branches) {
+            await(branch.stopped);
+        }
+        closed = true;
+        checkFailure();
+    }
+
+    /**
+     * Waits until every attached branch has written and flushed everything written so far.
+     *
+     * @throws IOException if a branch failed.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        checkOpen();
+        publish();
+        final List<Branch> attached = new ArrayList<>(branches.size());
+        for (final Branch branch : branches) {
+            if (!branch.detached) {
+                attached.add(branch);
+            }
+        }
+        final CountDownLatch latch = new CountDownLatch(attached.size());
+        for (final Branch branch : attached) {
+            put(branch, new Barrier(latch, false));
+        }
+        await(latch);
+        checkFailure();
+    }
+
+    /**
+     * Gets the number of branches.
+     *
+     * @return the number of branches.
+     */
+    public int getBranchCount() {
+        return branches.size();
+    }
+
+    /**
+     * Gets the first failure of the given branch. Under the {@link SlowBranchPolicy#BLOCK} policy it is also rethrown
+     * by this stream; under the other policies the branch is detached instead.
+     *
+     * @param index the index of the branch, in construction order.
+     * @return the failure of the branch, or null if it has not failed.
+     */
+    public IOException getBranchFailure(final int index) {
+        return branches.get(index).branchFailure;
+    }
+
+    /**
+     * Gets the number of bytes the given branch dropped under the {@link SlowBranchPolicy#DROP} policy.
+     *
+     * @param index the index of the branch, in construction order.
+     * @return the number of dropped bytes.
+     */
+    public long getDroppedBytes(final int index) {
+        return branches.get(index).droppedBytes.get();
+    }
+
+    /**
+     * Gets the number of bytes queued to the given branch and not written yet.
+     *
+     * @param index the index of the branch, in construction order.
+     * @return the lag of the branch in bytes.
+     */
+    public long getLag(final int index) {
+        return branches.get(index).pendingBytes.get();
+    }
+
+    /**
+     * Tests whether the given branch has been detached, because it fell behind under the
+     * {@link SlowBranchPolicy#DETACH} policy or because it failed.
+     *
+     * @param index the index of the branch, in construction order.
+     * @return whether the branch is detached.
+     */
+    public boolean isDetached(final int index) {
+        return branches.get(index).detached;
+    }
+
+    /**
+     * Queues the current chunk to every attached branch.
+     */
+    private void publish() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        final Chunk chunk = new Chunk(buffer, count);
+        buffer = null;
+        count = 0;
+        // hold one reference while queueing so that fast branches cannot release the chunk early
+        chunk.references.set(1);
+        for (final Branch branch : branches) {
+            if (branch.detached) {
+                continue;
+            }
+            chunk.references.incrementAndGet();
+            branch.pendingBytes.addAndGet(chunk.length);
+            if (policy == SlowBranchPolicy.BLOCK) {
+                put(branch, chunk);
+            } else if (branch.queue.size() < queueCapacity) {
+                // the only producer: the queue cannot fill up between the check and the offer
+                branch.queue.add(chunk);
+                branch.releaseIfStopped(chunk);
+            } else {
+                branch.pendingBytes.addAndGet(-chunk.length);
+                chunk.references.decrementAndGet();
+                if (policy == SlowBranchPolicy.DROP) {
+                    branch.droppedBytes.addAndGet(chunk.length);
+                } else {
+                    branch.detached = true;
+                    branch.queue.add(new Barrier(null, true));
+                }
+            }
+        }
+        chunk.release();
+    }
+
+    private void put(final Branch branch, final Object item) throws IOException {
+        try {
+            branch.queue.put(item);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        branch.releaseIfStopped(item);
+    }
+
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException(String.format("offset=%,d, length=%,d", off, len));
+        }
+        checkOpen();
+        int pos = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (buffer == null) {
+                buffer = pool.acquire();
+            }
+            final int n = Math.min(remaining, buffer.length - count);
+            System.arraycopy(b, pos, buffer, count, n);
+            count += n;
+            pos += n;
+            remaining -= n;
+            if (count == buffer.length) {
+                publish();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void write(final int b) throws IOException {
+        checkOpen();
+        if (buffer == null) {
+            buffer = pool.acquire();
+        }
+        buffer[count++] = (byte) b;
+        if (count == buffer.length) {
+            publish();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+import org.apache.commons.io.input.PipeInputStream;
+import org.apache.commons.io.input.buffer.ConcurrentCircularByteBuffer;
+
+/**
+ * The writing end of a pipe backed by a lock-free {@link ConcurrentCircularByteBuffer}, an alternative to
+ * {@link java.io.PipedOutputStream} for moving bytes from one thread to another.
+ * <p>
+ * Writes block while the buffer is full. Closing this stream signals the end of the data to the
+ * {@link PipeInputStream}.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class PipeOutputStream extends OutputStream {
+
+    private final ConcurrentCircularByteBuffer buffer;
+
+    private final byte[] single = new byte[1];
+
+    /**
+     * Constructs a new instance with a buffer of default size.
+     */
+    public PipeOutputStream() {
+        this(new ConcurrentCircularByteBuffer());
+    }
+
+    /**
+     * Constructs a new instance writing to the given buffer.
+     *
+     * @param buffer the buffer to write to.
+     */
+    public PipeOutputStream(final ConcurrentCircularByteBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer, "buffer");
+    }
+
+    /**
+     * Creates a new input stream that reads from the buffer of this stream.
+     *
+     * @return a new input stream.
+     */
+    public PipeInputStream newPipeInputStream() {
+        return new PipeInputStream(buffer);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        single[0] = (byte) b;
+        buffer.put(single, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        buffer.put(b, off, len);
+    }
+
+    /**
+     * Closes the writing end; the input stream reaches the end of the data once it has read the remaining
+     * bytes.
+     */
+    @Override
+    public void close() {
+        buffer.closeProducer();
+    }
+}
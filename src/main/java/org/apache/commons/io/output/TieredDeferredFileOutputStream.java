@@ -0,0 +1,418 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * An output stream which keeps data on the heap up to a first threshold, then in pooled direct (off-heap) memory
+ * up to a second threshold, and only then commits it to disk.
+ * <p>
+ * This is a three-tier variant of {@link DeferredFileOutputStream} for buffering bodies whose size varies over
+ * several orders of magnitude: small bodies stay on the heap, medium ones do not add to heap pressure, and only
+ * the largest ones hit the disk. The off-heap segments come from a {@link DirectBufferSegmentPool} which should
+ * be shared by all streams so that they share one memory budget. When the pool cannot supply the memory a stream
+ * needs, the stream goes to disk directly.
+ * </p>
+ * <p>
+ * Off-heap segments are held until {@link #release()} is called, or until the data moves to disk. Always call
+ * {@link #release()} once the data has been consumed, otherwise the segments are lost to the pool.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class TieredDeferredFileOutputStream extends ThresholdingOutputStream {
+
+    /**
+     * Writes to a list of off-heap segments whose capacity has been reserved beforehand.
+     */
+    private final class SegmentsOutputStream extends OutputStream {
+
+        private int index;
+
+        private ByteBuffer current() {
+            ByteBuffer segment = segments.get(index);
+            if (!segment.hasRemaining()) {
+                segment = segments.get(++index);
+            }
+            return segment;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            checkNotReleased();
+            current().put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            checkNotReleased();
+            int pos = off;
+            int remaining = len;
+            while (remaining > 0) {
+                final ByteBuffer segment = current();
+                final int n = Math.min(remaining, segment.remaining());
+                segment.put(b, pos, n);
+                pos += n;
+                remaining -= n;
+            }
+        }
+    }
+
+    /** The number of bytes kept on the heap. */
+    private final int heapThreshold;
+
+    /** The pool off-heap segments come from, may be null. */
+    private final DirectBufferSegmentPool pool;
+
+    /** The heap tier, null once the data has left the heap. */
+    private UnsynchronizedByteArrayOutputStream memoryOutputStream;
+
+    /** The off-heap tier, null unless the data is off-heap. */
+    private List<ByteBuffer> segments;
+
+    /** The stream data is currently written to. */
+    private OutputStream currentOutputStream;
+
+    /** The file to which output will be directed if the threshold is exceeded. */
+    private File outputFile;
+
+    /** The temporary file prefix. */
+    private final String prefix;
+
+    /** The temporary file suffix. */
+    private final String suffix;
+
+    /** The directory to use for temporary files. */
+    private final File directory;
+
+    /** True when close() has been called successfully. */
+    private boolean closed;
+
+    /** True when release() has been called. */
+    private boolean released;
+
+    /**
+     * Constructs an instance which keeps up to {@code heapThreshold} bytes on the heap, up to {@code threshold}
+     * bytes in memory, and saves data to the given file beyond that point.
+     *
+     * @param heapThreshold The number of bytes kept on the heap.
+     * @param threshold The number of bytes kept in memory, on or off the heap.
+     * @param pool The pool to take off-heap segments from, null to skip the off-heap tier.
+     * @param outputFile The file to which data is saved beyond the threshold.
+     * @throws IllegalArgumentException if {@code heapThreshold} is negative or greater than {@code threshold}.
+     * @throws NullPointerException if {@code outputFile} is null.
+     */
+    public TieredDeferredFileOutputStream(final int heapThreshold, final int threshold,
+        final DirectBufferSegmentPool pool, final File outputFile) {
+        this(heapThreshold, threshold, pool, Objects.requireNonNull(outputFile, "outputFile"), null, null, null);
+    }
+
+    /**
+     * Constructs an instance which keeps up to {@code heapThreshold} bytes on the heap, up to {@code threshold}
+     * bytes in memory, and saves data to a temporary file beyond that point.
+     *
+     * @param heapThreshold The number of bytes kept on the heap.
+     * @param threshold The number of bytes kept in memory, on or off the heap.
+     * @param pool The pool to take off-heap segments from, null to skip the off-heap tier.
+     * @param prefix Prefix to use for the temporary file.
+     * @param suffix Suffix to use for the temporary file.
+     * @param directory Temporary file directory, null for the default temporary directory.
+     * @throws IllegalArgumentException if {@code heapThreshold} is negative or greater than {@code threshold}.
+     * @throws NullPointerException if {@code prefix} is null.
+     */
+    public TieredDeferredFileOutputStream(final int heapThreshold, final int threshold,
+        final DirectBufferSegmentPool pool, final String prefix, final String suffix, final File directory) {
+        this(heapThreshold, threshold, pool, null, Objects.requireNonNull(prefix, "prefix"), suffix, directory);
+    }
+
+    private TieredDeferredFileOutputStream(final int heapThreshold, final int threshold,
+        final DirectBufferSegmentPool pool, final File outputFile, final String prefix, final String suffix,
+        final File directory) {
+        super(threshold);
+        if (heapThreshold < 0 || heapThreshold > threshold) {
+            throw new IllegalArgumentException(
+                "Heap threshold must be between 0 and " + threshold + ": " + heapThreshold);
+        }
+        this.heapThreshold = heapThreshold;
+        this.pool = pool;
+        this.outputFile = outputFile;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.directory = directory;
+        memoryOutputStream = new UnsynchronizedByteArrayOutputStream(Math.min(heapThreshold,
+            AbstractByteArrayOutputStream.DEFAULT_SIZE));
+        currentOutputStream = memoryOutputStream;
+    }
+
+    /**
+     * Moves data off the heap, or to disk if the pool cannot supply enough memory, when writing {@code count}
+     * more bytes would exceed the heap threshold or the memory reserved off-heap. Disk is handled by
+     * {@link ThresholdingOutputStream#checkThreshold(int)}.
+     *
+     * @param count The number of bytes about to be written.
+     * @throws IOException if an error occurs.
+     */
+    @Override
+    protected void checkThreshold(final int count) throws IOException {
+        checkNotReleased();
+        final long total = getByteCount() + count;
+        if (total <= getThreshold()) {
+            if (memoryOutputStream != null && total > heapThreshold) {
+                if (reserve(total)) {
+                    final OutputStream offHeap = new SegmentsOutputStream();
+                    memoryOutputStream.writeTo(offHeap);
+                    memoryOutputStream = null;
+                    currentOutputStream = offHeap;
+                } else {
+                    thresholdReached();
+                }
+            } else if (segments != null && !reserve(total)) {
+                thresholdReached();
+            }
+        }
+        super.checkThreshold(count);
+    }
+
+    /**
+     * Makes sure the off-heap segments can hold {@code total} bytes.
+     *
+     * @param total The number of bytes to hold.
+     * @return whether the pool supplied enough segments.
+     */
+    private boolean reserve(final long total) {
+        if (pool == null) {
+            return false;
+        }
+        if (segments == null) {
+            segments = new ArrayList<>();
+        }
+        final long needed = (total + pool.getSegmentSize() - 1) / pool.getSegmentSize();
+        while (segments.size() < needed) {
+            final ByteBuffer segment = pool.tryAcquire();
+            if (segment == null) {
+                return false;
+            }
+            segments.add(segment);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the off-heap segments to the pool.
+     */
+    private void releaseSegments() {
+        if (segments != null) {
+            segments.forEach(pool::release);
+            segments = null;
+        }
+    }
+
+    /**
+     * Returns the current output stream. This may be heap, off-heap or disk
+     * based, depending on the current state with respect to the thresholds.
+     *
+     * @return The underlying output stream.
+     */
+    @Override
+    protected OutputStream getStream() {
+        return currentOutputStream;
+    }
+
+    /**
+     * Switches the underlying output stream to one that is backed by disk,
+     * moving the data written so far from the heap or off-heap tier.
+     *
+     * @throws IOException if an error occurs.
+     */
+    @Override
+    protected void thresholdReached() throws IOException {
+        if (currentOutputStream instanceof FileOutputStream) {
+            return;
+        }
+        if (prefix != null) {
+            outputFile = File.createTempFile(prefix, suffix, directory);
+        }
+        FileUtils.forceMkdirParent(outputFile);
+        final FileOutputStream fos = new FileOutputStream(outputFile);
+        try {
+            if (memoryOutputStream != null) {
+                memoryOutputStream.writeTo(fos);
+            } else {
+                final FileChannel channel = fos.getChannel();
+                for (final ByteBuffer segment : filledSegments()) {
+                    while (segment.hasRemaining()) {
+                        channel.write(segment);
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            fos.close();
+            throw e;
+        }
+        currentOutputStream = fos;
+        memoryOutputStream = null;
+        releaseSegments();
+    }
+
+    /**
+     * Gets read views of the filled part of each off-heap segment.
+     *
+     * @return the views.
+     */
+    private List<ByteBuffer> filledSegments() {
+        final List<ByteBuffer> list = new ArrayList<>(segments.size());
+        for (final ByteBuffer segment : segments) {
+            if (segment.position() == 0) {
+                break;
+            }
+            final ByteBuffer view = segment.duplicate();
+            view.flip();
+            list.add(view);
+        }
+        return list;
+    }
+
+    /**
+     * Determines whether or not the data for this output stream has been
+     * retained in memory, on or off the heap.
+     *
+     * @return {@code true} if the data is available in memory;
+     *         {@code false} otherwise.
+     */
+    public boolean isInMemory() {
+        return !(currentOutputStream instanceof FileOutputStream);
+    }
+
+    /**
+     * Determines whether or not the data for this output stream has been
+     * retained in off-heap memory.
+     *
+     * @return {@code true} if the data is held off-heap; {@code false} otherwise.
+     */
+    public boolean isOffHeap() {
+        return currentOutputStream instanceof SegmentsOutputStream;
+    }
+
+    /**
+     * Returns either the output file specified in the constructor or
+     * the temporary file created or null.
+     *
+     * @return The file for this output stream, or {@code null} if no such
+     *         file exists.
+     */
+    public File getFile() {
+        return outputFile;
+    }
+
+    /**
+     * Returns the data for this output stream as an array of bytes, whichever
+     * tier holds it. Data on disk is read back from the file.
+     *
+     * @return The data for this output stream.
+     * @throws IOException if the data has been released or cannot be read from disk.
+     */
+    public byte[] getData() throws IOException {
+        if (memoryOutputStream != null) {
+            return memoryOutputStream.toByteArray();
+        }
+        if (isOffHeap()) {
+            checkNotReleased();
+            final byte[] data = new byte[(int) getByteCount()];
+            int pos = 0;
+            for (final ByteBuffer segment : filledSegments()) {
+                final int n = segment.remaining();
+                segment.get(data, pos, n);
+                pos += n;
+            }
+            return data;
+        }
+        return Files.readAllBytes(outputFile.toPath());
+    }
+
+    /**
+     * Closes underlying output stream, and mark this as closed. Off-heap
+     * segments stay allocated until {@link #release()} is called.
+     *
+     * @throws IOException if an error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        super.close();
+        closed = true;
+    }
+
+    /**
+     * Returns the off-heap segments held by this stream to the pool. The data
+     * is not available from this stream afterwards if it was held off-heap,
+     * and writing to this stream then throws an {@link IOException}.
+     * Data held on the heap or on disk is not affected.
+     */
+    public void release() {
+        if (isOffHeap()) {
+            released = true;
+            releaseSegments();
+        }
+    }
+
+    private void checkNotReleased() throws IOException {
+        if (released) {
+            throw new IOException("Off-heap data has been released");
+        }
+    }
+
+    /**
+     * Writes the data from this output stream to the specified output stream,
+     * after it has been closed.
+     *
+     * @param out output stream to write to.
+     * @throws IOException if this stream is not yet closed, its data has been
+     * released or an error occurs.
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        if (!closed) {
+            throw new IOException("Stream not closed");
+        }
+        if (memoryOutputStream != null) {
+            memoryOutputStream.writeTo(out);
+        } else if (isOffHeap()) {
+            checkNotReleased();
+            final byte[] chunk = new byte[Math.min(pool.getSegmentSize(), IOUtils.DEFAULT_BUFFER_SIZE)];
+            for (final ByteBuffer segment : filledSegments()) {
+                while (segment.hasRemaining()) {
+                    final int n = Math.min(chunk.length, segment.remaining());
+                    segment.get(chunk, 0, n);
+                    out.write(chunk, 0, n);
+                }
+            }
+        } else {
+            Files.copy(outputFile.toPath(), out);
+        }
+    }
+}
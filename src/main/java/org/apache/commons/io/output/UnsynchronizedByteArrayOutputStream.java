@@ -21,6 +21,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Objects;
 
 /**
  * Implements a version of {@link AbstractByteArrayOutputStream} <b>without</b> any concurrent thread safety.
@@ -51,6 +52,19 @@ public UnsynchronizedByteArrayOutputStream(final int size) {
         needNewBuffer(size);
     }
 
+    /**
+     * Creates a new byte array output stream that takes its buffers from the given pool and returns them when
+     * closed.
+     *
+     * @param pool the pool to allocate buffers from
+     * @throws NullPointerException if the pool is null
+     * @since 2.9.0
+     */
+    public UnsynchronizedByteArrayOutputStream(final ByteArraySegmentPool pool) {
+        super(Objects.requireNonNull(pool, "pool"));
+        needNewBuffer(pool.getSegmentSize());
+    }
+
     @Override
     public void write(final byte[] b, final int off, final int len) {
         if ((off < 0) || (off > b.length) || (len < 0) || ((off + len) > b.length) || ((off + len) < 0)) {
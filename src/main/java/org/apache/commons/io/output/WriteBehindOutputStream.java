@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * An output stream that copies writes into pooled buffers and writes them to the underlying stream on a background
+ * thread.
+ * <p>
+ * Writes only block when the bounded queue of pending buffers is full. The background writer drains all the
+ * buffers queued at a time and writes them together: with one gathering write of the {@link FileChannel} when the
+ * underlying stream is a {@link FileOutputStream}, otherwise with one write per buffer.
+ * </p>
+ * <p>
+ * {@link #flush()} is a barrier: it returns once everything written before it has been written to and flushed by
+ * the underlying stream. {@link #close()} drains the queue, then closes the underlying stream. An optional sync
+ * policy forces the data of a {@link FileOutputStream} to the storage device every given number of bytes and/or
+ * milliseconds, and on close; it has no effect on other streams.
+ * </p>
+ * <p>
+ * A failure of the underlying stream is rethrown by the next call to this stream; data written after the failure
+ * is discarded. The methods of this class are synchronized, so several threads may share one instance. The
+ * stream must be closed to stop the background writer.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public class WriteBehindOutputStream extends OutputStream {
+
+    /**
+     * A queued buffer, or a barrier when {@code barrier} is not null.
+     */
+    private static final class Entry {
+
+        final byte[] buffer;
+        final int length;
+        final CountDownLatch barrier;
+        final boolean close;
+
+        Entry(final byte[] buffer, final int length) {
+            this.buffer = buffer;
+            this.length = length;
+            this.barrier = null;
+            this.close = false;
+        }
+
+        Entry(final boolean close) {
+            this.buffer = null;
+            this.length = 0;
+            this.barrier = new CountDownLatch(1);
+            this.close = close;
+        }
+    }
+
+    /** The default capacity of the queue. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private final OutputStream out;
+
+    /** The channel of a {@link FileOutputStream}, used for gathering writes and sync; null otherwise. */
+    private final FileChannel channel;
+
+    private final ByteArraySegmentPool pool;
+
+    private final BlockingQueue<Entry> queue;
+
+    private final long syncIntervalBytes;
+
+    private final long syncIntervalNanos;
+
+    /** The buffer being filled by the producers, null if none. */
+    private byte[] buffer;
+
+    private int count;
+
+    /** Whether the close barrier has been queued. */
+    private boolean closing;
+
+    private boolean closed;
+
+    private volatile IOException failure;
+
+    /** Counted down when the writer has stopped, normally or not. */
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Constructs a new instance with buffers of {@link IOUtils#DEFAULT_BUFFER_SIZE} bytes, a queue of
+     * {@link #DEFAULT_QUEUE_CAPACITY}, no sync policy, and a dedicated writer thread.
+     *
+     * @param out the stream to write to.
+     */
+    public WriteBehindOutputStream(final OutputStream out) {
+        this(out, IOUtils.DEFAULT_BUFFER_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs a new instance with no sync policy and a dedicated writer thread.
+     *
+     * @param out the stream to write to.
+     * @param bufferSize the size of each buffer.
+     * @param queueCapacity the maximum number of buffers waiting to be written.
+     * @throws IllegalArgumentException if {@code bufferSize} or {@code queueCapacity} is not positive.
+     */
+    public WriteBehindOutputStream(final OutputStream out, final int bufferSize, final int queueCapacity) {
+        this(out, new ByteArraySegmentPool(bufferSize, queueCapacity + 1), queueCapacity, 0, 0, null);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param out the stream to write to.
+     * @param pool the pool supplying the buffers, may be shared with other streams.
+     * @param queueCapacity the maximum number of buffers waiting to be written.
+     * @param syncIntervalBytes sync after this many bytes have been written since the last sync, 0 to disable.
+     * @param syncIntervalMillis sync when this many milliseconds have passed since the last sync and data has been
+     *        written since, 0 to disable.
+     * @param executor the executor running the writer, or null to start a dedicated daemon thread.
+     * @throws IllegalArgumentException if {@code queueCapacity} is not positive or a sync interval is negative.
+     */
+    public WriteBehindOutputStream(final OutputStream out, final ByteArraySegmentPool pool, final int queueCapacity,
+        final long syncIntervalBytes, final long syncIntervalMillis, final Executor executor) {
+        this.out = Objects.requireNonNull(out, "out");
+        this.pool = Objects.requireNonNull(pool, "pool");
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        if (syncIntervalBytes < 0 || syncIntervalMillis < 0) {
+            throw new IllegalArgumentException(
+                "Negative sync interval: " + syncIntervalBytes + " bytes, " + syncIntervalMillis + " ms");
+        }
+        // subclasses may override the write methods, only use the channel of a plain FileOutputStream
+        this.channel = out.getClass() == FileOutputStream.class ? ((FileOutputStream) out).getChannel() : null;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.syncIntervalBytes = syncIntervalBytes;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        if (executor == null) {
+            final Thread thread = new Thread(this::drain, "commons-io-write-behind");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void await(final CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closing) {
+            throw new IOException("Stream closed");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        final IOException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all pending data, flushes and closes the underlying stream, and stops the background writer.
+     *
+     * @throws IOException if the underlying stream failed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (!closing) {
+            enqueueBuffer();
+            enqueue(new Entry(true));
+            closing = true;
+        }
+        // if interrupted, the next call only waits for the writer
+        await(stopped);
+        closed = true;
+        checkFailure();
+    }
+
+    /**
+     * The writer task. If it stops abnormally, the failure is recorded, the underlying stream is closed, and the
+     * entries still queued are released so that no producer waits forever.
+     */
+    private void drain() {
+        try {
+            drainUntilClosed();
+        } catch (final RuntimeException | Error e) {
+            writerFailed(e);
+            try {
+                out.close();
+            } catch (final IOException | RuntimeException ignored) {
+                // the writer failure is reported instead
+            }
+            throw e;
+        } finally {
+            stopped.countDown();
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                release(entry);
+            }
+        }
+    }
+
+    private void writerFailed(final Throwable e) {
+        if (failure == null) {
+            failure = new IOException("Write-behind writer failed", e);
+        }
+    }
+
+    /**
+     * Writes queued buffers in batches until the close barrier.
+     */
+    private void drainUntilClosed() {
+        final List<Entry> batch = new ArrayList<>();
+        long unsyncedBytes = 0;
+        long lastSync = System.nanoTime();
+        while (true) {
+            Entry first;
+            try {
+                if (syncIntervalNanos > 0 && unsyncedBytes > 0) {
+                    first = queue.poll(syncIntervalNanos - (System.nanoTime() - lastSync), TimeUnit.NANOSECONDS);
+                } else {
+                    first = queue.take();
+                }
+            } catch (final InterruptedException e) {
+                // only close() stops the writer, since producers may be waiting on a barrier
+                continue;
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch);
+            }
+            int start = 0;
+            try {
+                for (int i = 0; i <= batch.size(); i++) {
+                    final Entry entry = i < batch.size() ? batch.get(i) : null;
+                    if (entry != null && entry.barrier == null) {
+                        continue;
+                    }
+                    final int from = start;
+                    // write() returns the buffers to the pool, even if it fails
+                    start = i;
+                    unsyncedBytes += write(batch, from, i);
+                    if (entry != null) {
+                        if (entry.close) {
+                            closeUnderlying(unsyncedBytes > 0 && (syncIntervalBytes > 0 || syncIntervalNanos > 0));
+                            entry.barrier.countDown();
+                            return;
+                        }
+                        flushUnderlying();
+                        entry.barrier.countDown();
+                    }
+                    start = i + 1;
+                }
+            } catch (final RuntimeException | Error e) {
+                // record the failure before opening the barriers
+                writerFailed(e);
+                for (int i = start; i < batch.size(); i++) {
+                    release(batch.get(i));
+                }
+                throw e;
+            }
+            batch.clear();
+            if (unsyncedBytes > 0 && (syncIntervalBytes > 0 && unsyncedBytes >= syncIntervalBytes
+                || syncIntervalNanos > 0 && System.nanoTime() - lastSync >= syncIntervalNanos)) {
+                sync();
+                unsyncedBytes = 0;
+                lastSync = System.nanoTime();
+            }
+        }
+    }
+
+    private void closeUnderlying(final boolean sync) {
+        if (sync) {
+            sync();
+        }
+        try {
+            out.close();
+        } catch (final IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    private void enqueue(final Entry entry) throws IOException {
+        try {
+            queue.put(entry);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        // the writer releases what is queued when it stops, and the entry may have come after
+        if (stopped.getCount() == 0 && queue.remove(entry)) {
+            release(entry);
+        }
+    }
+
+    private void enqueueBuffer() throws IOException {
+        if (count > 0) {
+            final Entry entry = new Entry(buffer, count);
+            buffer = null;
+            count = 0;
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * Waits until everything written so far has been written to and flushed by the underlying stream.
+     *
+     * @throws IOException if the underlying stream failed.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        checkOpen();
+        enqueueBuffer();
+        final Entry barrier = new Entry(false);
+        enqueue(barrier);
+        await(barrier.barrier);
+        checkFailure();
+    }
+
+    private void flushUnderlying() {
+        if (failure == null) {
+            try {
+                out.flush();
+            } catch (final IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Releases an entry the writer will not handle: returns its buffer to the pool, or opens its barrier.
+     */
+    private void release(final Entry entry) {
+        if (entry.barrier != null) {
+            entry.barrier.countDown();
+        } else {
+            pool.release(entry.buffer);
+        }
+    }
+
+    private void sync() {
+        if (failure == null && channel != null) {
+            try {
+                channel.force(false);
+            } catch (final IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException(String.format("offset=%,d, length=%,d", off, len));
+        }
+        checkOpen();
+        int pos = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (buffer == null) {
+                buffer = pool.acquire();
+            }
+            final int n = Math.min(remaining, buffer.length - count);
+            System.arraycopy(b, pos, buffer, count, n);
+            count += n;
+            pos += n;
+            remaining -= n;
+            if (count == buffer.length) {
+                enqueueBuffer();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void write(final int b) throws IOException {
+        checkOpen();
+        if (buffer == null) {
+            buffer = pool.acquire();
+        }
+        buffer[count++] = (byte) b;
+        if (count == buffer.length) {
+            enqueueBuffer();
+        }
+    }
+
+    /**
+     * Writes the data entries of the batch in the given range and returns their buffers to the pool.
+     *
+     * @return the number of bytes written.
+     */
+    private long write(final List<Entry> batch, final int from, final int to) {
+        if (from >= to) {
+            return 0;
+        }
+        long total = 0;
+        try {
+            if (failure != null) {
+                return 0;
+            }
+            if (channel != null) {
+                final ByteBuffer[] buffers = new ByteBuffer[to - from];
+                for (int i = from; i < to; i++) {
+                    final Entry entry = batch.get(i);
+                    buffers[i - from] = ByteBuffer.wrap(entry.buffer, 0, entry.length);
+                    total += entry.length;
+                }
+                long remaining = total;
+                while (remaining > 0) {
+                    remaining -= channel.write(buffers);
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    final Entry entry = batch.get(i);
+                    out.write(entry.buffer, 0, entry.length);
+                    total += entry.length;
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            failure = e instanceof IOException ? (IOException) e : new IOException(e);
+            return 0;
+        } finally {
+            for (int i = from; i < to; i++) {
+                pool.release(batch.get(i).buffer);
+            }
+        }
+        return total;
+    }
+}
@@ -25,6 +25,9 @@
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
 
 /**
  * {@link OutputStream} implementation that transforms a byte stream to a
@@ -64,6 +67,10 @@
  * API only accepts an {@link OutputStream} object, but where the stream is known to represent
  * character data that must be decoded for further use.
  * <p>
+ * Writes longer than the internal input buffer are decoded straight from the caller's array. For US-ASCII,
+ * ISO-8859-1 and UTF-8, runs of bytes that map to a single character are copied without the decoder.
+ * {@link #reset(Writer)} lets an instance, and its buffers, be reused for another writer.
+ * <p>
  * Instances of {@link WriterOutputStream} are not thread safe.
  *
  * @see org.apache.commons.io.input.ReaderInputStream
@@ -71,16 +78,22 @@
  * @since 2.0
  */
 public class WriterOutputStream extends OutputStream {
-    private static final int BUFFER_SIZE = 1024;
+    private static final int BUFFER_SIZE = IOUtils.DEFAULT_BUFFER_SIZE;
 
-    private final Writer writer;
+    private Writer writer;
     private final CharsetDecoder decoder;
     private final boolean writeImmediately;
 
+    /**
+     * The first byte value that the fast path does not copy as a character: 0x80 for US-ASCII and UTF-8, 0x100 for
+     * ISO-8859-1, 0 to always use the decoder.
+     */
+    private final int singleCharLimit;
+
     /**
      * ByteBuffer used as input for the decoder. This buffer can be small
-     * as it is used only to transfer the received data to the
-     * decoder.
+     * as it is used only to transfer short writes and incomplete byte
+     * sequences to the decoder; longer writes are decoded in place.
      */
     private final ByteBuffer decoderIn = ByteBuffer.allocate(128);
 
@@ -123,9 +136,17 @@ public WriterOutputStream(final Writer writer, final CharsetDecoder decoder, fin
         this.writer = writer;
         this.decoder = decoder;
         this.writeImmediately = writeImmediately;
+        this.singleCharLimit = singleCharLimit(decoder.charset());
         decoderOut = CharBuffer.allocate(bufferSize);
     }
 
+    private static int singleCharLimit(final Charset charset) {
+        if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.UTF_8.equals(charset)) {
+            return 0x80;
+        }
+        return StandardCharsets.ISO_8859_1.equals(charset) ? 0x100 : 0;
+    }
+
     /**
      * Constructs a new {@link WriterOutputStream}.
      *
@@ -213,6 +234,13 @@ public WriterOutputStream(final Writer writer) {
      */
     @Override
     public void write(final byte[] b, int off, int len) throws IOException {
+        if (decoderIn.position() == 0 && len > decoderIn.capacity()) {
+            // nothing pending: decode in place, only an incomplete sequence at the end is left over
+            final ByteBuffer in = ByteBuffer.wrap(b, off, len);
+            decode(in, false);
+            off = in.position();
+            len = in.remaining();
+        }
         while (len > 0) {
             final int c = Math.min(len, decoderIn.remaining());
             decoderIn.put(b, off, c);
@@ -244,7 +272,11 @@ public void write(final byte[] b) throws IOException {
      */
     @Override
     public void write(final int b) throws IOException {
-        write(new byte[] { (byte)b }, 0, 1);
+        decoderIn.put((byte) b);
+        processInput(false);
+        if (writeImmediately) {
+            flushOutput();
+        }
     }
 
     /**
@@ -281,9 +313,25 @@ public void close() throws IOException {
     private void processInput(final boolean endOfInput) throws IOException {
         // Prepare decoderIn for reading
         decoderIn.flip();
+        decode(decoderIn, endOfInput);
+        // Discard the bytes that have been read
+        decoderIn.compact();
+    }
+
+    /**
+     * Decode bytes into the output buffer, flushing it as it fills up.
+     *
+     * @param in the bytes to decode, ready for reading
+     * @param endOfInput indicates end of input
+     * @throws IOException if an I/O error occurs
+     */
+    private void decode(final ByteBuffer in, final boolean endOfInput) throws IOException {
         CoderResult coderResult;
         while (true) {
-            coderResult = decoder.decode(decoderIn, decoderOut, endOfInput);
+            if (singleCharLimit != 0) {
+                decodeSingleChars(in);
+            }
+            coderResult = decoder.decode(in, decoderOut, endOfInput);
             if (coderResult.isOverflow()) {
                 flushOutput();
             } else if (coderResult.isUnderflow()) {
@@ -294,8 +342,46 @@ private void processInput(final boolean endOfInput) throws IOException {
                 throw new IOException("Unexpected coder result");
             }
         }
-        // Discard the bytes that have been read
-        decoderIn.compact();
+    }
+
+    /**
+     * Copies the leading run of bytes that decode to a single character of the same value, bypassing the decoder.
+     * Bytes of an incomplete multi-byte sequence are never in that range, so they are left to the decoder.
+     *
+     * @param in the bytes to decode, ready for reading
+     */
+    private void decodeSingleChars(final ByteBuffer in) {
+        final byte[] src = in.array();
+        final char[] dst = decoderOut.array();
+        int i = in.arrayOffset() + in.position();
+        int j = decoderOut.position();
+        final int end = i + Math.min(in.remaining(), decoderOut.remaining());
+        if (singleCharLimit == 0x100) {
+            while (i < end) {
+                dst[j++] = (char) (src[i++] & 0xFF);
+            }
+        } else {
+            while (i < end && src[i] >= 0) {
+                dst[j++] = (char) src[i++];
+            }
+        }
+        in.position(i - in.arrayOffset());
+        decoderOut.position(j);
+    }
+
+    /**
+     * Resets this stream to write to another writer, discarding any buffered data and resetting the decoder, so
+     * that the instance and its buffers can be reused, for example from a pool. The current writer is neither
+     * flushed nor closed.
+     *
+     * @param writer the new {@link Writer}
+     * @since 2.9.0
+     */
+    public void reset(final Writer writer) {
+        this.writer = writer;
+        decoder.reset();
+        decoderIn.clear();
+        decoderOut.clear();
     }
 
     /**
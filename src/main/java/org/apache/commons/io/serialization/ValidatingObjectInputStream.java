@@ -138,9 +138,7 @@ public ValidatingObjectInputStream reject(final Class<?>... classes) {
      * @return this object
      */
     public ValidatingObjectInputStream accept(final String... patterns) {
-        for (final String pattern : patterns) {
-            acceptMatchers.add(new WildcardClassNameMatcher(pattern));
-        }
+        acceptMatchers.add(new WildcardClassNameMatcher(patterns));
         return this;
     }
 
@@ -153,9 +151,7 @@ public ValidatingObjectInputStream accept(final String... patterns) {
      * @return this object
      */
     public ValidatingObjectInputStream reject(final String... patterns) {
-        for (final String pattern : patterns) {
-            rejectMatchers.add(new WildcardClassNameMatcher(pattern));
-        }
+        rejectMatchers.add(new WildcardClassNameMatcher(patterns));
         return this;
     }
 
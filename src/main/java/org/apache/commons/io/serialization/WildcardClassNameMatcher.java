@@ -19,6 +19,8 @@
 package org.apache.commons.io.serialization;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.WildcardMatcher;
 
 /**
  * A {@link ClassNameMatcher} that uses simplified regular expressions
@@ -29,19 +31,20 @@
  */
 final class WildcardClassNameMatcher implements ClassNameMatcher {
 
-    private final String pattern;
+    private final WildcardMatcher matcher;
 
     /**
-     * Constructs an object based on the specified simplified regular expression.
+     * Constructs an object based on the specified simplified regular expressions, matching a class name if any of
+     * them matches.
      *
-     * @param pattern a {@link FilenameUtils#wildcardMatch} pattern.
+     * @param patterns {@link FilenameUtils#wildcardMatch} patterns, compiled once into a single matcher.
      */
-    public WildcardClassNameMatcher(final String pattern) {
-        this.pattern = pattern;
+    public WildcardClassNameMatcher(final String... patterns) {
+        this.matcher = WildcardMatcher.compile(IOCase.SENSITIVE, patterns);
     }
 
     @Override
     public boolean matches(final String className) {
-        return FilenameUtils.wildcardMatch(className, pattern);
+        return matcher.matches(className);
     }
 }
\ No newline at end of file
@@ -18,21 +18,31 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.NameFileFilter;
 import org.apache.commons.io.filefilter.OrFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * This is used to test DirectoryWalker for correctness.
@@ -70,6 +80,9 @@ public class DirectoryWalkerTestCase {
     // Filter to exclude SVN files
     private static final IOFileFilter NOT_SVN = FileFilterUtils.makeSVNAware(null);
 
+    @TempDir
+    public Path tempDir;
+
     //-----------------------------------------------------------------------
 
     /**
@@ -361,6 +374,183 @@ public void testMultiThreadCancel() {
 
     }
 
+    /**
+     * Test the parallel walk finds the same files as the sequential walk
+     */
+    @Test
+    public void testParallel() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (final IOFileFilter filter : new IOFileFilter[] {dirsAndFilesFilter, NOT_SVN, null}) {
+                final TestFileFinder finder = new TestFileFinder(filter, -1);
+                final List<File> expected = finder.find(javaDir);
+                final List<File> results = finder.findParallel(javaDir, pool);
+                assertEquals(expected.size(), results.size(), "Result Size");
+                assertEquals(new HashSet<>(expected), new HashSet<>(results), "Results");
+            }
+            assertEquals(1, new TestFileFinder(NOT_SVN, 0).findParallel(javaDir, pool).size(), "Limit");
+            assertEquals(0, new TestFalseFileFinder(null, -1).findParallel(current, pool).size(), "False");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test the parallel walk ends a directory after all its contents
+     */
+    @Test
+    public void testParallelDirectoryEndAfterContents() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final List<File> results = new TestFileFinder(NOT_SVN, -1).findParallel(javaDir, pool);
+            final HashSet<File> ended = new HashSet<>();
+            for (final File file : results) {
+                assertFalse(ended.contains(file.getParentFile()), "Ended before " + file);
+                if (file.isDirectory()) {
+                    ended.add(file);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test cancelling the parallel walk
+     */
+    @Test
+    public void testParallelCancel() throws IOException {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Cancel on a file
+            String cancelName = "DirectoryWalker.java";
+            try {
+                new TestCancelWalker(cancelName, false).findParallel(javaDir, pool);
+                fail("CancelException not thrown for '" + cancelName + "'");
+            } catch (final DirectoryWalker.CancelException cancel) {
+                assertEquals(cancelName, cancel.getFile().getName(), "File:  " + cancelName);
+                assertEquals(5, cancel.getDepth(), "Depth: " + cancelName);
+            }
+
+            // Cancel on a directory
+            cancelName = "commons";
+            try {
+                new TestCancelWalker(cancelName, false).findParallel(javaDir, pool);
+                fail("CancelException not thrown for '" + cancelName + "'");
+            } catch (final DirectoryWalker.CancelException cancel) {
+                assertEquals(cancelName, cancel.getFile().getName(), "File:  " + cancelName);
+                assertEquals(3, cancel.getDepth(), "Depth: " + cancelName);
+            }
+
+            // Suppress CancelException, nothing is handled after it
+            final List<File> results = new TestCancelWalker(cancelName, true).findParallel(javaDir, pool);
+            assertEquals(cancelName, results.get(results.size() - 1).getName(), "Suppress:  " + cancelName);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test the NIO walk finds the same files as the File walk
+     */
+    @Test
+    public void testPathWalk() {
+        for (final IOFileFilter filter : new IOFileFilter[] {dirsAndFilesFilter, NOT_SVN, null}) {
+            for (final int depthLimit : new int[] {-1, 0, 1, 3}) {
+                final TestFileFinder finder = new TestFileFinder(filter, depthLimit);
+                final List<File> expected = finder.find(javaDir);
+                final List<File> results = finder.findPath(javaDir.toPath());
+                assertEquals(expected.size(), results.size(), "Result Size " + depthLimit);
+                assertEquals(new HashSet<>(expected), new HashSet<>(results), "Results " + depthLimit);
+            }
+        }
+        assertEquals(0, new TestFalseFileFinder(null, -1).findPath(current.toPath()).size(), "False");
+    }
+
+    /**
+     * Test the NIO walk hands the attributes it read to the callbacks
+     */
+    @Test
+    public void testPathWalkAttributes() {
+        final List<File> results = new TestFileFinder(NOT_SVN, -1) {
+            @Override
+            protected boolean handleDirectory(final Path directory, final BasicFileAttributes attributes,
+                    final int depth, final Collection<File> results) {
+                assertTrue(attributes.isDirectory(), directory.toString());
+                return true;
+            }
+
+            @Override
+            protected void handleFile(final Path file, final BasicFileAttributes attributes, final int depth,
+                    final Collection<File> results) {
+                assertTrue(attributes.isRegularFile(), file.toString());
+                assertEquals(file.toFile().length(), attributes.size(), file.toString());
+                results.add(file.toFile());
+            }
+        }.findPath(javaDir.toPath());
+        assertTrue(results.contains(ioUtils), "IOUtils");
+        assertTrue(results.contains(ioDir), "io");
+    }
+
+    /**
+     * Test the NIO walk reports symbolic links to files as files, through directory and file filters
+     */
+    @Test
+    public void testPathWalkSymbolicLink() throws IOException {
+        final Path dir = Files.createDirectory(tempDir.resolve("dir"));
+        final Path file = Files.write(dir.resolve("file.txt"), new byte[1]);
+        try {
+            Files.createSymbolicLink(dir.resolve("link.txt"), file);
+        } catch (final UnsupportedOperationException | IOException e) {
+            // no links here
+            return;
+        }
+        final TestFileFinder finder = new TestFileFinder(TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE, -1);
+        final List<File> expected = finder.find(tempDir.toFile());
+        final List<File> results = finder.findPath(tempDir);
+        assertTrue(results.contains(dir.resolve("link.txt").toFile()), results.toString());
+        assertEquals(new HashSet<>(expected), new HashSet<>(results));
+    }
+
+    /**
+     * Test the NIO walk of a missing start directory
+     */
+    @Test
+    public void testPathWalkMissing() {
+        final TestFileFinder finder = new TestFileFinder(null, -1);
+        assertThrows(NoSuchFileException.class, () -> finder.walk(tempDir.resolve("missing"), new ArrayList<>()));
+    }
+
+    /**
+     * Test cancelling the NIO walk
+     */
+    @Test
+    public void testPathWalkCancel() throws IOException {
+        // Cancel on a file
+        String cancelName = "DirectoryWalker.java";
+        try {
+            new TestCancelWalker(cancelName, false).findPath(javaDir.toPath());
+            fail("CancelException not thrown for '" + cancelName + "'");
+        } catch (final DirectoryWalker.CancelException cancel) {
+            assertEquals(cancelName, cancel.getFile().getName(), "File:  " + cancelName);
+            assertEquals(5, cancel.getDepth(), "Depth: " + cancelName);
+        }
+
+        // Cancel on a directory
+        cancelName = "commons";
+        try {
+            new TestCancelWalker(cancelName, false).findPath(javaDir.toPath());
+            fail("CancelException not thrown for '" + cancelName + "'");
+        } catch (final DirectoryWalker.CancelException cancel) {
+            assertEquals(cancelName, cancel.getFile().getName(), "File:  " + cancelName);
+            assertEquals(3, cancel.getDepth(), "Depth: " + cancelName);
+        }
+
+        // Suppress CancelException (use same file name as preceding test)
+        final List<File> results = new TestCancelWalker(cancelName, true).findPath(javaDir.toPath());
+        assertEquals(cancelName, results.get(results.size() - 1).getName(), "Suppress:  " + cancelName);
+    }
+
     /**
      * Test Filtering
      */
@@ -399,6 +589,28 @@ protected List<File> find(final File startDirectory) {
            return results;
         }
 
+        /** find files with the NIO walk. */
+        protected List<File> findPath(final Path startDirectory) {
+           final List<File> results = new ArrayList<>();
+           try {
+               walk(startDirectory, results);
+           } catch(final IOException ex) {
+               fail(ex.toString());
+           }
+           return results;
+        }
+
+        /** find files in parallel. */
+        protected List<File> findParallel(final File startDirectory, final ForkJoinPool pool) {
+           final Collection<File> results = new ConcurrentLinkedQueue<>();
+           try {
+               walk(startDirectory, results, pool);
+           } catch(final IOException ex) {
+               fail(ex.toString());
+           }
+           return new ArrayList<>(results);
+        }
+
         /** Handles a directory end by adding the File to the result set. */
         @Override
         protected void handleDirectoryEnd(final File directory, final int depth, final Collection<File> results) {
@@ -454,6 +666,20 @@ protected List<File> find(final File startDirectory) throws IOException {
            return results;
         }
 
+        /** find files with the NIO walk. */
+        protected List<File> findPath(final Path startDirectory) throws IOException {
+           final List<File> results = new ArrayList<>();
+           walk(startDirectory, results);
+           return results;
+        }
+
+        /** find files in parallel. */
+        protected List<File> findParallel(final File startDirectory, final ForkJoinPool pool) throws IOException {
+           final Collection<File> results = new ConcurrentLinkedQueue<>();
+           walk(startDirectory, results, pool);
+           return new ArrayList<>(results);
+        }
+
         /** Handles a directory end by adding the File to the result set. */
         @Override
         protected void handleDirectoryEnd(final File directory, final int depth, final Collection<File> results) throws IOException {
@@ -25,6 +25,9 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
@@ -189,5 +192,74 @@ public void testListFiles() throws Exception {
         }
     }
 
+    @Test
+    public void testIterateFilesSameOrderAsListFiles() throws Exception {
+        final IOFileFilter dirFilter = FileFilterUtils.makeCVSAware(null);
+        assertEquals(new ArrayList<>(FileUtils.listFiles(temporaryFolder, FileFilterUtils.trueFileFilter(), dirFilter)),
+            toList(FileUtils.iterateFiles(temporaryFolder, FileFilterUtils.trueFileFilter(), dirFilter)));
+        assertEquals(
+            new ArrayList<>(FileUtils.listFilesAndDirs(temporaryFolder, FileFilterUtils.trueFileFilter(), dirFilter)),
+            toList(FileUtils.iterateFilesAndDirs(temporaryFolder, FileFilterUtils.trueFileFilter(), dirFilter)));
+        assertEquals(new ArrayList<>(FileUtils.listFiles(temporaryFolder, new String[] {"xml", "txt"}, true)),
+            toList(FileUtils.iterateFiles(temporaryFolder, new String[] {"xml", "txt"}, true)));
+    }
+
+    @Test
+    public void testStreamFiles() throws Exception {
+        final List<File> expected = new ArrayList<>(
+            FileUtils.listFiles(temporaryFolder, FileFilterUtils.trueFileFilter(), FileFilterUtils.trueFileFilter()));
+        assertEquals(expected, FileUtils.streamFiles(temporaryFolder, FileFilterUtils.trueFileFilter(),
+            FileFilterUtils.trueFileFilter()).collect(Collectors.toList()));
+        assertEquals(expected, FileUtils.streamFiles(temporaryFolder, true, (String[]) null)
+            .collect(Collectors.toList()));
+        assertEquals(expected, FileUtils.streamFiles(temporaryFolder, true).collect(Collectors.toList()));
+        assertEquals(expected, FileUtils.streamFiles(temporaryFolder, FileFilterUtils.trueFileFilter(),
+            FileFilterUtils.trueFileFilter()).parallel().collect(Collectors.toList()));
+
+        final Collection<String> filenames = FileUtils.streamFiles(temporaryFolder, false, "xml", "txt")
+            .map(File::getName).collect(Collectors.toList());
+        assertEquals(1, filenames.size());
+        assertTrue(filenames.contains("dummy-build.xml"));
+
+        assertEquals(expected.get(0), FileUtils.streamFiles(temporaryFolder, FileFilterUtils.trueFileFilter(),
+            FileFilterUtils.trueFileFilter()).findFirst().get());
+
+        try {
+            FileUtils.streamFiles(temporaryFolder, null, null);
+            fail("Expected error about null parameter");
+        } catch (final NullPointerException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSpliteratorSplitsIntoPrefixes() throws Exception {
+        final List<File> expected = new ArrayList<>(
+            FileUtils.listFilesAndDirs(temporaryFolder, FileFilterUtils.trueFileFilter(), FileFilterUtils.trueFileFilter()));
+        for (int advance = 0; advance < expected.size(); advance++) {
+            final Spliterator<File> suffix = new FileTreeSpliterator(temporaryFolder, null, true);
+            final List<File> results = new ArrayList<>();
+            for (int i = 0; i < advance; i++) {
+                assertTrue(suffix.tryAdvance(results::add));
+            }
+            // split until no more, the prefixes come first
+            final List<Spliterator<File>> parts = new ArrayList<>();
+            Spliterator<File> prefix;
+            while ((prefix = suffix.trySplit()) != null) {
+                parts.add(prefix);
+            }
+            parts.add(suffix);
+            for (final Spliterator<File> part : parts) {
+                part.forEachRemaining(results::add);
+            }
+            assertEquals(expected, results, "advance " + advance);
+        }
+    }
+
+    private static List<File> toList(final Iterator<File> iterator) {
+        final List<File> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
 
 }
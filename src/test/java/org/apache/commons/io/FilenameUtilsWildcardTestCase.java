@@ -193,9 +193,9 @@ public void test_IO_246() {
 
         // Tests for "*?"
         assertMatch("aaa", "aa*?", true);
-        // these ought to work as well, but "*?" does not work properly at present
-//      assertMatch("aaa", "a*?", true);
-//      assertMatch("aaa", "*?", true);
+        assertMatch("aaa", "a*?", true);
+        assertMatch("aaa", "*?", true);
+        assertMatch("", "*?", false);
 
         // Tests for "?*"
         assertMatch("",    "?*",   false);
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link MultiDigest}.
+ */
+public class MultiDigestTest {
+
+    static byte[] data(final int length) {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 17 + 3);
+        }
+        return data;
+    }
+
+    private static long crc32(final byte[] data) {
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return crc.getValue();
+    }
+
+    private static void assertDigests(final MultiDigest digest, final byte[] data) throws NoSuchAlgorithmException {
+        assertArrayEquals(MessageDigest.getInstance("MD5").digest(data), digest.getMessageDigest("MD5").digest());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data),
+            digest.getMessageDigest("SHA-256").digest());
+        assertEquals(crc32(data), digest.getChecksums().get(0).getValue());
+    }
+
+    @Test
+    public void testSequential() throws NoSuchAlgorithmException {
+        final byte[] data = data(10_000);
+        final MultiDigest digest = new MultiDigest(
+            Arrays.asList(MessageDigest.getInstance("MD5"), MessageDigest.getInstance("SHA-256")),
+            Collections.singletonList(new CRC32()));
+        digest.update(data[0]);
+        digest.update(data, 1, data.length - 1);
+        assertDigests(digest, data);
+        assertNull(digest.getMessageDigest("SHA-1"));
+    }
+
+    @Test
+    public void testParallel() throws NoSuchAlgorithmException {
+        final byte[] data = data(100_000);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final MultiDigest digest = new MultiDigest(
+                Arrays.asList(MessageDigest.getInstance("MD5"), MessageDigest.getInstance("SHA-256")),
+                Arrays.<Checksum>asList(new CRC32(), new Adler32()), executor, 1024);
+            for (int i = 0; i < data.length; i += 5000) {
+                digest.update(data, i, 5000);
+            }
+            assertDigests(digest, data);
+            digest.reset();
+            digest.update(data, 0, 10);
+            assertDigests(digest, Arrays.copyOf(data, 10));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelFailure() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Checksum broken = new CRC32() {
+                @Override
+                public void update(final byte[] b, final int off, final int len) {
+                    throw new IllegalStateException("test");
+                }
+            };
+            final MultiDigest digest = new MultiDigest(Collections.<MessageDigest>emptyList(),
+                Arrays.<Checksum>asList(new CRC32(), broken), executor, 1);
+            assertThrows(IllegalStateException.class, () -> digest.update(new byte[10], 0, 10));
+            // the next update is not affected
+            final MultiDigest healthy = new MultiDigest(Collections.<MessageDigest>emptyList(),
+                Arrays.<Checksum>asList(new CRC32(), new CRC32()), executor, 1);
+            healthy.update(new byte[10], 0, 10);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiDigest());
+        assertThrows(NoSuchAlgorithmException.class, () -> MultiDigest.of("MD5", "NONE"));
+        assertThrows(IllegalArgumentException.class, () -> new MultiDigest(Collections.<MessageDigest>emptyList(),
+            Collections.singletonList(new CRC32()), null, 0));
+    }
+}
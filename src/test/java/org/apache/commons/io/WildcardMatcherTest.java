@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link WildcardMatcher}.
+ */
+public class WildcardMatcherTest {
+
+    private static final String ALPHABET = "aAbB.?*\u00DF\u0130i\u0131I";
+
+    /**
+     * A straightforward dynamic programming matcher to compare with.
+     */
+    private static boolean reference(final String name, final String wildcard, final boolean sensitive) {
+        // matched[i][j]: the first i characters of the name match the first j characters of the wildcard
+        final boolean[][] matched = new boolean[name.length() + 1][wildcard.length() + 1];
+        matched[0][0] = true;
+        for (int i = 0; i <= name.length(); i++) {
+            for (int j = 1; j <= wildcard.length(); j++) {
+                final char p = wildcard.charAt(j - 1);
+                if (p == '*') {
+                    matched[i][j] = matched[i][j - 1] || i > 0 && matched[i - 1][j];
+                } else if (i > 0) {
+                    final char c = name.charAt(i - 1);
+                    final boolean same = p == '?' || p == c
+                        || !sensitive && String.valueOf(p).equalsIgnoreCase(String.valueOf(c));
+                    matched[i][j] = same && matched[i - 1][j - 1];
+                }
+            }
+        }
+        return matched[name.length()][wildcard.length()];
+    }
+
+    private static boolean reference(final String name, final List<String> wildcards, final boolean sensitive) {
+        for (final String wildcard : wildcards) {
+            if (reference(name, wildcard, sensitive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String random(final Random random, final String chars, final int maxLength) {
+        final char[] result = new char[random.nextInt(maxLength + 1)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = chars.charAt(random.nextInt(chars.length()));
+        }
+        return new String(result);
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        final WildcardMatcher matcher = WildcardMatcher.compile(IOCase.INSENSITIVE, "*.TXT", "readme");
+        assertTrue(matcher.matches("a.txt"));
+        assertTrue(matcher.matches("README"));
+        assertFalse(matcher.matches("a.txt1"));
+        assertTrue(WildcardMatcher.compile(IOCase.INSENSITIVE, "\u0131?").matches("I\u0130"));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertFalse(WildcardMatcher.compile(IOCase.SENSITIVE).matches(""));
+        assertFalse(WildcardMatcher.compile(IOCase.SENSITIVE, (String) null).matches("a"));
+        assertTrue(WildcardMatcher.compile(IOCase.SENSITIVE, "").matches(""));
+        assertFalse(WildcardMatcher.compile(IOCase.SENSITIVE, "*").matches(null));
+    }
+
+    @Test
+    public void testLargeAutomaton() {
+        // "*a" followed by n '?' needs 2^n deterministic states: matched bit-parallel instead
+        final List<String> wildcards = Arrays.asList("*a?????????????", "b*");
+        final WildcardMatcher matcher = WildcardMatcher.compile(IOCase.SENSITIVE, wildcards);
+        final Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            final String name = random(random, "ab", 30);
+            assertEquals(reference(name, wildcards, true), matcher.matches(name), name);
+        }
+    }
+
+    @Test
+    public void testLongWildcard() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append(i % 7 == 0 ? "*" : i % 5 == 0 ? "?" : "a");
+        }
+        final List<String> wildcards = Collections.singletonList(builder.toString());
+        final WildcardMatcher matcher = WildcardMatcher.compile(IOCase.SENSITIVE, wildcards);
+        final Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            final String name = random(random, "aaaab", 150);
+            assertEquals(reference(name, wildcards, true), matcher.matches(name), name);
+        }
+    }
+
+    @Test
+    public void testMultipleWildcards() {
+        final WildcardMatcher matcher = WildcardMatcher.compile(IOCase.SENSITIVE, "*.java", "*.txt", "README*",
+            "*test*.java~*~");
+        assertTrue(matcher.matches("Foo.java"));
+        assertTrue(matcher.matches("log.txt"));
+        assertTrue(matcher.matches("README.md"));
+        assertTrue(matcher.matches("progtestcase.java~5~"));
+        assertFalse(matcher.matches("Foo.jav"));
+        assertFalse(matcher.matches("readme"));
+        assertFalse(matcher.matches("progtestcase.java;5~"));
+    }
+
+    @Test
+    public void testRandomAgainstReference() {
+        final Random random = new Random(42);
+        for (final IOCase ioCase : new IOCase[] {IOCase.SENSITIVE, IOCase.INSENSITIVE}) {
+            for (int round = 0; round < 300; round++) {
+                final List<String> wildcards = new ArrayList<>();
+                final int count = 1 + random.nextInt(4);
+                for (int i = 0; i < count; i++) {
+                    wildcards.add(random(random, ALPHABET, 8));
+                }
+                final WildcardMatcher matcher = WildcardMatcher.compile(ioCase, wildcards);
+                for (int i = 0; i < 50; i++) {
+                    final String name = random(random, ALPHABET.replace("?", "").replace("*", ""), 10);
+                    assertEquals(reference(name, wildcards, ioCase.isCaseSensitive()), matcher.matches(name),
+                        wildcards + " " + name + " " + ioCase);
+                    if (count == 1) {
+                        assertEquals(matcher.matches(name), FilenameUtils.wildcardMatch(name, wildcards.get(0), ioCase),
+                            wildcards + " " + name + " " + ioCase);
+                    }
+                }
+            }
+        }
+    }
+}
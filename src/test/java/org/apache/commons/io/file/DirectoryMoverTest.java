@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.io.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.IOExceptionList;
+import org.apache.commons.io.file.Counters.PathCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link DirectoryMover}.
+ */
+public class DirectoryMoverTest {
+
+    /**
+     * Moves as if the source were on another file store than its target.
+     */
+    private static class CrossStoreMover extends DirectoryMover {
+
+        private final Path source;
+        private final boolean failSwap;
+
+        CrossStoreMover(final ExecutorService executor, final Path source, final boolean failSwap,
+                final Consumer<PathCounters> progress) {
+            super(executor, true, progress);
+            this.source = source;
+            this.failSwap = failSwap;
+        }
+
+        @Override
+        void rename(final Path from, final Path to) throws IOException {
+            if (from.equals(source.toAbsolutePath())) {
+                throw new AtomicMoveNotSupportedException(from.toString(), to.toString(), "test");
+            }
+            if (failSwap) {
+                throw new IOException("test");
+            }
+            super.rename(from, to);
+        }
+    }
+
+    private static final FileTime TIME = FileTime.fromMillis(1_000_000_000_000L);
+
+    @TempDir
+    public Path tempDir;
+
+    private Path source;
+
+    private Path expected;
+
+    private ExecutorService executor;
+
+    private static void createTree(final Path root) throws IOException {
+        Files.createDirectory(root);
+        for (int i = 0; i < 20; i++) {
+            Files.write(root.resolve("file" + i), new byte[i * 10]);
+        }
+        Path dir = root;
+        for (int depth = 0; depth < 4; depth++) {
+            dir = Files.createDirectory(dir.resolve("sub" + depth));
+            Files.write(dir.resolve("file"), new byte[depth]);
+            Files.setLastModifiedTime(dir.resolve("file"), TIME);
+        }
+        Files.createDirectory(root.resolve("empty"));
+        Files.setLastModifiedTime(dir, TIME);
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        source = tempDir.resolve("source");
+        createTree(source);
+        expected = tempDir.resolve("expected");
+        createTree(expected);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testMoveDirectoryCopy() throws IOException {
+        final Path target = tempDir.resolve("target");
+        final ConcurrentLinkedQueue<PathCounters> progress = new ConcurrentLinkedQueue<>();
+        final PathCounters counters = new CrossStoreMover(executor, source, false, progress::add)
+            .moveDirectory(source, target);
+        assertEquals(PathUtils.countDirectory(expected), counters);
+        assertFalse(Files.exists(source));
+        assertTrue(PathUtils.directoryAndFileContentEquals(expected, target));
+        assertEquals(TIME, Files.getLastModifiedTime(target.resolve("sub0/sub1/sub2/sub3/file")));
+        assertEquals(TIME, Files.getLastModifiedTime(target.resolve("sub0/sub1/sub2/sub3")));
+        assertEquals(counters.getFileCounter().get(), progress.size());
+        // no staging directory is left
+        assertEquals(PathUtils.countDirectory(tempDir).getDirectoryCounter().get(),
+            1 + 2 * counters.getDirectoryCounter().get());
+    }
+
+    @Test
+    public void testMoveDirectoryCopySwapFails() throws IOException {
+        final Path target = tempDir.resolve("target");
+        assertThrows(IOExceptionList.class,
+            () -> new CrossStoreMover(executor, source, true, null).moveDirectory(source, target));
+        assertFalse(Files.exists(target));
+        assertTrue(PathUtils.directoryAndFileContentEquals(expected, source));
+        // no staging directory is left
+        assertEquals(PathUtils.countDirectory(tempDir).getDirectoryCounter().get(),
+            1 + 2 * PathUtils.countDirectory(expected).getDirectoryCounter().get());
+    }
+
+    @Test
+    public void testMoveDirectoryCopyFailsUnchecked() throws IOException {
+        final Path target = tempDir.resolve("target");
+        final IllegalStateException exception = new IllegalStateException("test");
+        final AtomicInteger copied = new AtomicInteger();
+        final IOExceptionList e = assertThrows(IOExceptionList.class, () -> new CrossStoreMover(executor, source, false,
+            counters -> {
+                if (copied.incrementAndGet() == 5) {
+                    throw exception;
+                }
+            }).moveDirectory(source, target));
+        assertSame(exception, e.getCause(0).getCause());
+        assertFalse(Files.exists(target));
+        assertTrue(PathUtils.directoryAndFileContentEquals(expected, source));
+        // no staging directory is left
+        assertEquals(PathUtils.countDirectory(tempDir).getDirectoryCounter().get(),
+            1 + 2 * PathUtils.countDirectory(expected).getDirectoryCounter().get());
+    }
+
+    @Test
+    public void testMoveDirectoryInvalid() throws IOException {
+        final DirectoryMover mover = new DirectoryMover(executor);
+        assertThrows(NotDirectoryException.class, () -> mover.moveDirectory(source.resolve("file1"),
+            tempDir.resolve("target")));
+        assertThrows(FileAlreadyExistsException.class, () -> mover.moveDirectory(source, expected));
+        assertThrows(IOException.class, () -> mover.moveDirectory(source, source.resolve("sub0/target")));
+        assertTrue(PathUtils.directoryAndFileContentEquals(expected, source));
+    }
+
+    @Test
+    public void testMoveDirectoryRename() throws IOException {
+        final Path target = tempDir.resolve("target");
+        final PathCounters counters = new DirectoryMover(executor).moveDirectory(source, target);
+        assertEquals(Counters.longPathCounters(), counters);
+        assertFalse(Files.exists(source));
+        assertTrue(PathUtils.directoryAndFileContentEquals(expected, target));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.io.file;
+
+import static org.apache.commons.io.file.CounterAssertions.assertCounts;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.file.Counters.PathCounters;
+import org.apache.commons.io.monitor.FileAlterationObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link DirectorySizeCache}.
+ */
+public class DirectorySizeCacheTest {
+
+    private static final FileTime PAST = FileTime.from(System.currentTimeMillis() - 3600_000, TimeUnit.MILLISECONDS);
+
+    @TempDir
+    public Path tempDir;
+
+    private Path sub1;
+
+    private Path sub2;
+
+    private Path subsub;
+
+    /**
+     * Sets the time of the directories in the past, as if they had not been modified for a while.
+     */
+    private void age() throws IOException {
+        for (final Path dir : new Path[] {tempDir, sub1, sub2, subsub}) {
+            if (Files.isDirectory(dir)) {
+                Files.setLastModifiedTime(dir, PAST);
+            }
+        }
+    }
+
+    private static void write(final Path file, final int size) throws IOException {
+        Files.write(file, new byte[size]);
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        sub1 = Files.createDirectory(tempDir.resolve("sub1"));
+        sub2 = Files.createDirectory(tempDir.resolve("sub2"));
+        subsub = Files.createDirectory(sub1.resolve("subsub"));
+        write(tempDir.resolve("a"), 1);
+        write(sub1.resolve("b"), 10);
+        write(sub2.resolve("c"), 100);
+        write(subsub.resolve("d"), 1000);
+        age();
+    }
+
+    private void assertSameAsPathUtils(final PathCounters actual) throws IOException {
+        assertEquals(PathUtils.countDirectory(tempDir), actual);
+    }
+
+    @Test
+    public void testCount() throws IOException {
+        final DirectorySizeCache cache = new DirectorySizeCache();
+        final PathCounters counters = cache.countDirectory(tempDir);
+        assertCounts(4, 4, 1111, counters);
+        assertSameAsPathUtils(counters);
+        assertEquals(4, cache.size());
+        // from the cache
+        assertCounts(4, 4, 1111, cache.countDirectory(tempDir));
+        assertCounts(2, 2, 1010, cache.countDirectory(sub1));
+    }
+
+    @Test
+    public void testCountMissing() {
+        assertThrows(NoSuchFileException.class, () -> new DirectorySizeCache().countDirectory(tempDir.resolve("x")));
+    }
+
+    @Test
+    public void testCreateAndDelete() throws IOException {
+        final DirectorySizeCache cache = new DirectorySizeCache();
+        assertCounts(4, 4, 1111, cache.countDirectory(tempDir));
+
+        write(subsub.resolve("e"), 10000);
+        assertCounts(4, 5, 11111, cache.countDirectory(tempDir));
+        age();
+
+        Files.delete(subsub.resolve("d"));
+        Files.delete(subsub.resolve("e"));
+        Files.delete(subsub);
+        final PathCounters counters = cache.countDirectory(tempDir);
+        assertCounts(3, 3, 111, counters);
+        assertSameAsPathUtils(counters);
+        assertEquals(3, cache.size());
+
+        final Path sub3 = Files.createDirectory(sub2.resolve("sub3"));
+        write(sub3.resolve("f"), 5);
+        assertCounts(4, 4, 116, cache.countDirectory(tempDir));
+    }
+
+    @Test
+    public void testInvalidate() throws IOException {
+        final DirectorySizeCache cache = new DirectorySizeCache();
+        assertCounts(4, 4, 1111, cache.countDirectory(tempDir));
+
+        // growing a file does not change its directory's time
+        Files.write(sub2.resolve("c"), new byte[100], StandardOpenOption.APPEND);
+        age();
+        assertCounts(4, 4, 1111, cache.countDirectory(tempDir));
+
+        cache.invalidate(sub2.resolve("c"));
+        final PathCounters counters = cache.countDirectory(tempDir);
+        assertCounts(4, 4, 1211, counters);
+        assertSameAsPathUtils(counters);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertCounts(4, 4, 1211, cache.countDirectory(tempDir));
+    }
+
+    @Test
+    public void testFileAlterationListener() throws Exception {
+        final DirectorySizeCache cache = new DirectorySizeCache();
+        final FileAlterationObserver observer = new FileAlterationObserver(tempDir.toFile());
+        observer.addListener(cache.asFileAlterationListener());
+        observer.initialize();
+        assertCounts(4, 4, 1111, cache.countDirectory(tempDir));
+
+        Files.write(subsub.resolve("d"), new byte[1]);
+        age();
+        observer.checkAndNotify();
+        final PathCounters counters = cache.countDirectory(tempDir);
+        assertCounts(4, 4, 112, counters);
+        assertSameAsPathUtils(counters);
+        observer.destroy();
+    }
+}
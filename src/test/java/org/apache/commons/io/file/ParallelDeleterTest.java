@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.io.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.file.Counters.PathCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link ParallelDeleter}.
+ */
+public class ParallelDeleterTest {
+
+    @TempDir
+    public Path tempDir;
+
+    private Path tree;
+
+    private ExecutorService executor;
+
+    /**
+     * Creates a tree with a directory of more files than a batch, and nested directories.
+     */
+    private static void createTree(final Path root) throws IOException {
+        Files.createDirectory(root);
+        for (int i = 0; i < ParallelDeleter.BATCH_SIZE * 2 + 10; i++) {
+            Files.write(root.resolve("file" + i), new byte[i % 7]);
+        }
+        for (int d = 0; d < 5; d++) {
+            Path dir = root.resolve("dir" + d);
+            for (int depth = 0; depth < 4; depth++) {
+                dir = Files.createDirectories(dir.resolve("sub" + depth));
+                Files.write(dir.resolve("file"), new byte[depth]);
+            }
+            Files.createDirectory(dir.resolve("empty"));
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tree = tempDir.resolve("tree");
+        createTree(tree);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testCleanDirectory() throws IOException {
+        final PathCounters expected = PathUtils.countDirectory(tree);
+        assertEquals(expected, new ParallelDeleter(executor).cleanDirectory(tree));
+        assertTrue(Files.isDirectory(tree));
+        assertTrue(PathUtils.isEmptyDirectory(tree));
+    }
+
+    @Test
+    public void testDeleteDirectory() throws IOException {
+        final PathCounters expected = PathUtils.countDirectory(tree);
+        assertEquals(expected, new ParallelDeleter(executor).deleteDirectory(tree));
+        assertFalse(Files.exists(tree));
+    }
+
+    @Test
+    public void testDeleteDirectoryAsync() throws Exception {
+        final PathCounters expected = PathUtils.countDirectory(tree);
+        final CompletableFuture<PathCounters> future = new ParallelDeleter(executor).deleteDirectoryAsync(tree);
+        // the path is free at once
+        assertFalse(Files.exists(tree));
+        createTree(tree);
+        assertEquals(expected, future.get());
+        // only the new tree is left
+        assertEquals(1, PathUtils.countDirectory(tempDir).getDirectoryCounter().get() - expected.getDirectoryCounter().get());
+    }
+
+    @Test
+    public void testDeleteDirectoryInline() throws IOException {
+        final PathCounters expected = PathUtils.countDirectory(tree);
+        assertEquals(expected, new ParallelDeleter(Runnable::run).deleteDirectory(tree));
+        assertFalse(Files.exists(tree));
+    }
+
+    @Test
+    public void testDeleteDirectoryRejected() throws IOException {
+        final PathCounters expected = PathUtils.countDirectory(tree);
+        assertEquals(expected, new ParallelDeleter(task -> {
+            throw new RejectedExecutionException();
+        }).deleteDirectory(tree));
+        assertFalse(Files.exists(tree));
+    }
+
+    @Test
+    public void testDeleteDirectoryReadOnlyFile() throws IOException {
+        final Path readOnly = tree.resolve("dir0").resolve("readOnly");
+        Files.write(readOnly, new byte[3]);
+        PathUtils.setReadOnly(readOnly, true);
+        new ParallelDeleter(executor, StandardDeleteOption.OVERRIDE_READ_ONLY).deleteDirectory(tree);
+        assertFalse(Files.exists(tree));
+    }
+
+    @Test
+    public void testDeleteDirectorySymbolicLink() throws IOException {
+        final Path target = Files.createDirectory(tempDir.resolve("target"));
+        Files.write(target.resolve("kept"), new byte[1]);
+        try {
+            Files.createSymbolicLink(tree.resolve("link"), target);
+        } catch (final UnsupportedOperationException | IOException e) {
+            // no links here
+        }
+        new ParallelDeleter(executor).deleteDirectory(tree);
+        assertFalse(Files.exists(tree));
+        assertTrue(Files.exists(target.resolve("kept")));
+    }
+
+    @Test
+    public void testNotDirectory() throws IOException {
+        final ParallelDeleter deleter = new ParallelDeleter(executor);
+        assertThrows(NotDirectoryException.class, () -> deleter.deleteDirectory(tree.resolve("file1")));
+        assertThrows(NoSuchFileException.class, () -> deleter.deleteDirectory(tempDir.resolve("missing")));
+        assertThrows(NotDirectoryException.class, () -> deleter.deleteDirectoryAsync(tree.resolve("file1")));
+    }
+}
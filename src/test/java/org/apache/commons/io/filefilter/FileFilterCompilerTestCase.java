@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link FileFilterUtils#compile(IOFileFilter)}.
+ */
+public class FileFilterCompilerTestCase {
+
+    private static final List<String> NAMES = Arrays.asList("", "a", "A", "ab", "AB", "abc.txt", "ABC.TXT", "b.java",
+        "B.JAVA", "Test.java", "test.JAVA", "README", "readme.md", ".hidden", "x.tmp", "x.TMP", "tmp", "\u00DF", "SS",
+        "\u0130", "i", "\u0131", "I");
+
+    @TempDir
+    public File temporaryFolder;
+
+    private static void assertEquivalent(final IOFileFilter expected) throws Exception {
+        final IOFileFilter actual = FileFilterUtils.compile(expected);
+        final File dir = new File(".");
+        for (final String name : NAMES) {
+            final File file = new File(dir, name);
+            assertEquals(expected.accept(file), actual.accept(file), actual + " for " + name);
+            assertEquals(expected.accept(dir, name), actual.accept(dir, name), actual + " for " + name);
+        }
+    }
+
+    private static IOFileFilter names(final IOCase ioCase, final String... names) {
+        return new NameFileFilter(names, ioCase);
+    }
+
+    private static IOFileFilter prefixes(final IOCase ioCase, final String... prefixes) {
+        return new PrefixFileFilter(prefixes, ioCase);
+    }
+
+    private static IOFileFilter suffixes(final IOCase ioCase, final String... suffixes) {
+        return new SuffixFileFilter(suffixes, ioCase);
+    }
+
+    @Test
+    public void testConstantFolding() {
+        final IOFileFilter name = new NameFileFilter("a");
+        assertSame(FalseFileFilter.FALSE, FileFilterUtils.compile(FileFilterUtils.and(name, FalseFileFilter.FALSE)));
+        assertSame(TrueFileFilter.TRUE, FileFilterUtils.compile(FileFilterUtils.or(name, TrueFileFilter.TRUE)));
+        assertSame(TrueFileFilter.TRUE,
+            FileFilterUtils.compile(FileFilterUtils.and(TrueFileFilter.TRUE, TrueFileFilter.TRUE)));
+        assertSame(FalseFileFilter.FALSE,
+            FileFilterUtils.compile(FileFilterUtils.or(FalseFileFilter.FALSE, FalseFileFilter.FALSE)));
+        assertSame(FalseFileFilter.FALSE, FileFilterUtils.compile(new AndFileFilter()));
+        assertSame(FalseFileFilter.FALSE, FileFilterUtils.compile(new OrFileFilter()));
+        assertSame(FalseFileFilter.FALSE, FileFilterUtils.compile(new NotFileFilter(TrueFileFilter.TRUE)));
+        assertSame(DirectoryFileFilter.DIRECTORY, FileFilterUtils.compile(
+            new NotFileFilter(new NotFileFilter(DirectoryFileFilter.DIRECTORY))));
+        assertSame(DirectoryFileFilter.DIRECTORY,
+            FileFilterUtils.compile(FileFilterUtils.and(TrueFileFilter.TRUE, DirectoryFileFilter.DIRECTORY)));
+    }
+
+    @Test
+    public void testEquivalence() throws Exception {
+        for (final IOCase ioCase : IOCase.values()) {
+            assertEquivalent(names(ioCase, "a", "README", "\u00DF", "i"));
+            assertEquivalent(prefixes(ioCase, "ab", "test", "", "\u0130"));
+            assertEquivalent(prefixes(ioCase, "ab", "abc"));
+            assertEquivalent(suffixes(ioCase, ".java", ".tmp", "ss"));
+            assertEquivalent(suffixes(ioCase, ""));
+            assertEquivalent(FileFilterUtils.or(names(ioCase, "tmp"), prefixes(ioCase, "."),
+                suffixes(ioCase, ".txt"), names(IOCase.SENSITIVE, "I"), prefixes(IOCase.INSENSITIVE, "b")));
+            assertEquivalent(FileFilterUtils.and(prefixes(ioCase, "a", "b"), suffixes(ioCase, ".txt", ".java")));
+            assertEquivalent(FileFilterUtils.and(new NotFileFilter(names(ioCase, "b.java")),
+                FileFilterUtils.or(suffixes(ioCase, ".java"), new OrFileFilter(names(ioCase, "a"),
+                    new NotFileFilter(new NotFileFilter(prefixes(ioCase, "x")))))));
+        }
+    }
+
+    @Test
+    public void testFlatten() {
+        final IOFileFilter filter = FileFilterUtils.compile(FileFilterUtils.and(DirectoryFileFilter.DIRECTORY,
+            FileFilterUtils.and(HiddenFileFilter.VISIBLE, FileFilterUtils.and(CanReadFileFilter.CAN_READ,
+                TrueFileFilter.TRUE))));
+        assertTrue(filter instanceof FileFilterCompiler.CompiledAndFileFilter);
+        assertEquals(Arrays.asList(DirectoryFileFilter.DIRECTORY, HiddenFileFilter.VISIBLE, CanReadFileFilter.CAN_READ),
+            Arrays.asList(((FileFilterCompiler.CompiledAndFileFilter) filter).filters));
+    }
+
+    @Test
+    public void testMergeNames() {
+        final IOFileFilter filter = FileFilterUtils.compile(FileFilterUtils.or(new NameFileFilter("a"),
+            new PrefixFileFilter("b"), new SuffixFileFilter(".c"), new NameFileFilter("D", IOCase.INSENSITIVE)));
+        assertTrue(filter instanceof FileFilterCompiler.CompiledOrFileFilter);
+        final IOFileFilter[] filters = ((FileFilterCompiler.CompiledOrFileFilter) filter).filters;
+        assertEquals(2, filters.length);
+        assertTrue(filter.accept(new File("a")));
+        assertTrue(filter.accept(new File("bcd")));
+        assertTrue(filter.accept(new File("x.c")));
+        assertTrue(filter.accept(new File("d")));
+        assertFalse(filter.accept(new File("A")));
+        final String string = filters[0].toString() + filters[1];
+        assertTrue(string.contains("names=[a]"), string);
+        assertTrue(string.contains("prefixes=[b]"), string);
+        assertTrue(string.contains("suffixes=[.c]"), string);
+        assertTrue(string.contains("names=[d]"), string);
+    }
+
+    @Test
+    public void testNull() {
+        assertThrows(NullPointerException.class, () -> FileFilterUtils.compile(null));
+    }
+
+    @Test
+    public void testOrderByCost() {
+        final IOFileFilter magic = new MagicNumberFileFilter(new byte[] {1});
+        final IOFileFilter filter = FileFilterUtils.compile(FileFilterUtils.and(magic, new SizeFileFilter(1),
+            new SuffixFileFilter(".txt")));
+        final IOFileFilter[] filters = ((FileFilterCompiler.CompiledAndFileFilter) filter).filters;
+        assertTrue(filters[0] instanceof FileFilterCompiler.NameMatchFileFilter);
+        assertTrue(filters[1] instanceof SizeFileFilter);
+        assertSame(magic, filters[2]);
+    }
+
+    @Test
+    public void testRealFiles() throws Exception {
+        final File dir = new File(temporaryFolder, "dir.txt");
+        dir.mkdir();
+        final File empty = new File(temporaryFolder, "empty.txt");
+        empty.createNewFile();
+        final File data = new File(temporaryFolder, "data.TXT");
+        Files.write(data.toPath(), new byte[] {1, 2, 3});
+        final IOFileFilter expected = FileFilterUtils.or(
+            FileFilterUtils.and(FileFilterUtils.fileFileFilter(), new SuffixFileFilter(".txt", IOCase.INSENSITIVE),
+                new NotFileFilter(EmptyFileFilter.EMPTY)),
+            FileFilterUtils.and(DirectoryFileFilter.DIRECTORY, new PrefixFileFilter("dir")));
+        final IOFileFilter actual = FileFilterUtils.compile(expected);
+        for (final File file : Arrays.asList(dir, empty, data)) {
+            final Path path = file.toPath();
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            assertEquals(expected.accept(file), actual.accept(file), file.getName());
+            assertEquals(expected.accept(path, attributes), actual.accept(path, attributes), file.getName());
+        }
+        assertTrue(actual.accept(dir));
+        assertTrue(actual.accept(data));
+        assertFalse(actual.accept(empty));
+    }
+}
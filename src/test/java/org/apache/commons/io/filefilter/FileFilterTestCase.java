@@ -33,6 +33,9 @@
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -77,6 +80,11 @@ public void assertFiltering(final IOFileFilter filter, final File file, final bo
             assertEquals(expected, filter.accept(file),
                     "Filter(File, String) " + filter.getClass().getName() + " not " + expected + " for null");
         }
+        if (file != null && file.exists()) {
+            final Path path = file.toPath();
+            assertEquals(expected, filter.accept(path, Files.readAttributes(path, BasicFileAttributes.class)),
+                    "Filter(Path, BasicFileAttributes) " + filter.getClass().getName() + " not " + expected + " for " + file);
+        }
         assertNotNull(filter.toString());
     }
 
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link MagicNumberSniffer}.
+ */
+public class MagicNumberSnifferTestCase {
+
+    private static final byte[] CLASS = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
+
+    private static final byte[] ZIP = {'P', 'K', 3, 4};
+
+    private static final byte[] XML = "<?xml".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] USTAR = "ustar".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] ISO = "CD001".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    public File temporaryFolder;
+
+    private MagicNumberSniffer<String> sniffer;
+
+    private static byte[] content(final int length, final Object... offsetsAndBytes) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < offsetsAndBytes.length; i += 2) {
+            final byte[] bytes = (byte[]) offsetsAndBytes[i + 1];
+            System.arraycopy(bytes, 0, content, (Integer) offsetsAndBytes[i], bytes.length);
+        }
+        return content;
+    }
+
+    private Path file(final String name, final byte[] content) throws Exception {
+        return Files.write(new File(temporaryFolder, name).toPath(), content);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        sniffer = new MagicNumberSniffer<>(
+            new MagicNumberSniffer.Signature<>("class", CLASS, 0),
+            new MagicNumberSniffer.Signature<>("jar", ZIP, 0),
+            new MagicNumberSniffer.Signature<>("zip", new byte[] {'P', 'K'}, 0),
+            new MagicNumberSniffer.Signature<>("xml", XML, 0),
+            new MagicNumberSniffer.Signature<>("tar", USTAR, 257),
+            new MagicNumberSniffer.Signature<>("iso", ISO, 32769));
+    }
+
+    @Test
+    public void testClassify() throws Exception {
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            paths.add(file("f" + i, i % 2 == 0 ? content(300, 257, USTAR) : content(10, 0, CLASS)));
+        }
+        paths.add(file("none", new byte[10]));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Map<Path, String> types = sniffer.classify(paths, executor);
+            assertEquals(40, types.size());
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i % 2 == 0 ? "tar" : "class", types.get(paths.get(i)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        final Map<Path, String> rejected = sniffer.classify(paths, command -> {
+            throw new RejectedExecutionException();
+        });
+        assertEquals(40, rejected.size());
+    }
+
+    @Test
+    public void testFileFilter() throws Exception {
+        final Path tar = file("a.tar", content(512, 257, USTAR));
+        final Path xml = file("a.xml", XML);
+        final Path empty = file("empty", new byte[0]);
+        final IOFileFilter archives = sniffer.asFileFilter("tar", "jar");
+        final IOFileFilter any = sniffer.asFileFilter();
+        for (final Path path : Arrays.asList(tar, xml, empty, temporaryFolder.toPath())) {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            final boolean isTar = path == tar;
+            final boolean known = path == tar || path == xml;
+            assertEquals(isTar, archives.accept(path.toFile()), path.toString());
+            assertEquals(isTar, archives.accept(path, attributes), path.toString());
+            assertEquals(known, any.accept(path.toFile()), path.toString());
+            assertEquals(known, any.accept(path, attributes), path.toString());
+        }
+    }
+
+    @Test
+    public void testGetType() throws Exception {
+        assertEquals("class", sniffer.getType(file("A.class", content(100, 0, CLASS))));
+        assertEquals("jar", sniffer.getType(file("a.jar", ZIP)));
+        assertEquals("zip", sniffer.getType(file("a.zip", new byte[] {'P', 'K', 5, 6})));
+        assertEquals("xml", sniffer.getType(file("a.xml", XML)));
+        assertEquals("tar", sniffer.getType(file("a.tar", content(512, 257, USTAR))));
+        assertEquals("iso", sniffer.getType(file("a.iso", content(40000, 32769, ISO))));
+        assertNull(sniffer.getType(file("short.tar", content(260, 257, new byte[] {'u', 's', 't'}))));
+        assertNull(sniffer.getType(file("empty", new byte[0])));
+        assertNull(sniffer.getType(temporaryFolder.toPath()));
+        assertNull(sniffer.getType(new File(temporaryFolder, "missing").toPath()));
+    }
+
+    @Test
+    public void testGetTypes() throws Exception {
+        final Path path = file("both", content(40000, 0, ZIP, 257, USTAR, 32769, ISO));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("jar", "zip", "tar", "iso")), sniffer.getTypes(path));
+        assertEquals(Collections.emptySet(), sniffer.getTypes(file("none", new byte[10])));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new MagicNumberSniffer<String>());
+        assertThrows(IllegalArgumentException.class, () -> new MagicNumberSniffer.Signature<>("a", new byte[0], 0));
+        assertThrows(IllegalArgumentException.class, () -> new MagicNumberSniffer.Signature<>("a", CLASS, -1));
+        assertThrows(NullPointerException.class, () -> new MagicNumberSniffer.Signature<>(null, CLASS, 0));
+    }
+
+    @Test
+    public void testSameAsMagicNumberFileFilter() throws Exception {
+        final byte[][] magicNumbers = {CLASS, ZIP, XML, USTAR};
+        final int[] offsets = {0, 0, 3, 257};
+        final List<MagicNumberSniffer.Signature<Integer>> signatures = new ArrayList<>();
+        for (int i = 0; i < magicNumbers.length; i++) {
+            signatures.add(new MagicNumberSniffer.Signature<>(i, magicNumbers[i], offsets[i]));
+        }
+        final MagicNumberSniffer<Integer> multi = new MagicNumberSniffer<>(signatures);
+        final List<Path> paths = Arrays.asList(file("1", content(300, 0, CLASS)), file("2", content(300, 3, XML)),
+            file("3", content(262, 257, USTAR)), file("4", content(261, 257, Arrays.copyOf(USTAR, 4))), file("5", ZIP));
+        for (final Path path : paths) {
+            for (int i = 0; i < magicNumbers.length; i++) {
+                final boolean expected = new MagicNumberFileFilter(magicNumbers[i], offsets[i]).accept(path.toFile());
+                assertEquals(expected, multi.getTypes(path).contains(i), path + " " + i);
+                assertEquals(expected, multi.asFileFilter(i).accept(path.toFile()), path + " " + i);
+            }
+        }
+        assertFalse(multi.getSignatures().isEmpty());
+        assertTrue(multi.toString().contains("@257"));
+    }
+}
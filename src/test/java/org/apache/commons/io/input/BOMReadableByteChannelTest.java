@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import org.apache.commons.io.ByteOrderMark;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link BOMReadableByteChannel}.
+ */
+public class BOMReadableByteChannelTest {
+
+    private static final byte[] UTF8_DATA = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'A', 'B', 'C'};
+
+    private static ReadableByteChannel channel(final byte[] data) {
+        return Channels.newChannel(new ByteArrayInputStream(data));
+    }
+
+    private static byte[] readFully(final ReadableByteChannel channel, final int bufferSize) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            out.write(buffer.array(), 0, buffer.limit());
+            buffer.clear();
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testExcludeBOM() throws Exception {
+        try (BOMReadableByteChannel channel = new BOMReadableByteChannel(channel(UTF8_DATA))) {
+            assertTrue(channel.hasBOM());
+            assertEquals(ByteOrderMark.UTF_8, channel.getBOM());
+            assertEquals("UTF-8", channel.getBOMCharsetName());
+            assertArrayEquals(new byte[] {'A', 'B', 'C'}, readFully(channel, 64));
+        }
+    }
+
+    @Test
+    public void testIncludeBOM() throws Exception {
+        try (BOMReadableByteChannel channel = new BOMReadableByteChannel(channel(UTF8_DATA), true,
+            ByteOrderMark.UTF_8)) {
+            assertEquals(ByteOrderMark.UTF_8, channel.getBOM());
+            assertArrayEquals(UTF8_DATA, readFully(channel, 64));
+        }
+    }
+
+    @Test
+    public void testLongestBOMWins() throws Exception {
+        final byte[] data = {(byte) 0xFF, (byte) 0xFE, 0, 0, 'A', 0, 0, 0};
+        try (BOMReadableByteChannel channel = new BOMReadableByteChannel(channel(data), false,
+            ByteOrderMark.UTF_16LE, ByteOrderMark.UTF_32LE)) {
+            assertEquals(ByteOrderMark.UTF_32LE, channel.getBOM());
+            assertArrayEquals(new byte[] {'A', 0, 0, 0}, readFully(channel, 64));
+        }
+    }
+
+    @Test
+    public void testNoBOM() throws Exception {
+        final byte[] data = {'A', 'B', 'C', 'D', 'E'};
+        try (BOMReadableByteChannel channel = new BOMReadableByteChannel(channel(data))) {
+            assertFalse(channel.hasBOM());
+            assertNull(channel.getBOM());
+            assertNull(channel.getBOMCharsetName());
+            assertArrayEquals(data, readFully(channel, 64));
+        }
+    }
+
+    @Test
+    public void testShortStream() throws Exception {
+        final byte[] data = {(byte) 0xEF, (byte) 0xBB};
+        try (BOMReadableByteChannel channel = new BOMReadableByteChannel(channel(data))) {
+            assertNull(channel.getBOM());
+            assertArrayEquals(data, readFully(channel, 64));
+        }
+    }
+
+    @Test
+    public void testSmallReads() throws Exception {
+        final byte[] data = {'<', '?', 'x', 'm', 'l'};
+        try (BOMReadableByteChannel channel = new BOMReadableByteChannel(channel(data), false,
+            ByteOrderMark.UTF_8, ByteOrderMark.UTF_32BE)) {
+            assertArrayEquals(data, readFully(channel, 1));
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final BOMReadableByteChannel channel = new BOMReadableByteChannel(channel(UTF8_DATA));
+        assertTrue(channel.isOpen());
+        channel.close();
+        assertFalse(channel.isOpen());
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link MultiDigestCalculatingInputStream}.
+ */
+public class MultiDigestCalculatingInputStreamTest {
+
+    @Test
+    public void testReadSkipAndConsume() throws IOException, NoSuchAlgorithmException {
+        final byte[] data = new byte[20_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        try (MultiDigestCalculatingInputStream in = new MultiDigestCalculatingInputStream(
+            new ByteArrayInputStream(data), "MD5", "SHA-256")) {
+            assertEquals(0, in.read());
+            assertEquals(10, in.read(new byte[10]));
+            assertEquals(100, in.skip(100));
+            in.consume();
+            assertEquals(0, in.skip(1));
+            assertArrayEquals(MessageDigest.getInstance("MD5").digest(data),
+                in.getMultiDigest().getMessageDigest("MD5").digest());
+            assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data),
+                in.getMultiDigest().getMessageDigest("SHA-256").digest());
+        }
+    }
+}
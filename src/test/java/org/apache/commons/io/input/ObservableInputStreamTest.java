@@ -16,14 +16,18 @@
  */
 package org.apache.commons.io.input;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.io.input.ObservableInputStream.Observer;
 import org.junit.jupiter.api.Test;
 
@@ -137,4 +141,125 @@ public void testDataBytesCalled() throws Exception {
         }
     }
 
+    /**
+     * Tests that single byte reads are notified in batches, in order with the other notifications.
+     */
+    @Test
+    public void testDataByteBatched() throws Exception {
+        final byte[] buffer = MessageDigestCalculatingInputStreamTest.generateRandomByteStream(100);
+        final ByteArrayOutputStream seen = new ByteArrayOutputStream();
+        final int[] calls = new int[1];
+        final Observer observer = new Observer() {
+            @Override
+            public void data(final byte[] pBuffer, final int pOffset, final int pLength) {
+                calls[0]++;
+                seen.write(pBuffer, pOffset, pLength);
+            }
+
+            @Override
+            public void data(final int pByte) {
+                throw new IllegalStateException();
+            }
+        };
+        try (final ObservableInputStream ois = new ObservableInputStream(new ByteArrayInputStream(buffer), 8)) {
+            ois.add(observer);
+            for (int i = 0; i < 20; i++) {
+                ois.read();
+            }
+            assertEquals(2, calls[0]);
+            assertEquals(16, seen.size());
+            ois.flushObservers();
+            assertEquals(20, seen.size());
+            ois.read();
+            // a bulk read notifies the pending byte first
+            ois.read(new byte[10]);
+            assertEquals(31, seen.size());
+            while (ois.read() != -1) {
+                // consume
+            }
+        }
+        assertArrayEquals(buffer, seen.toByteArray());
+    }
+
+    /**
+     * Tests that a pending batch goes to the observers present while it was collected, without notifying them from
+     * add or remove.
+     */
+    @Test
+    public void testDataByteBatchedObserverChange() throws Exception {
+        final byte[] buffer = MessageDigestCalculatingInputStreamTest.generateRandomByteStream(10);
+        final ByteArrayOutputStream seenA = new ByteArrayOutputStream();
+        final ByteArrayOutputStream seenB = new ByteArrayOutputStream();
+        final Observer a = new Observer() {
+            @Override
+            public void data(final byte[] pBuffer, final int pOffset, final int pLength) {
+                seenA.write(pBuffer, pOffset, pLength);
+            }
+        };
+        final Observer b = new Observer() {
+            @Override
+            public void data(final byte[] pBuffer, final int pOffset, final int pLength) {
+                seenB.write(pBuffer, pOffset, pLength);
+            }
+        };
+        final Observer failing = new Observer() {
+            @Override
+            public void data(final byte[] pBuffer, final int pOffset, final int pLength) throws IOException {
+                throw new IOException("test");
+            }
+        };
+        try (final ObservableInputStream ois = new ObservableInputStream(new ByteArrayInputStream(buffer), 8)) {
+            ois.add(a);
+            ois.read();
+            ois.read();
+            ois.read();
+            ois.add(b);
+            assertEquals(0, seenA.size());
+            // the next read delivers the pending batch to a only
+            ois.read();
+            assertArrayEquals(Arrays.copyOf(buffer, 3), seenA.toByteArray());
+            assertEquals(0, seenB.size());
+            ois.remove(a);
+            ois.flushObservers();
+            assertArrayEquals(Arrays.copyOf(buffer, 4), seenA.toByteArray());
+            assertArrayEquals(Arrays.copyOfRange(buffer, 3, 4), seenB.toByteArray());
+            ois.add(failing);
+            ois.read();
+            // the failure of an observer surfaces on delivery, not on add or remove
+            ois.removeAllObservers();
+            assertThrows(IOException.class, ois::flushObservers);
+            ois.add(b);
+            ois.read();
+            ois.removeAllObservers();
+        }
+        assertArrayEquals(Arrays.copyOf(buffer, 4), seenA.toByteArray());
+        assertArrayEquals(Arrays.copyOfRange(buffer, 3, 6), seenB.toByteArray());
+    }
+
+    /**
+     * Tests that read times are only passed to observers that want them.
+     */
+    @Test
+    public void testReadTime() throws Exception {
+        final byte[] buffer = MessageDigestCalculatingInputStreamTest.generateRandomByteStream(100);
+        final ThroughputObserver throughput = new ThroughputObserver();
+        final Observer untimed = new Observer() {
+            @Override
+            public void readTime(final long nanos) {
+                throw new IllegalStateException();
+            }
+        };
+        try (final ObservableInputStream ois = new ObservableInputStream(new ByteArrayInputStream(buffer))) {
+            ois.add(untimed);
+            ois.read();
+            ois.add(throughput);
+            ois.read(new byte[9]);
+            ois.consume();
+        }
+        assertEquals(99, throughput.getBytes());
+        // read(byte[9]), the read of consume() returning 90 bytes, and the final EOF read
+        assertEquals(3, throughput.getReads());
+        assertEquals(3, Arrays.stream(throughput.getLatencyHistogram()).sum());
+        assertTrue(throughput.getReadNanos() >= throughput.getStallNanos());
+    }
 }
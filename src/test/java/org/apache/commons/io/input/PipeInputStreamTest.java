@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.buffer.ConcurrentCircularByteBuffer;
+import org.apache.commons.io.output.PipeOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link PipeInputStream}, {@link PipeOutputStream} and {@link ConcurrentCircularByteBuffer}.
+ */
+public class PipeInputStreamTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    private void testTransfer(final int bufferSize, final int spins, final int chunkSize) throws Exception {
+        final byte[] data = randomBytes(1 << 20);
+        final PipeInputStream in = new PipeInputStream(new ConcurrentCircularByteBuffer(bufferSize, spins));
+        final PipeOutputStream out = in.newPipeOutputStream();
+        final Future<?> producer = executor.submit(() -> {
+            try (PipeOutputStream o = out) {
+                for (int i = 0; i < data.length; i += chunkSize) {
+                    if (chunkSize == 1) {
+                        o.write(data[i]);
+                    } else {
+                        o.write(data, i, Math.min(chunkSize, data.length - i));
+                    }
+                }
+            }
+            return null;
+        });
+        try (PipeInputStream i = in) {
+            assertArrayEquals(data, IOUtils.toByteArray(i));
+        }
+        producer.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testTransferBulk() throws Exception {
+        testTransfer(4096, ConcurrentCircularByteBuffer.DEFAULT_SPINS, 1000);
+    }
+
+    @Test
+    public void testTransferSingleBytes() throws Exception {
+        testTransfer(64, ConcurrentCircularByteBuffer.DEFAULT_SPINS, 1);
+    }
+
+    @Test
+    public void testTransferParkImmediately() throws Exception {
+        testTransfer(100, 0, 333);
+    }
+
+    @Test
+    public void testReadAfterProducerClosed() throws IOException {
+        final PipeInputStream in = new PipeInputStream();
+        try (PipeOutputStream out = in.newPipeOutputStream()) {
+            out.write(new byte[] {1, 2, 3});
+        }
+        assertEquals(3, in.available());
+        assertEquals(1, in.read());
+        final byte[] b = new byte[10];
+        assertEquals(2, in.read(b, 0, 10));
+        assertEquals(IOUtils.EOF, in.read(b, 0, 10));
+        assertEquals(IOUtils.EOF, in.read());
+    }
+
+    @Test
+    public void testWriteAfterConsumerClosed() throws Exception {
+        final PipeInputStream in = new PipeInputStream(new ConcurrentCircularByteBuffer(16, 0));
+        final PipeOutputStream out = in.newPipeOutputStream();
+        final Future<?> producer = executor.submit(() -> {
+            out.write(new byte[100]);
+            return null;
+        });
+        // let the producer fill the buffer and park
+        Thread.sleep(100);
+        in.close();
+        final Exception e = assertThrows(Exception.class, () -> producer.get(10, TimeUnit.SECONDS));
+        assertEquals(IOException.class, e.getCause().getClass());
+        assertThrows(IOException.class, in::read);
+    }
+
+    @Test
+    public void testInterruptedRead() throws Exception {
+        final PipeInputStream in = new PipeInputStream();
+        final Thread consumer = Thread.currentThread();
+        final Future<?> interrupter = executor.submit(() -> {
+            Thread.sleep(100);
+            consumer.interrupt();
+            return null;
+        });
+        try {
+            // parks until interrupted
+            assertThrows(InterruptedIOException.class, in::read);
+        } finally {
+            interrupter.get(10, TimeUnit.SECONDS);
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testBufferNonBlocking() {
+        final ConcurrentCircularByteBuffer buffer = new ConcurrentCircularByteBuffer(6, 0);
+        assertEquals(8, buffer.getCapacity());
+        assertEquals(8, buffer.offer(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, 0, 10));
+        assertEquals(0, buffer.getSpace());
+        assertEquals(0, buffer.offer(new byte[1], 0, 1));
+        final byte[] b = new byte[5];
+        assertEquals(5, buffer.poll(b, 0, 5));
+        assertArrayEquals(new byte[] {0, 1, 2, 3, 4}, b);
+        // wraps around the end of the array
+        assertEquals(4, buffer.offer(new byte[] {10, 11, 12, 13}, 0, 4));
+        final byte[] rest = new byte[10];
+        assertEquals(7, buffer.poll(rest, 1, 9));
+        assertArrayEquals(new byte[] {0, 5, 6, 7, 10, 11, 12, 13, 0, 0}, rest);
+        assertEquals(0, buffer.poll(rest, 0, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.poll(rest, 5, 6));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCircularByteBuffer(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCircularByteBuffer(8, -1));
+    }
+
+    @Test
+    public void testInterruptedIOException() {
+        final PipeInputStream in = new PipeInputStream(new ConcurrentCircularByteBuffer(8, 0));
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, in::read);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
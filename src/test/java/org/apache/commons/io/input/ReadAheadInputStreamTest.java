@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.commons.io.test.TestUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ReadAheadInputStream}.
+ */
+public class ReadAheadInputStreamTest {
+
+    @Test
+    public void testCopy() throws IOException {
+        for (final int size : new int[] {0, 1, 15, 16, 17, 1000}) {
+            final byte[] data = TestUtils.generateTestData(size);
+            try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 16)) {
+                final UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream();
+                IOUtils.copy(in, out);
+                assertArrayEquals(data, out.toByteArray(), "size " + size);
+                assertEquals(IOUtils.EOF, in.read());
+            }
+        }
+    }
+
+    @Test
+    public void testReadByte() throws IOException {
+        final byte[] data = TestUtils.generateTestData(100);
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 7, 3, null)) {
+            for (final byte b : data) {
+                assertEquals(b & 0xFF, in.read());
+            }
+            assertEquals(IOUtils.EOF, in.read());
+            assertEquals(IOUtils.EOF, in.read(new byte[1]));
+        }
+    }
+
+    @Test
+    public void testSkipAndAvailable() throws IOException, InterruptedException {
+        final byte[] data = TestUtils.generateTestData(100);
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 10)) {
+            assertEquals(data[0] & 0xFF, in.read());
+            // wait until the worker has filled the second buffer
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (in.available() < 19 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(19, in.available());
+            assertEquals(24, in.skip(24));
+            assertEquals(data[25] & 0xFF, in.read());
+            assertEquals(74, in.skip(1000));
+            assertEquals(0, in.skip(1));
+            assertEquals(0, in.available());
+        }
+    }
+
+    @Test
+    public void testExceptionAfterData() throws IOException {
+        final IOException exception = new IOException("test");
+        final byte[] data = TestUtils.generateTestData(25);
+        final InputStream source = new SequenceInputStream(new ByteArrayInputStream(data),
+            new CloseShieldInputStream(new BrokenInputStream(exception)));
+        try (ReadAheadInputStream in = new ReadAheadInputStream(source, 10)) {
+            final byte[] buffer = new byte[100];
+            assertEquals(10, IOUtils.read(in, buffer, 0, 10));
+            assertEquals(10, IOUtils.read(in, buffer, 10, 10));
+            // the partial last buffer is lost with the failure of the fill
+            assertSame(exception, assertThrows(IOException.class, () -> in.read(buffer)));
+            assertSame(exception, assertThrows(IOException.class, () -> in.read()));
+            assertArrayEquals(Arrays.copyOf(data, 20), Arrays.copyOf(buffer, 20));
+        }
+    }
+
+    @Test
+    public void testCloseStopsWorker() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final boolean[] closed = new boolean[1];
+            final InputStream source = new InfiniteCircularInputStream(TestUtils.generateTestData(10)) {
+                @Override
+                public void close() {
+                    closed[0] = true;
+                }
+            };
+            final ReadAheadInputStream in = new ReadAheadInputStream(source, 8, 4, executor);
+            assertEquals(8, IOUtils.read(in, new byte[8]));
+            in.close();
+            in.close();
+            assertTrue(closed[0]);
+            assertThrows(IOException.class, () -> in.read());
+            assertThrows(IOException.class, () -> in.available());
+            // the pool thread is free again and not left interrupted
+            assertEquals(Boolean.FALSE, executor.submit(() -> Thread.currentThread().isInterrupted()).get(10,
+                TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCloseUnblocksRead() throws Exception {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        // a read that ignores interrupts and only returns once the stream is closed, like a socket read
+        final InputStream source = new InputStream() {
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                while (true) {
+                    try {
+                        closed.await();
+                        throw new IOException("Stream closed");
+                    } catch (final InterruptedException e) {
+                        // ignored
+                    }
+                }
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final ReadAheadInputStream in = new ReadAheadInputStream(source, 8);
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+            executor.submit(() -> {
+                in.close();
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+            assertThrows(IOException.class, () -> in.read());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConstructorValidation() {
+        final InputStream source = new ByteArrayInputStream(new byte[0]);
+        assertThrows(NullPointerException.class, () -> new ReadAheadInputStream(null));
+        assertThrows(IllegalArgumentException.class, () -> new ReadAheadInputStream(source, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ReadAheadInputStream(source, 1, 1, null));
+    }
+}
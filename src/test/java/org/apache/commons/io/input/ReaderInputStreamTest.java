@@ -16,6 +16,7 @@
  */
 package org.apache.commons.io.input;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -23,8 +24,10 @@
 import java.io.IOException;
 import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 public class ReaderInputStreamTest {
@@ -144,4 +147,37 @@ public void testCharsetMismatchInfiniteLoop() throws IOException {
             }
         }
     }
+
+    private static String mixedString() {
+        final StringBuilder buffer = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            buffer.append("plain ascii text ").append(i).append(i % 7 == 0 ? " caf\u00e9 \ud83d\ude00 \u20ac" : "");
+        }
+        return buffer.toString();
+    }
+
+    @Test
+    public void testLargeReadsMatchStringEncoding() throws IOException {
+        final String testString = mixedString();
+        for (final Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1,
+            StandardCharsets.US_ASCII, StandardCharsets.UTF_16}) {
+            for (final int bufferSize : new int[] {16, 1024, 8192}) {
+                try (ReaderInputStream in = new ReaderInputStream(new StringReader(testString), charset, bufferSize)) {
+                    assertArrayEquals(testString.getBytes(charset), IOUtils.toByteArray(in), charset.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        final ReaderInputStream in = new ReaderInputStream(new StringReader(LARGE_TEST_STRING), StandardCharsets.UTF_16);
+        // leave buffered data and encoder state behind
+        assertEquals(100, in.read(new byte[100]));
+        in.reset(new StringReader(TEST_STRING));
+        assertArrayEquals(TEST_STRING.getBytes(StandardCharsets.UTF_16), IOUtils.toByteArray(in));
+        in.reset(new StringReader(""));
+        assertEquals(-1, in.read());
+        in.close();
+    }
 }
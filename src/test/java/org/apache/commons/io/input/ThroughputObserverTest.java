@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ThroughputObserver}.
+ */
+public class ThroughputObserverTest {
+
+    @Test
+    public void testStallsAndHistogram() throws IOException {
+        final InputStream slow = new ByteArrayInputStream(new byte[30]) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                try {
+                    Thread.sleep(5);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.read(b, off, Math.min(len, 10));
+            }
+        };
+        final ThroughputObserver observer = new ThroughputObserver(2, TimeUnit.MILLISECONDS);
+        try (ObservableInputStream in = new ObservableInputStream(slow)) {
+            in.add(observer);
+            in.consume();
+        }
+        assertEquals(30, observer.getBytes());
+        assertEquals(4, observer.getReads());
+        assertEquals(4, observer.getStalls());
+        assertTrue(observer.getStallNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(observer.getReadNanos(), observer.getStallNanos());
+        long slowReads = 0;
+        final long[] histogram = observer.getLatencyHistogram();
+        // 2^22 ns is about 4.2 ms
+        for (int i = 22; i < histogram.length; i++) {
+            slowReads += histogram[i];
+        }
+        assertEquals(4, slowReads);
+        assertTrue(observer.getBytesPerSecond() > 0);
+        assertTrue(observer.getReadBytesPerSecond() >= observer.getBytesPerSecond());
+
+        observer.reset();
+        assertEquals(0, observer.getBytes());
+        assertEquals(0, observer.getLatencyHistogram()[22]);
+        assertEquals(0, observer.getBytesPerSecond(), 0);
+    }
+}
@@ -30,6 +30,7 @@
 import java.io.Writer;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
@@ -102,6 +103,43 @@ protected void testNullURLConnectionInput() {
           assertThrows(NullPointerException.class, () -> new XmlStreamReader((URLConnection)null, "US-ASCII"));
     }
 
+    @Test
+    public void testLongPrologReadOneByteAtATime() throws Exception {
+        final StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            padding.append(' ');
+        }
+        final String xml = "<?xml version=\"1.0\"" + padding + "encoding=\"UTF-16LE\"?>\n<root>\u00e9</root>";
+        final byte[] bytes = xml.getBytes(StandardCharsets.UTF_16LE);
+        final InputStream oneByteAtATime = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(1, len));
+            }
+        };
+        try (XmlStreamReader reader = new XmlStreamReader(oneByteAtATime, false)) {
+            assertEquals("UTF-16LE", reader.getEncoding());
+            assertEquals(xml, IOUtils.toString(reader));
+        }
+    }
+
+    @Test
+    public void testPrologNotFound() throws Exception {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"");
+        while (xml.length() <= IOUtils.DEFAULT_BUFFER_SIZE) {
+            xml.append(' ');
+        }
+        final byte[] bytes = xml.toString().getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> new XmlStreamReader(new ByteArrayInputStream(bytes), false));
+        final byte[] truncated = "<?xml version=\"1.0\"".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> new XmlStreamReader(new ByteArrayInputStream(truncated), false));
+    }
+
     @Test
     public void testRawNoBomUsAscii() throws Exception {
         _testRawNoBomValid("US-ASCII");
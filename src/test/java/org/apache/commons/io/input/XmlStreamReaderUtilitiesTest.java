@@ -23,6 +23,8 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Locale;
+import java.util.regex.Matcher;
 
 import org.junit.jupiter.api.Test;
 
@@ -70,6 +72,43 @@ private void checkContentTypeEncoding(final String expected, final String httpCo
         assertEquals(expected, XmlStreamReader.getContentTypeEncoding(httpContentType), "ContentTypeEncoding=[" + httpContentType + "]");
     }
 
+    @Test
+    public void testContentTypeEncodingCharsetAfterOtherParameters() {
+        checkContentTypeEncoding("ISO-8859-1", "text/xml; q=1; charset=iso-8859-1");
+        checkContentTypeEncoding("UTF-8", "text/xml;charset=utf-8 ; q=1");
+        checkContentTypeEncoding("", "text/xml;charset=");
+        // cached results are the same
+        checkContentTypeEncoding("ISO-8859-1", "text/xml; q=1; charset=iso-8859-1");
+    }
+
+    @Test
+    public void testXmlPrologEncodingMatchesPattern() {
+        final String[] prologs = {
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+            "<?xml version='1.0' encoding='iso-8859-1'?>",
+            "<?xml version=\"1.0\" encoding = \t \"UTF-16\"?>",
+            "<?xml version=\"1.0\"\r\n  encoding\n=\"utf-8\"?>",
+            "<?xml version=\"1.0\"?>",
+            "<?xml encoding=\"\"?>",
+            "<?xml encoding=\"\"\"?>",
+            "<?xml encoding=UTF-8?>",
+            "<?xml encoding=\"UTF-8\" encoding='ISO-8859-1'?>",
+            "<?xml encoding=\"UTF-8\" encoding=?>",
+            "<root>",
+            "<!-- <?xml encoding='x' --> <?xml encoding=\"UTF-8\"?>",
+            "<?xmlencoding='US-ASCII'?>",
+        };
+        for (final String prolog : prologs) {
+            final Matcher m = XmlStreamReader.ENCODING_PATTERN.matcher(prolog.replace("\r", "").replace("\n", ""));
+            String expected = null;
+            if (m.find()) {
+                expected = m.group(1).toUpperCase(Locale.ROOT);
+                expected = expected.substring(1, expected.length() - 1);
+            }
+            assertEquals(expected, XmlStreamReader.getXmlPrologEncoding(prolog), prolog);
+        }
+    }
+
     @Test
     public void testContentTypeMime() {
         checkContentTypeMime(null, null);
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.input.buffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link PeekableInputStream} and the bulk operations of {@link CircularByteBuffer}.
+ */
+public class PeekableInputStreamTest {
+
+    private static final byte[] DATA = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    @Test
+    public void testPeekByteArray() throws IOException {
+        try (PeekableInputStream in = new PeekableInputStream(new ByteArrayInputStream(DATA), 4)) {
+            assertTrue(in.peek(new byte[] {0, 1, 2}));
+            assertFalse(in.peek(new byte[] {0, 1, 3}));
+            assertTrue(in.peek(new byte[] {9, 0, 1, 2}, 1, 3));
+            assertEquals(0, in.read());
+            assertEquals(1, in.read());
+            assertEquals(2, in.read());
+            // the next bytes wrap around the end of the ring
+            assertTrue(in.peek(new byte[] {3, 4, 5, 6}));
+            assertFalse(in.peek(new byte[] {3, 4, 5, 7}));
+            final byte[] rest = new byte[7];
+            assertEquals(7, IOUtils.read(in, rest));
+            assertArrayEquals(new byte[] {3, 4, 5, 6, 7, 8, 9}, rest);
+            // nothing left to match
+            assertFalse(in.peek(new byte[] {0}));
+        }
+    }
+
+    @Test
+    public void testPeekByteBuffer() throws IOException {
+        try (PeekableInputStream in = new PeekableInputStream(new ByteArrayInputStream(DATA), 4)) {
+            in.read(new byte[3]);
+            final ByteBuffer target = ByteBuffer.allocate(4);
+            assertEquals(4, in.peek(target));
+            assertArrayEquals(new byte[] {3, 4, 5, 6}, target.array());
+            assertEquals(3, in.read());
+
+            in.skip(5);
+            target.clear();
+            assertEquals(1, in.peek(target));
+            assertEquals(9, target.get(0));
+            assertEquals(9, in.read());
+            target.clear();
+            assertEquals(0, in.peek(target));
+        }
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        try (PeekableInputStream in = new PeekableInputStream(Channels.newChannel(new ByteArrayInputStream(DATA)),
+            3)) {
+            assertTrue(in.peek(new byte[] {0, 1, 2}));
+            assertArrayEquals(DATA, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testBufferBulkWrapAround() throws IOException {
+        final CircularByteBuffer buffer = new CircularByteBuffer(5);
+        buffer.add(DATA, 0, 4);
+        final byte[] out = new byte[4];
+        buffer.read(out, 0, 3);
+        assertArrayEquals(new byte[] {0, 1, 2, 0}, out);
+        buffer.add(DATA, 4, 4);
+        assertEquals(5, buffer.getCurrentNumberOfBytes());
+        assertTrue(buffer.peek(new byte[] {3, 4, 5, 6, 7}, 0, 5));
+        buffer.read(out, 0, 4);
+        assertArrayEquals(new byte[] {3, 4, 5, 6}, out);
+        assertEquals(7, buffer.read());
+
+        // fill from a stream: one contiguous region per call
+        final ByteArrayInputStream in = new ByteArrayInputStream(DATA);
+        assertEquals(2, buffer.add(in));
+        assertEquals(3, buffer.add(in));
+        assertEquals(0, buffer.add(in));
+        final byte[] all = new byte[5];
+        buffer.read(all, 0, 5);
+        assertArrayEquals(new byte[] {0, 1, 2, 3, 4}, all);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.AbstractByteArrayOutputStream;
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares byte-at-a-time and bulk writes to the synchronized and unsynchronized
+ * {@link AbstractByteArrayOutputStream} implementations.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dbenchmark=ByteArrayOutputStreamBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-server"})
+public class ByteArrayOutputStreamBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    @Param({"16", "8192"})
+    public int chunkSize;
+
+    private byte[] chunk;
+
+    @Setup
+    public void setUp() {
+        chunk = new byte[chunkSize];
+        for (int i = 0; i < chunkSize; i++) {
+            chunk[i] = (byte) i;
+        }
+    }
+
+    private static byte[] writeBytes(final AbstractByteArrayOutputStream out, final int size) {
+        for (int i = 0; i < size; i++) {
+            out.write(i);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] writeChunks(final AbstractByteArrayOutputStream out) {
+        int remaining = size;
+        while (remaining > 0) {
+            final int n = Math.min(remaining, chunk.length);
+            out.write(chunk, 0, n);
+            remaining -= n;
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] synchronizedWriteByte() {
+        return writeBytes(new ByteArrayOutputStream(), size);
+    }
+
+    @Benchmark
+    public byte[] unsynchronizedWriteByte() {
+        return writeBytes(new UnsynchronizedByteArrayOutputStream(), size);
+    }
+
+    @Benchmark
+    public byte[] synchronizedWriteBulk() {
+        return writeChunks(new ByteArrayOutputStream());
+    }
+
+    @Benchmark
+    public byte[] unsynchronizedWriteBulk() {
+        return writeChunks(new UnsynchronizedByteArrayOutputStream());
+    }
+
+    @Benchmark
+    public byte[] jdkWriteBulk() {
+        final java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream(1024);
+        int remaining = size;
+        while (remaining > 0) {
+            final int n = Math.min(remaining, chunk.length);
+            out.write(chunk, 0, n);
+            remaining -= n;
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.DirectoryWalker;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of a sequential {@link DirectoryWalker} walk against a fork-join walk and a streaming NIO
+ * walk, on a wide tree (many siblings, shallow), on a deep tree (few siblings, many levels) and on one huge flat
+ * directory.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dbenchmark=DirectoryWalkerBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-server"})
+public class DirectoryWalkerBenchmark {
+
+    /**
+     * Collects every file and directory.
+     */
+    private static final class FileCollector extends DirectoryWalker<File> {
+
+        List<File> find(final File startDirectory) throws IOException {
+            final List<File> results = new ArrayList<>();
+            walk(startDirectory, results);
+            return results;
+        }
+
+        List<File> find(final Path startDirectory) throws IOException {
+            final List<File> results = new ArrayList<>();
+            walk(startDirectory, results);
+            return results;
+        }
+
+        Collection<File> find(final File startDirectory, final ForkJoinPool pool) throws IOException {
+            final Collection<File> results = new ConcurrentLinkedQueue<>();
+            walk(startDirectory, results, pool);
+            return results;
+        }
+
+        @Override
+        protected void handleDirectoryEnd(final File directory, final int depth, final Collection<File> results) {
+            results.add(directory);
+        }
+
+        @Override
+        protected void handleFile(final File file, final int depth, final Collection<File> results) {
+            results.add(file);
+        }
+    }
+
+    @Param({"wide", "deep", "flat"})
+    public String shape;
+
+    private Path root;
+
+    private ForkJoinPool pool;
+
+    private final FileCollector walker = new FileCollector();
+
+    private static void createTree(final Path directory, final int width, final int depth, final int files)
+        throws IOException {
+        for (int f = 0; f < files; f++) {
+            Files.createFile(directory.resolve("file" + f + ".txt"));
+        }
+        if (depth > 0) {
+            for (int w = 0; w < width; w++) {
+                createTree(Files.createDirectory(directory.resolve("dir" + w)), width, depth - 1, files);
+            }
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("commons-io-walker-bench");
+        if ("wide".equals(shape)) {
+            // 1 + 64 + 4096 directories
+            createTree(root, 64, 2, 4);
+        } else if ("deep".equals(shape)) {
+            // 2^12 - 1 directories, 12 levels
+            createTree(root, 2, 11, 4);
+        } else {
+            // one directory of 20000 files
+            createTree(root, 0, 0, 20000);
+        }
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public int parallel() throws IOException {
+        return walker.find(root.toFile(), pool).size();
+    }
+
+    @Benchmark
+    public int path() throws IOException {
+        return walker.find(root).size();
+    }
+
+    @Benchmark
+    public int sequential() throws IOException {
+        return walker.find(root.toFile()).size();
+    }
+}
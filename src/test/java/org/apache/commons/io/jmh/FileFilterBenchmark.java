@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.jmh;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.AgeFileFilter;
+import org.apache.commons.io.filefilter.CanReadFileFilter;
+import org.apache.commons.io.filefilter.FileFileFilter;
+import org.apache.commons.io.filefilter.FileFilterUtils;
+import org.apache.commons.io.filefilter.HiddenFileFilter;
+import org.apache.commons.io.filefilter.IOFileFilter;
+import org.apache.commons.io.filefilter.SizeFileFilter;
+import org.apache.commons.io.filefilter.SuffixFileFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a composite {@link IOFileFilter} applied during {@link Files#walkFileTree(Path, java.nio.file.FileVisitor)}
+ * on a synthetic tree. The {@code File} variant stats the file once per predicate. The {@code Path} variant reuses
+ * the attributes read by the walk.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dbenchmark=FileFilterBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-server"})
+public class FileFilterBenchmark {
+
+    /**
+     * Counts the files accepted by a filter.
+     */
+    private abstract static class CountingVisitor extends SimpleFileVisitor<Path> {
+
+        final IOFileFilter filter;
+        int accepted;
+
+        CountingVisitor(final IOFileFilter filter) {
+            this.filter = filter;
+        }
+    }
+
+    @Param({"100"})
+    public int directories;
+
+    @Param({"200"})
+    public int filesPerDirectory;
+
+    private Path root;
+
+    private IOFileFilter filter;
+
+    @Setup
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("commons-io-filter-bench");
+        final byte[] data = new byte[1024];
+        for (int d = 0; d < directories; d++) {
+            final Path dir = Files.createDirectory(root.resolve("dir" + d));
+            for (int f = 0; f < filesPerDirectory; f++) {
+                final String name = (f % 10 == 0 ? "." : "") + "file" + f + (f % 3 == 0 ? ".log" : ".txt");
+                Files.write(dir.resolve(name), Arrays.copyOf(data, f % 4 * 400));
+            }
+        }
+        filter = FileFilterUtils.and(FileFileFilter.FILE, HiddenFileFilter.VISIBLE, CanReadFileFilter.CAN_READ,
+            new SizeFileFilter(500), new AgeFileFilter(System.currentTimeMillis() + 60_000),
+            new SuffixFileFilter(".txt"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public int fileAccept() throws IOException {
+        final CountingVisitor visitor = new CountingVisitor(filter) {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                if (filter.accept(file.toFile())) {
+                    accepted++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        };
+        Files.walkFileTree(root, visitor);
+        return visitor.accepted;
+    }
+
+    @Benchmark
+    public int pathAccept() throws IOException {
+        final CountingVisitor visitor = new CountingVisitor(filter) {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                if (filter.accept(file, attributes)) {
+                    accepted++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        };
+        Files.walkFileTree(root, visitor);
+        return visitor.accepted;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.MagicNumberFileFilter;
+import org.apache.commons.io.filefilter.MagicNumberSniffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures classifying files against many magic numbers, one {@link MagicNumberFileFilter} per format versus one
+ * {@link MagicNumberSniffer}.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dbenchmark=MagicNumberSnifferBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-server"})
+public class MagicNumberSnifferBenchmark {
+
+    @Param({"40"})
+    public int formats;
+
+    @Param({"1000"})
+    public int fileCount;
+
+    private Path root;
+
+    private final List<Path> files = new ArrayList<>();
+
+    private final List<MagicNumberFileFilter> filters = new ArrayList<>();
+
+    private MagicNumberSniffer<Integer> sniffer;
+
+    @Setup
+    public void setup() throws IOException {
+        final Random random = new Random(1);
+        final List<MagicNumberSniffer.Signature<Integer>> signatures = new ArrayList<>();
+        final List<byte[]> magicNumbers = new ArrayList<>();
+        for (int i = 0; i < formats; i++) {
+            final byte[] magicNumber = new byte[2 + random.nextInt(6)];
+            random.nextBytes(magicNumber);
+            final long offset = i % 8 == 0 ? 257 : 0;
+            magicNumbers.add(magicNumber);
+            filters.add(new MagicNumberFileFilter(magicNumber, offset));
+            signatures.add(new MagicNumberSniffer.Signature<>(i, magicNumber, offset));
+        }
+        sniffer = new MagicNumberSniffer<>(signatures);
+        root = Files.createTempDirectory("commons-io-sniffer-bench");
+        for (int f = 0; f < fileCount; f++) {
+            final byte[] content = new byte[4096];
+            random.nextBytes(content);
+            final int format = f % formats;
+            final byte[] magicNumber = magicNumbers.get(format);
+            System.arraycopy(magicNumber, 0, content, format % 8 == 0 ? 257 : 0, magicNumber.length);
+            files.add(Files.write(root.resolve("file" + f), content));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public int filters() {
+        int sum = 0;
+        for (final Path file : files) {
+            for (int i = 0; i < filters.size(); i++) {
+                if (filters.get(i).accept(file.toFile())) {
+                    sum += i;
+                    break;
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int sniffer() throws IOException {
+        int sum = 0;
+        for (final Path file : files) {
+            final Integer type = sniffer.getType(file);
+            if (type != null) {
+                sum += type.intValue();
+            }
+        }
+        return sum;
+    }
+}
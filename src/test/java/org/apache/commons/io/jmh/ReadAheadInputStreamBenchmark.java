@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.ReadAheadInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how much {@link ReadAheadInputStream} overlaps the latency of a slow source with the processing of the
+ * consumer, compared to reading the source directly.
+ * <p>
+ * Both the source and the sink burn CPU for every byte, standing in for decompression and parsing. Without read
+ * ahead the two costs add up; with read ahead the time per copy approaches the larger of the two.
+ * </p>
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dbenchmark=ReadAheadInputStreamBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-server"})
+public class ReadAheadInputStreamBenchmark {
+
+    /**
+     * A source of zeros that costs {@code tokens} of CPU per byte read.
+     */
+    private static final class SlowInputStream extends InputStream {
+
+        private final long tokens;
+        private long remaining;
+
+        SlowInputStream(final long size, final long tokens) {
+            this.remaining = size;
+            this.tokens = tokens;
+        }
+
+        @Override
+        public int read() {
+            return read(new byte[1], 0, 1) == IOUtils.EOF ? IOUtils.EOF : 0;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (remaining == 0) {
+                return IOUtils.EOF;
+            }
+            final int n = (int) Math.min(len, remaining);
+            Blackhole.consumeCPU(tokens * n);
+            remaining -= n;
+            return n;
+        }
+    }
+
+    /**
+     * A sink that costs {@code tokens} of CPU per byte written.
+     */
+    private static final class SlowOutputStream extends OutputStream {
+
+        private final long tokens;
+
+        SlowOutputStream(final long tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public void write(final int b) {
+            Blackhole.consumeCPU(tokens);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            Blackhole.consumeCPU(tokens * len);
+        }
+    }
+
+    @Param({"1048576"})
+    public long size;
+
+    @Param({"1", "4"})
+    public long sourceTokens;
+
+    @Param({"4"})
+    public long sinkTokens;
+
+    @Param({"8192", "65536"})
+    public int bufferSize;
+
+    @Benchmark
+    public long direct() throws IOException {
+        try (InputStream in = new SlowInputStream(size, sourceTokens)) {
+            return IOUtils.copy(in, new SlowOutputStream(sinkTokens), bufferSize);
+        }
+    }
+
+    @Benchmark
+    public long readAhead() throws IOException {
+        try (InputStream in = new ReadAheadInputStream(new SlowInputStream(size, sourceTokens), bufferSize)) {
+            return IOUtils.copy(in, new SlowOutputStream(sinkTokens), bufferSize);
+        }
+    }
+}
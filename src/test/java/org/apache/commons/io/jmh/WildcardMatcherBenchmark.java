@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.WildcardMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures matching file names against a set of include globs, one {@link FilenameUtils#wildcardMatch} call per
+ * glob versus one compiled {@link WildcardMatcher} for the whole set.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dbenchmark=WildcardMatcherBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-server"})
+public class WildcardMatcherBenchmark {
+
+    private static final String[] EXTENSIONS = {"java", "class", "txt", "xml", "properties", "log", "md", "jar"};
+
+    @Param({"10", "300"})
+    public int wildcardCount;
+
+    @Param({"SENSITIVE", "INSENSITIVE"})
+    public IOCase caseSensitivity;
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<String> wildcards = new ArrayList<>();
+
+    private WildcardMatcher matcher;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        for (int i = 0; i < wildcardCount; i++) {
+            final String extension = EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            switch (i % 4) {
+            case 0:
+                wildcards.add("*" + i + "*." + extension);
+                break;
+            case 1:
+                wildcards.add("module" + i + "-*." + extension);
+                break;
+            case 2:
+                wildcards.add("*Test" + i + "?." + extension);
+                break;
+            default:
+                wildcards.add("gen-" + i + "-*-*.tmp");
+                break;
+            }
+        }
+        for (int i = 0; i < 10_000; i++) {
+            names.add((i % 5 == 0 ? "module" : "File") + random.nextInt(1000) + (i % 3 == 0 ? "Test1" : "-x") + "."
+                + EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+        }
+        matcher = WildcardMatcher.compile(caseSensitivity, wildcards);
+    }
+
+    @Benchmark
+    public int compiled() {
+        int matches = 0;
+        for (final String name : names) {
+            if (matcher.matches(name)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int wildcardMatch() {
+        int matches = 0;
+        for (final String name : names) {
+            for (final String wildcard : wildcards) {
+                if (FilenameUtils.wildcardMatch(name, wildcard, caseSensitivity)) {
+                    matches++;
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+}
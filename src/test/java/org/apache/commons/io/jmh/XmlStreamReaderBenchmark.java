@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.input.XmlStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of opening an {@link XmlStreamReader} on a small document, which is dominated by encoding
+ * detection, against the regular expression based implementation kept for compatibility tests.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dbenchmark=XmlStreamReaderBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-server"})
+public class XmlStreamReaderBenchmark {
+
+    @Param({"UTF-8", "UTF-16LE"})
+    public String charset;
+
+    @Param({"text/xml; charset=UTF-8", "application/xml"})
+    public String contentType;
+
+    @Param({"512"})
+    public int size;
+
+    private byte[] document;
+
+    private final char[] buffer = new char[64];
+
+    @Setup
+    public void setup() {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"").append(charset)
+            .append("\"?>\n<feed>");
+        while (xml.length() < size - "</feed>".length()) {
+            xml.append("<entry/>");
+        }
+        xml.append("</feed>");
+        document = xml.toString().getBytes(charset.equals("UTF-8") ? StandardCharsets.UTF_8
+            : StandardCharsets.UTF_16LE);
+    }
+
+    @Benchmark
+    public int raw() throws IOException {
+        try (Reader reader = new XmlStreamReader(new ByteArrayInputStream(document))) {
+            return reader.read(buffer);
+        }
+    }
+
+    @Benchmark
+    public int http() throws IOException {
+        try (Reader reader = new XmlStreamReader(new ByteArrayInputStream(document), contentType)) {
+            return reader.read(buffer);
+        }
+    }
+
+    @Benchmark
+    public int compatibilityRaw() throws IOException {
+        try (Reader reader = new org.apache.commons.io.input.compatibility.XmlStreamReader(
+            new ByteArrayInputStream(document))) {
+            return reader.read(buffer);
+        }
+    }
+
+    @Benchmark
+    public int compatibilityHttp() throws IOException {
+        try (Reader reader = new org.apache.commons.io.input.compatibility.XmlStreamReader(
+            new ByteArrayInputStream(document), contentType)) {
+            return reader.read(buffer);
+        }
+    }
+}
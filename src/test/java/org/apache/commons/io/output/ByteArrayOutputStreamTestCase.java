@@ -19,6 +19,13 @@
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
@@ -274,6 +281,78 @@ public void testToInputStreamWithReset(final String baosName, final BAOSFactory<
         }
     }
 
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("baosFactories")
+    public void testToByteBuffers(final String baosName, final BAOSFactory<?> baosFactory) throws IOException {
+        try (final AbstractByteArrayOutputStream baout = baosFactory.newInstance(32);
+            final java.io.ByteArrayOutputStream ref = new java.io.ByteArrayOutputStream()) {
+            assertEquals(0, baout.toByteBuffers().length);
+            writeData(baout, ref, new int[] {4, 10, 22, 64});
+            final ByteBuffer[] byteBuffers = baout.toByteBuffers();
+            assertEquals(3, byteBuffers.length);
+            final byte[] refData = ref.toByteArray();
+
+            // views survive a reset
+            baout.reset();
+            writeData(baout, new java.io.ByteArrayOutputStream(), 64);
+
+            final java.io.ByteArrayOutputStream actual = new java.io.ByteArrayOutputStream();
+            for (final ByteBuffer byteBuffer : byteBuffers) {
+                assertTrue(byteBuffer.isReadOnly());
+                final byte[] bytes = new byte[byteBuffer.remaining()];
+                byteBuffer.get(bytes);
+                actual.write(bytes);
+            }
+            checkByteArrays(refData, actual.toByteArray());
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("baosFactories")
+    public void testToReadableByteChannel(final String baosName, final BAOSFactory<?> baosFactory) throws IOException {
+        try (final AbstractByteArrayOutputStream baout = baosFactory.newInstance(32);
+            final java.io.ByteArrayOutputStream ref = new java.io.ByteArrayOutputStream()) {
+            writeData(baout, ref, new int[] {4, 10, 22, 64, 33});
+            try (final ReadableByteChannel channel = baout.toReadableByteChannel()) {
+                // read through a buffer smaller than the segments
+                final ByteBuffer dst = ByteBuffer.allocate(7);
+                final java.io.ByteArrayOutputStream actual = new java.io.ByteArrayOutputStream();
+                while (channel.read(dst) != -1) {
+                    dst.flip();
+                    actual.write(dst.array(), 0, dst.limit());
+                    dst.clear();
+                }
+                checkByteArrays(ref.toByteArray(), actual.toByteArray());
+                assertEquals(-1, channel.read(dst));
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("baosFactories")
+    public void testWriteToChannel(final String baosName, final BAOSFactory<?> baosFactory) throws IOException {
+        try (final AbstractByteArrayOutputStream baout = baosFactory.newInstance(32);
+            final java.io.ByteArrayOutputStream ref = new java.io.ByteArrayOutputStream()) {
+            writeData(baout, ref, new int[] {4, 10, 22, 64, 33});
+
+            final java.io.ByteArrayOutputStream plain = new java.io.ByteArrayOutputStream();
+            baout.writeTo(Channels.newChannel(plain));
+            checkByteArrays(ref.toByteArray(), plain.toByteArray());
+
+            final Path file = Files.createTempFile(getClass().getSimpleName(), ".bin");
+            try {
+                try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    baout.writeTo(channel);
+                }
+                checkByteArrays(ref.toByteArray(), Files.readAllBytes(file));
+            } finally {
+                Files.delete(file);
+            }
+            // writeTo does not expose the buffers, the stream remains fully usable
+            checkStreams(baout, ref);
+        }
+    }
+
     @ParameterizedTest(name = "[{index}] {0}")
     @MethodSource("baosFactories")
     public void testStream(final String baosName, final BAOSFactory<?> baosFactory) throws Exception {
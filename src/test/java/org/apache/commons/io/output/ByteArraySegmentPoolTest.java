@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.test.TestUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ByteArraySegmentPool}.
+ */
+public class ByteArraySegmentPoolTest {
+
+    @Test
+    public void testAcquireRelease() {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(16, 2);
+        final byte[] a = pool.acquire();
+        final byte[] b = pool.acquire();
+        final byte[] c = pool.acquire();
+        assertEquals(16, a.length);
+        assertEquals(3, pool.getOutstandingCount());
+        assertEquals(3, pool.getAllocatedCount());
+        pool.release(a);
+        pool.release(b);
+        pool.release(c);
+        assertEquals(0, pool.getOutstandingCount());
+        assertEquals(2, pool.getPooledCount());
+        assertEquals(1, pool.getDiscardedCount());
+        assertSame(a, pool.acquire());
+        assertEquals(1, pool.getReusedCount());
+        pool.clear();
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    @Test
+    public void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new ByteArraySegmentPool(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ByteArraySegmentPool(1, -1));
+        assertThrows(NullPointerException.class, () -> new UnsynchronizedByteArrayOutputStream((ByteArraySegmentPool) null));
+        assertThrows(NullPointerException.class, () -> new ByteArrayOutputStream((ByteArraySegmentPool) null));
+    }
+
+    @Test
+    public void testForeignArrayIgnored() {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(16, 2);
+        pool.release(new byte[8]);
+        pool.release(new byte[16]);
+        pool.release(null);
+        pool.forget(new byte[16]);
+        assertEquals(0, pool.getPooledCount());
+        assertEquals(0, pool.getOutstandingCount());
+    }
+
+    @Test
+    public void testForget() {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(16, 2);
+        final byte[] a = pool.acquire();
+        pool.forget(a);
+        assertEquals(0, pool.getOutstandingCount());
+        pool.release(a);
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    @Test
+    public void testReleaseTwice() {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(16, 2);
+        final byte[] a = pool.acquire();
+        pool.acquire();
+        pool.release(a);
+        pool.release(a);
+        assertEquals(1, pool.getOutstandingCount());
+        assertEquals(1, pool.getPooledCount());
+    }
+
+    @Test
+    public void testResetAfterToInputStreamForgetsSegments() throws IOException {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(8, 10);
+        try (UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream(pool)) {
+            out.write(TestUtils.generateTestData(20));
+            out.toInputStream();
+            out.reset();
+            assertEquals(1, pool.getOutstandingCount());
+            out.write(TestUtils.generateTestData(20));
+            out.toByteBuffers();
+        }
+        assertEquals(0, pool.getOutstandingCount());
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    @Test
+    public void testStreamReturnsSegmentsOnClose() throws IOException {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(16, 100);
+        final byte[] data = TestUtils.generateTestData(100);
+        try (UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream(pool)) {
+            out.write(data);
+            assertArrayEquals(data, out.toByteArray());
+            assertEquals(7, pool.getOutstandingCount());
+        }
+        assertEquals(0, pool.getOutstandingCount());
+        assertEquals(7, pool.getPooledCount());
+
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(pool)) {
+            out.write(data, 0, 40);
+            assertEquals(3, pool.getReusedCount());
+        }
+        assertEquals(7, pool.getAllocatedCount());
+        assertEquals(0, pool.getOutstandingCount());
+    }
+
+    @Test
+    public void testStreamUsableAfterClose() throws IOException {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(8, 10);
+        final UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream(pool);
+        out.write(TestUtils.generateTestData(20));
+        out.close();
+        assertEquals(0, out.size());
+        assertEquals(0, out.toByteArray().length);
+        out.reset();
+        out.write(1);
+        out.write(TestUtils.generateTestData(20));
+        assertEquals(21, out.size());
+        out.close();
+        out.close();
+        assertEquals(0, pool.getOutstandingCount());
+    }
+
+    @Test
+    public void testToInputStreamKeepsSegments() throws IOException {
+        final ByteArraySegmentPool pool = new ByteArraySegmentPool(8, 10);
+        final byte[] data = TestUtils.generateTestData(20);
+        final InputStream in;
+        try (UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream(pool)) {
+            out.write(data);
+            in = out.toInputStream();
+        }
+        // the segments are owned by the InputStream now
+        assertEquals(0, pool.getPooledCount());
+        assertEquals(0, pool.getOutstandingCount());
+        final byte[] other = pool.acquire();
+        other[0] = 42;
+        assertArrayEquals(data, IOUtils.toByteArray(in));
+    }
+}
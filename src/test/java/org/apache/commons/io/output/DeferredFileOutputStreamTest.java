@@ -16,10 +16,12 @@
  */
 package org.apache.commons.io.output;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -27,10 +29,20 @@
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.stream.IntStream;
 
+import org.apache.commons.io.FileCleaningTracker;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -54,6 +66,9 @@ public static IntStream data() {
      */
     private final byte[] testBytes = testString.getBytes();
 
+    @TempDir
+    public File temporaryFolder;
+
     /**
      * Tests the case where the amount of data falls below the threshold, and is therefore confined to memory.
      */
@@ -365,4 +380,75 @@ private void verifyResultFile(final File testFile) {
             fail("Unexpected IOException");
         }
     }
+
+    private DeferredFileOutputStream writeAndClose(final int threshold) throws IOException {
+        final DeferredFileOutputStream dfos = new DeferredFileOutputStream(threshold, "dfos", ".tmp", temporaryFolder);
+        dfos.write(testBytes);
+        dfos.close();
+        return dfos;
+    }
+
+    @Test
+    public void testToInputStream() throws IOException {
+        for (final int threshold : new int[] {testBytes.length, testBytes.length / 2}) {
+            final DeferredFileOutputStream dfos = writeAndClose(threshold);
+            try (InputStream in = dfos.toInputStream()) {
+                assertArrayEquals(testBytes, IOUtils.toByteArray(in));
+            }
+        }
+        final DeferredFileOutputStream open = new DeferredFileOutputStream(1, "dfos", ".tmp", temporaryFolder);
+        assertThrows(IOException.class, open::toInputStream);
+    }
+
+    @Test
+    public void testWriteToChannel() throws IOException {
+        for (final int threshold : new int[] {testBytes.length, testBytes.length / 2}) {
+            final DeferredFileOutputStream dfos = writeAndClose(threshold);
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            dfos.writeTo(Channels.newChannel(baos));
+            assertArrayEquals(testBytes, baos.toByteArray());
+
+            final Path target = new File(temporaryFolder, "target" + threshold).toPath();
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+                dfos.writeTo(channel);
+            }
+            assertArrayEquals(testBytes, Files.readAllBytes(target));
+        }
+    }
+
+    @Test
+    public void testToByteBuffer() throws IOException {
+        for (final int threshold : new int[] {testBytes.length, testBytes.length / 2}) {
+            final ByteBuffer byteBuffer = writeAndClose(threshold).toByteBuffer();
+            assertTrue(byteBuffer.isReadOnly() || byteBuffer.isDirect());
+            final byte[] actual = new byte[byteBuffer.remaining()];
+            byteBuffer.get(actual);
+            assertArrayEquals(testBytes, actual);
+        }
+    }
+
+    @Test
+    public void testTrackFile() throws IOException {
+        final FileCleaningTracker tracker = new FileCleaningTracker();
+        try {
+            final DeferredFileOutputStream dfos = new DeferredFileOutputStream(testBytes.length / 2, "dfos", ".tmp",
+                temporaryFolder);
+            dfos.trackFile(tracker);
+            dfos.write(testBytes, 0, 2);
+            assertEquals(0, tracker.getTrackCount());
+            dfos.write(testBytes, 2, testBytes.length - 2);
+            assertEquals(1, tracker.getTrackCount());
+            dfos.close();
+
+            final DeferredFileOutputStream spilled = writeAndClose(testBytes.length / 2);
+            spilled.trackFile(tracker);
+            assertEquals(2, tracker.getTrackCount());
+
+            writeAndClose(testBytes.length).trackFile(tracker);
+            assertEquals(2, tracker.getTrackCount());
+        } finally {
+            tracker.exitWhenFinished();
+        }
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link MultiDigestCalculatingOutputStream}.
+ */
+public class MultiDigestCalculatingOutputStreamTest {
+
+    @Test
+    public void testCopy() throws IOException, NoSuchAlgorithmException {
+        final byte[] data = new byte[20_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 3);
+        }
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (MultiDigestCalculatingOutputStream out = new MultiDigestCalculatingOutputStream(target, "MD5",
+            "SHA-1")) {
+            out.write(data[0]);
+            out.write(new byte[] {data[1], data[2]});
+            IOUtils.copy(new ByteArrayInputStream(data, 3, data.length - 3), out);
+            assertArrayEquals(data, target.toByteArray());
+            assertArrayEquals(MessageDigest.getInstance("MD5").digest(data),
+                out.getMultiDigest().getMessageDigest("MD5").digest());
+            assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(data),
+                out.getMultiDigest().getMessageDigest("SHA-1").digest());
+        }
+    }
+}
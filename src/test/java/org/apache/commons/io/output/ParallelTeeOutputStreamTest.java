@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.output.ParallelTeeOutputStream.SlowBranchPolicy;
+import org.apache.commons.io.test.TestUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ParallelTeeOutputStream}.
+ */
+public class ParallelTeeOutputStreamTest {
+
+    /**
+     * A branch that waits for a gate before its first write, and may fail after it.
+     */
+    private static final class GatedOutputStream extends ByteArrayOutputStream {
+
+        final CountDownLatch gate = new CountDownLatch(1);
+        boolean closed;
+        RuntimeException failure;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            try {
+                // bounded so that a failed assertion cannot hang close()
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.write(b, off, len);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes one chunk at a time and lets branch 0 catch up after each, so that only branch 1 can fall behind.
+     */
+    private static void writeChunks(final ParallelTeeOutputStream out, final byte[] data, final int chunkSize)
+        throws IOException, InterruptedException {
+        for (int i = 0; i < data.length; i += chunkSize) {
+            out.write(data, i, chunkSize);
+            while (out.getLag(0) > 0) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    @Test
+    public void testAllBranchesGetAllData() throws IOException {
+        final byte[] data = TestUtils.generateTestData(10_000);
+        final ByteArrayOutputStream a = new ByteArrayOutputStream();
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        final ByteArrayOutputStream c = new ByteArrayOutputStream();
+        try (ParallelTeeOutputStream out = new ParallelTeeOutputStream(Arrays.asList(a, b, c), 64, 2,
+            SlowBranchPolicy.BLOCK, null)) {
+            out.write(data[0]);
+            out.write(data, 1, data.length - 1);
+            out.flush();
+            assertEquals(data.length, a.size());
+            assertEquals(0, out.getLag(1));
+            assertEquals(3, out.getBranchCount());
+        }
+        assertArrayEquals(data, a.toByteArray());
+        assertArrayEquals(data, b.toByteArray());
+        assertArrayEquals(data, c.toByteArray());
+    }
+
+    @Test
+    public void testDropPolicy() throws IOException, InterruptedException {
+        final byte[] data = TestUtils.generateTestData(100);
+        final ByteArrayOutputStream fast = new ByteArrayOutputStream();
+        final GatedOutputStream slow = new GatedOutputStream();
+        try (ParallelTeeOutputStream out = new ParallelTeeOutputStream(Arrays.asList(fast, slow), 10, 2,
+            SlowBranchPolicy.DROP, null)) {
+            writeChunks(out, data, 10);
+            // the slow branch holds at most one chunk being written plus two queued
+            assertTrue(out.getDroppedBytes(1) >= 70);
+            assertTrue(out.getLag(1) <= 30);
+            assertEquals(0, out.getDroppedBytes(0));
+            slow.gate.countDown();
+            out.flush();
+            assertEquals(100, fast.size());
+            assertEquals(100 - out.getDroppedBytes(1), slow.size());
+            assertFalse(out.isDetached(1));
+        }
+    }
+
+    @Test
+    public void testDetachPolicy() throws IOException, InterruptedException {
+        final byte[] data = TestUtils.generateTestData(100);
+        final ByteArrayOutputStream fast = new ByteArrayOutputStream();
+        final GatedOutputStream slow = new GatedOutputStream();
+        try (ParallelTeeOutputStream out = new ParallelTeeOutputStream(Arrays.asList(fast, slow), 10, 2,
+            SlowBranchPolicy.DETACH, null)) {
+            writeChunks(out, data, 10);
+            assertTrue(out.isDetached(1));
+            assertFalse(out.isDetached(0));
+            out.flush();
+            assertEquals(100, fast.size());
+            slow.gate.countDown();
+        }
+        assertTrue(slow.closed);
+        assertTrue(slow.size() < 100);
+    }
+
+    @Test
+    public void testBranchFailure() throws IOException {
+        final IOException exception = new IOException("test");
+        final ByteArrayOutputStream good = new ByteArrayOutputStream();
+        final ParallelTeeOutputStream out = new ParallelTeeOutputStream(good, new BrokenOutputStream(exception));
+        out.write(TestUtils.generateTestData(10));
+        assertSame(exception, assertThrows(IOException.class, out::flush));
+        assertSame(exception, assertThrows(IOException.class, () -> out.write(1)));
+        assertSame(exception, assertThrows(IOException.class, out::close));
+        assertEquals(10, good.size());
+        assertSame(exception, out.getBranchFailure(1));
+    }
+
+    @Test
+    public void testBranchFailureDetachesBranch() throws IOException {
+        for (final SlowBranchPolicy policy : new SlowBranchPolicy[] {SlowBranchPolicy.DROP, SlowBranchPolicy.DETACH}) {
+            final IOException exception = new IOException("test");
+            final boolean[] closed = new boolean[1];
+            final ByteArrayOutputStream good = new ByteArrayOutputStream();
+            final OutputStream broken = new BrokenOutputStream(exception) {
+                @Override
+                public void close() {
+                    closed[0] = true;
+                }
+            };
+            final ParallelTeeOutputStream out = new ParallelTeeOutputStream(Arrays.asList(good, broken), 10, 2,
+                policy, null);
+            out.write(TestUtils.generateTestData(10));
+            // the failed branch stops before the barrier of this flush and releases it
+            out.flush();
+            assertTrue(out.isDetached(1), policy.name());
+            assertSame(exception, out.getBranchFailure(1));
+            assertNull(out.getBranchFailure(0));
+            out.write(TestUtils.generateTestData(10));
+            out.close();
+            assertEquals(20, good.size());
+            assertTrue(closed[0], policy.name());
+        }
+    }
+
+    @Test
+    public void testBranchDiesDuringFlush() throws Exception {
+        final IllegalStateException exception = new IllegalStateException("test");
+        final GatedOutputStream slow = new GatedOutputStream();
+        final GatedOutputStream dying = new GatedOutputStream();
+        dying.failure = exception;
+        final ParallelTeeOutputStream out = new ParallelTeeOutputStream(Arrays.asList(slow, dying), 10, 1,
+            SlowBranchPolicy.BLOCK, null);
+        // both writers hold the first chunk, both queues are full
+        out.write(TestUtils.generateTestData(30));
+        final AtomicReference<Thread> flusher = new AtomicReference<>();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> flush = executor.submit(() -> {
+                flusher.set(Thread.currentThread());
+                out.flush();
+                return null;
+            });
+            // the flush has seen both branches attached and waits to queue the barrier of the slow one
+            while (flusher.get() == null || flusher.get().getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            dying.gate.countDown();
+            while (!out.isDetached(1)) {
+                Thread.sleep(1);
+            }
+            // the barrier of the dead branch is queued after its writer stopped
+            slow.gate.countDown();
+            final ExecutionException e = assertThrows(ExecutionException.class, () -> flush.get(10, TimeUnit.SECONDS));
+            assertSame(exception, e.getCause().getCause());
+            assertEquals(0, out.getLag(1));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThrows(IOException.class, out::close);
+        assertEquals(30, slow.size());
+        // the dead writer closed its branch as close() skips it
+        assertTrue(dying.closed);
+    }
+
+    @Test
+    public void testConstructorValidation() {
+        final OutputStream branch = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTeeOutputStream());
+        assertThrows(NullPointerException.class, () -> new ParallelTeeOutputStream(branch, null));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTeeOutputStream(
+            Collections.singletonList(branch), 10, 0, SlowBranchPolicy.BLOCK, null));
+        assertThrows(NullPointerException.class, () -> new ParallelTeeOutputStream(
+            Collections.singletonList(branch), 10, 1, null, null));
+    }
+}
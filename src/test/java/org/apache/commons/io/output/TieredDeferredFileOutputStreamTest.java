@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link TieredDeferredFileOutputStream} and {@link DirectBufferSegmentPool}.
+ */
+public class TieredDeferredFileOutputStreamTest {
+
+    private static final byte[] DATA = new byte[100];
+
+    static {
+        for (int i = 0; i < DATA.length; i++) {
+            DATA[i] = (byte) i;
+        }
+    }
+
+    @TempDir
+    public File temporaryFolder;
+
+    private TieredDeferredFileOutputStream write(final DirectBufferSegmentPool pool, final int length)
+        throws IOException {
+        final TieredDeferredFileOutputStream out = new TieredDeferredFileOutputStream(10, 80, pool, "tdfos", ".tmp",
+            temporaryFolder);
+        // mix single byte and bulk writes
+        for (int i = 0; i < length; i += 4) {
+            out.write(DATA[i]);
+            out.write(DATA, i + 1, Math.max(0, Math.min(3, length - i - 1)));
+        }
+        out.close();
+        return out;
+    }
+
+    private void assertContents(final TieredDeferredFileOutputStream out, final int length) throws IOException {
+        final byte[] expected = Arrays.copyOf(DATA, length);
+        assertArrayEquals(expected, out.getData());
+        final java.io.ByteArrayOutputStream actual = new java.io.ByteArrayOutputStream();
+        out.writeTo(actual);
+        assertArrayEquals(expected, actual.toByteArray());
+    }
+
+    @Test
+    public void testHeapTier() throws IOException {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 64);
+        final TieredDeferredFileOutputStream out = write(pool, 8);
+        assertTrue(out.isInMemory());
+        assertFalse(out.isOffHeap());
+        assertNull(out.getFile());
+        assertEquals(0, pool.getAllocatedBytes());
+        assertContents(out, 8);
+    }
+
+    @Test
+    public void testOffHeapTier() throws IOException {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 64);
+        final TieredDeferredFileOutputStream out = write(pool, 40);
+        assertTrue(out.isInMemory());
+        assertTrue(out.isOffHeap());
+        assertEquals(48, pool.getUsedBytes());
+        assertContents(out, 40);
+        out.release();
+        assertEquals(0, pool.getUsedBytes());
+        assertThrows(IOException.class, out::getData);
+    }
+
+    @Test
+    public void testWriteAfterRelease() throws IOException {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 64);
+        final TieredDeferredFileOutputStream out = new TieredDeferredFileOutputStream(10, 80, pool, "tdfos", ".tmp",
+            temporaryFolder);
+        out.write(DATA, 0, 40);
+        assertTrue(out.isOffHeap());
+        out.release();
+        assertThrows(IOException.class, () -> out.write(1));
+        assertThrows(IOException.class, () -> out.write(DATA, 0, 4));
+        // past the threshold
+        assertThrows(IOException.class, () -> out.write(DATA));
+        assertEquals(0, pool.getUsedBytes());
+    }
+
+    @Test
+    public void testDiskTier() throws IOException {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 1024);
+        final TieredDeferredFileOutputStream out = write(pool, 100);
+        assertFalse(out.isInMemory());
+        assertFalse(out.isOffHeap());
+        assertNotNull(out.getFile());
+        assertEquals(100, out.getFile().length());
+        // segments are given back when the data moves to disk
+        assertEquals(0, pool.getUsedBytes());
+        assertContents(out, 100);
+    }
+
+    @Test
+    public void testBudgetExhausted() throws IOException {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 64);
+        final TieredDeferredFileOutputStream first = write(pool, 64);
+        assertTrue(first.isOffHeap());
+        assertTrue(pool.isExhausted());
+
+        final TieredDeferredFileOutputStream second = write(pool, 20);
+        assertFalse(second.isInMemory());
+        assertContents(second, 20);
+
+        first.release();
+        assertFalse(pool.isExhausted());
+        assertTrue(write(pool, 20).isOffHeap());
+    }
+
+    @Test
+    public void testNoPool() throws IOException {
+        final TieredDeferredFileOutputStream out = write(null, 20);
+        assertFalse(out.isInMemory());
+        assertContents(out, 20);
+    }
+
+    @Test
+    public void testOutputFile() throws IOException {
+        final File file = new File(temporaryFolder, "sub/out.dat");
+        try (TieredDeferredFileOutputStream out = new TieredDeferredFileOutputStream(0, 0, null, file)) {
+            out.write(DATA);
+        }
+        assertArrayEquals(DATA, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new TieredDeferredFileOutputStream(-1, 10, null, "tdfos", null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TieredDeferredFileOutputStream(11, 10, null, "tdfos", null, null));
+        assertThrows(NullPointerException.class,
+            () -> new TieredDeferredFileOutputStream(1, 10, null, (String) null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new DirectBufferSegmentPool(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new DirectBufferSegmentPool(10, -1));
+    }
+
+    @Test
+    public void testWriteToBeforeClose() throws IOException {
+        try (TieredDeferredFileOutputStream out = new TieredDeferredFileOutputStream(1, 10, null, "tdfos", null,
+            temporaryFolder)) {
+            assertThrows(IOException.class, () -> out.writeTo(NullOutputStream.NULL_OUTPUT_STREAM));
+        }
+    }
+
+    @Test
+    public void testPoolBudget() {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 40);
+        assertEquals(32, pool.getMaxBytes());
+        final ByteBuffer a = pool.tryAcquire();
+        final ByteBuffer b = pool.tryAcquire();
+        assertTrue(a.isDirect());
+        assertNull(pool.tryAcquire());
+        assertTrue(pool.isExhausted());
+        a.put((byte) 1);
+        pool.release(a);
+        pool.release(ByteBuffer.allocate(16));
+        assertEquals(16, pool.getUsedBytes());
+        final ByteBuffer c = pool.tryAcquire();
+        assertEquals(0, c.position());
+        assertEquals(32, pool.getAllocatedBytes());
+        pool.release(b);
+        pool.release(c);
+        assertEquals(0, pool.getUsedBytes());
+    }
+
+    @Test
+    public void testPoolDoubleRelease() {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 32);
+        final ByteBuffer a = pool.tryAcquire();
+        final ByteBuffer b = pool.tryAcquire();
+        pool.release(a);
+        pool.release(a);
+        assertEquals(16, pool.getUsedBytes());
+        assertNotNull(pool.tryAcquire());
+        assertTrue(pool.isExhausted());
+        assertNull(pool.tryAcquire());
+        pool.release(b);
+        assertEquals(16, pool.getUsedBytes());
+    }
+
+    @Test
+    public void testPoolForeignRelease() {
+        final DirectBufferSegmentPool pool = new DirectBufferSegmentPool(16, 16);
+        final ByteBuffer a = pool.tryAcquire();
+        pool.release(ByteBuffer.allocateDirect(16));
+        assertEquals(16, pool.getUsedBytes());
+        assertTrue(pool.isExhausted());
+        assertNull(pool.tryAcquire());
+        pool.release(a);
+        assertEquals(0, pool.getUsedBytes());
+        assertSame(a, pool.tryAcquire());
+        assertNull(pool.tryAcquire());
+    }
+}
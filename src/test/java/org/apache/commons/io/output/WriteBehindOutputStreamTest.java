@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link WriteBehindOutputStream}.
+ */
+public class WriteBehindOutputStreamTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testWriteAndClose() throws IOException {
+        final byte[] data = TestUtils.generateTestData(1000);
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (WriteBehindOutputStream out = new WriteBehindOutputStream(target, 16, 2)) {
+            out.write(data[0]);
+            out.write(data, 1, 500);
+            for (int i = 501; i < data.length; i++) {
+                out.write(data[i]);
+            }
+        }
+        assertArrayEquals(data, target.toByteArray());
+    }
+
+    @Test
+    public void testFlushIsBarrier() throws IOException {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final int[] flushes = new int[1];
+        final OutputStream counting = new ProxyOutputStream(target) {
+            @Override
+            public void flush() throws IOException {
+                flushes[0]++;
+                super.flush();
+            }
+        };
+        try (WriteBehindOutputStream out = new WriteBehindOutputStream(counting, 16, 4)) {
+            out.write(TestUtils.generateTestData(10));
+            out.flush();
+            assertEquals(10, target.size());
+            assertEquals(1, flushes[0]);
+            out.write(TestUtils.generateTestData(40));
+            out.flush();
+            assertEquals(50, target.size());
+        }
+    }
+
+    @Test
+    public void testFileWithSync() throws IOException {
+        final File file = new File(temporaryFolder, "audit.log");
+        final byte[] data = TestUtils.generateTestData(100_000);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            try (WriteBehindOutputStream out = new WriteBehindOutputStream(new FileOutputStream(file),
+                new ByteArraySegmentPool(1024, 8), 4, 10_000, 5, executor)) {
+                for (int i = 0; i < data.length; i += 100) {
+                    out.write(data, i, 100);
+                }
+                out.flush();
+                assertEquals(data.length, file.length());
+            }
+            assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (WriteBehindOutputStream out = new WriteBehindOutputStream(target, 64, 2)) {
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    try {
+                        for (int i = 0; i < 1000; i++) {
+                            out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+                        }
+                    } catch (final IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        final byte[] bytes = target.toByteArray();
+        assertEquals(32_000, bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            assertEquals(i % 8 + 1, bytes[i]);
+        }
+    }
+
+    @Test
+    public void testFailureSurfacesOnNextCall() throws IOException {
+        final IOException exception = new IOException("test");
+        final WriteBehindOutputStream out = new WriteBehindOutputStream(new BrokenOutputStream(exception), 4, 2);
+        out.write(TestUtils.generateTestData(10));
+        assertSame(exception, assertThrows(IOException.class, out::flush));
+        assertSame(exception, assertThrows(IOException.class, () -> out.write(1)));
+        assertSame(exception, assertThrows(IOException.class, out::close));
+        out.close();
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+
+    @Test
+    public void testCloseInterrupted() throws Exception {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final OutputStream blocking = new ProxyOutputStream(target) {
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                try {
+                    proceed.await();
+                } catch (final InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                super.write(b, off, len);
+            }
+        };
+        final WriteBehindOutputStream out = new WriteBehindOutputStream(blocking, 16, 2);
+        out.write(TestUtils.generateTestData(10));
+        final Thread closer = Thread.currentThread();
+        final Thread interrupter = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (final InterruptedException e) {
+                // ignore
+            }
+            closer.interrupt();
+        });
+        interrupter.start();
+        try {
+            assertThrows(InterruptedIOException.class, out::close);
+        } finally {
+            Thread.interrupted();
+            interrupter.join();
+        }
+        assertThrows(IOException.class, () -> out.write(1));
+        proceed.countDown();
+        // only waits for the writer
+        out.close();
+        assertArrayEquals(TestUtils.generateTestData(10), target.toByteArray());
+    }
+
+    @Test
+    public void testWriterDies() throws IOException {
+        final IllegalStateException exception = new IllegalStateException("test");
+        final OutputStream throwing = new ProxyOutputStream(new ByteArrayOutputStream()) {
+            @Override
+            public void flush() {
+                throw exception;
+            }
+        };
+        // keeps the writer's failure off the console
+        final Executor executor = task -> new Thread(() -> {
+            try {
+                task.run();
+            } catch (final IllegalStateException e) {
+                // expected
+            }
+        }).start();
+        final WriteBehindOutputStream out = new WriteBehindOutputStream(throwing, new ByteArraySegmentPool(4, 4), 2, 0,
+            0, executor);
+        out.write(TestUtils.generateTestData(10));
+        assertSame(exception, assertThrows(IOException.class, out::flush).getCause());
+        // the writer is gone, nothing waits for it
+        assertThrows(IOException.class, out::flush);
+        assertThrows(IOException.class, out::close);
+        out.close();
+    }
+
+    @Test
+    public void testConstructorValidation() {
+        final OutputStream target = new ByteArrayOutputStream();
+        assertThrows(NullPointerException.class, () -> new WriteBehindOutputStream(null));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindOutputStream(target, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindOutputStream(target, 1, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new WriteBehindOutputStream(target, new ByteArraySegmentPool(1, 1), 1, -1, 0, null));
+    }
+}
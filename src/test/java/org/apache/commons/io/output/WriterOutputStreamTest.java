@@ -21,6 +21,8 @@
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
 
 import org.junit.jupiter.api.Test;
@@ -146,4 +148,40 @@ public void testWriteImmediately() throws IOException {
             assertEquals("abc", writer.toString());
         }
     }
+
+    @Test
+    public void testLargeWritesMatchStringDecoding() throws IOException {
+        final StringBuilder buffer = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            buffer.append("plain ascii text ").append(i).append(i % 7 == 0 ? " caf\u00e9 \ud83d\ude00 \u20ac" : "");
+        }
+        final String testString = buffer.toString();
+        for (final Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1,
+            StandardCharsets.US_ASCII, StandardCharsets.UTF_16}) {
+            final byte[] bytes = testString.getBytes(charset);
+            for (final int chunk : new int[] {129, 1000, 8192, bytes.length}) {
+                final StringWriter writer = new StringWriter();
+                try (WriterOutputStream out = new WriterOutputStream(writer, charset, 64, false)) {
+                    for (int offset = 0; offset < bytes.length; offset += chunk) {
+                        out.write(bytes, offset, Math.min(chunk, bytes.length - offset));
+                    }
+                }
+                assertEquals(new String(bytes, charset).replace('\ufffd', '?'), writer.toString(), charset.name());
+            }
+        }
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        final StringWriter first = new StringWriter();
+        final WriterOutputStream out = new WriterOutputStream(first, StandardCharsets.UTF_8);
+        // leave an incomplete sequence and buffered characters behind
+        out.write(new byte[] {'a', 'b', (byte) 0xC3});
+        final StringWriter second = new StringWriter();
+        out.reset(second);
+        out.write(TEST_STRING.getBytes(StandardCharsets.UTF_8));
+        out.close();
+        assertEquals("", first.toString());
+        assertEquals(TEST_STRING, second.toString());
+    }
 }